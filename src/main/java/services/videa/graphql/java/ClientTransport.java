@@ -0,0 +1,30 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java;
+
+
+/**
+ * HTTP client used by the blocking methods of generated endpoint classes.
+ */
+public enum ClientTransport {
+
+    /**
+     * Spring RestTemplate created in the generated 'init' method.
+     */
+    REST_TEMPLATE,
+
+    /**
+     * JDK 11+ java.net.http.HttpClient with a configurable executor. Blocking calls park the calling thread
+     * without pinning, so it suits virtual threads.
+     */
+    JAVA_HTTP_CLIENT
+
+}
@@ -15,6 +15,11 @@ import com.squareup.javapoet.TypeSpec;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 
 public class FileCreator {
 
@@ -29,7 +34,8 @@ public class FileCreator {
 
 
     /**
-     * Write a Java class file using JavaPoet JavaFile API.
+     * Write a Java class file using JavaPoet JavaFile API. An existing file with identical content is left
+     * untouched, so its modification time does not trigger recompilation.
      *
      * @param typeSpec TypeSpec to be generated.
      */
@@ -38,11 +44,32 @@ public class FileCreator {
 
         File file = new File(generationFolder);
         try {
-            javaFile.writeTo(file);
+            Path path = path(typeSpec.name);
+            byte[] content = javaFile.toString().getBytes(StandardCharsets.UTF_8);
+            if (Files.exists(path) && Arrays.equals(content, Files.readAllBytes(path))) {
+                return;
+            }
+            Files.createDirectories(path.getParent());
+            Files.write(path, content);
         } catch (IOException e) {
             String message = "Folder not available: " + file.getPath();
             throw new IllegalArgumentException(message, e);
         }
     }
 
+
+    /**
+     * Path of the Java class file generated for a class name.
+     *
+     * @param className Simple name of the generated class
+     * @return File path below generation folder and package directories
+     */
+    public Path path(String className) {
+        Path path = Paths.get(generationFolder);
+        for (String packageComponent : packageName.split("\\.")) {
+            path = path.resolve(packageComponent);
+        }
+        return path.resolve(className + ".java");
+    }
+
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+
+/**
+ * Manifest of an incremental generation, stored in the generation folder. For every generated class it records
+ * a fingerprint of the schema definitions the class is derived from and a hash of the written file. A class is
+ * up to date if both still match, so only classes with changed definitions or dependencies are regenerated.
+ */
+public class GenerationManifest {
+
+    public static final String FILE_NAME = ".graphql-java-generator.manifest";
+
+    private final Path file;
+    private final Map<String, String[]> entries;
+
+
+    private GenerationManifest(Path file, Map<String, String[]> entries) {
+        this.file = file;
+        this.entries = entries;
+    }
+
+
+    /**
+     * Load the manifest of the given generation folder. A missing manifest results in an empty one.
+     *
+     * @param generationFolder Output folder for generated Java classes
+     * @return Manifest of the previous generation
+     */
+    public static GenerationManifest load(Path generationFolder) {
+        Path file = generationFolder.resolve(FILE_NAME);
+        Map<String, String[]> entries = new TreeMap<>();
+        if (Files.exists(file)) {
+            try {
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    String[] columns = line.split(" ");
+                    if (columns.length == 3) {
+                        entries.put(columns[0], new String[]{columns[1], columns[2]});
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Manifest not readable: " + file, e);
+            }
+        }
+        return new GenerationManifest(file, entries);
+    }
+
+
+    /**
+     * Check whether the class of a task was generated from the same definition and its file is unchanged.
+     *
+     * @param name Simple name of the generated class
+     * @param fingerprint Fingerprint of the current definition
+     * @param path Path of the generated file
+     * @return True if the class does not need to be generated again
+     */
+    public boolean isUpToDate(String name, String fingerprint, Path path) {
+        String[] entry = entries.get(name);
+        return entry != null && entry[0].equals(fingerprint) && Files.exists(path) && entry[1].equals(hash(path));
+    }
+
+
+    /**
+     * Record the fingerprint of a class and the hash of its generated file.
+     *
+     * @param name Simple name of the generated class
+     * @param fingerprint Fingerprint of the current definition
+     * @param path Path of the generated file
+     */
+    public void record(String name, String fingerprint, Path path) {
+        entries.put(name, new String[]{fingerprint, hash(path)});
+    }
+
+
+    /**
+     * Remove all classes not generated anymore from the manifest.
+     *
+     * @param names Simple names of all currently generated classes
+     * @return Simple names of the removed classes
+     */
+    public List<String> retain(Set<String> names) {
+        List<String> orphans = entries.keySet().stream()
+                .filter(name -> !names.contains(name))
+                .collect(Collectors.toList());
+        orphans.forEach(entries::remove);
+        return orphans;
+    }
+
+
+    /**
+     * Write the manifest to the generation folder, sorted by class name.
+     */
+    public void save() {
+        List<String> lines = entries.entrySet().stream()
+                .map(entry -> entry.getKey() + " " + entry.getValue()[0] + " " + entry.getValue()[1])
+                .collect(Collectors.toList());
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Manifest not writable: " + file, e);
+        }
+    }
+
+
+    /**
+     * Calculate the fingerprint of a definition.
+     *
+     * @param content Printed definition
+     * @return Hex encoded SHA-256 hash
+     */
+    public static String fingerprint(String content) {
+        return hex(digest().digest(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+
+    private static String hash(Path path) {
+        try {
+            return hex(digest().digest(Files.readAllBytes(path)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Generated file not readable: " + path, e);
+        }
+    }
+
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+}
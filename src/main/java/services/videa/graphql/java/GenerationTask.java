@@ -0,0 +1,52 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java;
+
+
+/**
+ * Generation of a single Java class, e.g. for one GraphQL type. Tasks are independent of each other and can be
+ * executed in any order or in parallel.
+ */
+public class GenerationTask implements Runnable {
+
+    private final String name;
+    private final String definition;
+    private final Runnable generation;
+
+
+    /**
+     * @param name Simple name of the generated class
+     * @param definition Printed schema definitions the generated class is derived from, including dependencies
+     * @param generation Generation of the class including writing its file
+     */
+    public GenerationTask(String name, String definition, Runnable generation) {
+        this.name = name;
+        this.definition = definition;
+        this.generation = generation;
+    }
+
+
+    public String getName() {
+        return name;
+    }
+
+
+    public String getDefinition() {
+        return definition;
+    }
+
+
+    @Override
+    public void run() {
+        generation.run();
+    }
+
+}
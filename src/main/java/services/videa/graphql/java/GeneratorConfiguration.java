@@ -0,0 +1,189 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java;
+
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+
+/**
+ * Configuration of the Java class generation. All options default to the behaviour of earlier versions.
+ */
+@Data
+public class GeneratorConfiguration {
+
+    /**
+     * Generate endpoints sending a fixed operation document and passing arguments as GraphQL variables instead
+     * of rendering argument values into the query string.
+     */
+    private boolean useVariables = false;
+
+    /**
+     * Number of threads generating classes in parallel. With one thread all classes are generated sequentially.
+     */
+    private int threads = 1;
+
+    /**
+     * Generate only classes whose schema definitions changed since the last run, based on a manifest stored in
+     * the generation folder, and delete files of classes removed from the schema.
+     */
+    private boolean incremental = false;
+
+    /**
+     * Generate an additional method per endpoint field, suffixed 'Async', returning a CompletableFuture of the
+     * result sent by a non-blocking client.
+     */
+    private boolean asyncMethods = false;
+
+    /**
+     * Generate an additional method per endpoint field, suffixed 'Mono', returning a Reactor Mono of the result
+     * sent by a non-blocking client on subscription.
+     */
+    private boolean reactiveMethods = false;
+
+    /**
+     * Generate a method 'batch' per endpoint class collecting operations on several fields, which are sent in one
+     * HTTP round trip as aliased document or JSON array batch.
+     */
+    private boolean batchMethods = false;
+
+    /**
+     * Generate an additional method per query field, suffixed 'Coalesced', returning a CompletableFuture. Calls
+     * within a short window are deduplicated and sent as one aliased batch.
+     */
+    private boolean coalescingMethods = false;
+
+    /**
+     * Serve query methods from a normalized cache of entities keyed by '__typename' and ID field, sending a query
+     * only if a selected field is missing or expired.
+     */
+    private boolean normalizedCache = false;
+
+    /**
+     * Time to live in milliseconds by query field name, whose results are kept in a result cache keyed by argument
+     * values. Overrides the directive '@cacheControl(maxAge: seconds)' declared on query fields.
+     */
+    private Map<String, Long> resultCacheTtlMillis = new HashMap<>();
+
+    /**
+     * Send blocking operations as automatic persisted queries, carrying the SHA-256 hash of the operation document
+     * computed at generation time instead of the document. Arguments are always passed as variables.
+     */
+    private boolean persistedQueries = false;
+
+    /**
+     * Write the operation documents of all query and mutation methods with their SHA-256 hashes to
+     * 'persisted-queries.json' in the generation folder, so servers can preload and allow-list them. Implies
+     * 'useVariables', so the methods send exactly these fixed documents. Batches, coalesced calls and methods
+     * taking a selection render their documents at runtime and are not listed.
+     */
+    private boolean persistedQueryManifest = false;
+
+    /**
+     * Generate a selection class per object and interface type, e.g. 'UserSelection.select().id().email()', and
+     * an overload of every endpoint method taking a selection, which requests only the selected fields.
+     */
+    private boolean selections = false;
+
+    /**
+     * Maximum number of nested selection sets rendered for endpoint methods, 0 for no limit. Fields of object and
+     * interface types below are not selected. Types already being rendered are always skipped.
+     */
+    private int maxSelectionDepth = 0;
+
+    /**
+     * Generate a '<field>Stream' method per query field returning a Relay connection. It returns a
+     * 'Stream<Edge>' binding the 'edges' one by one while the response is read, so memory stays flat for large
+     * results.
+     */
+    private boolean streamingMethods = false;
+
+    /**
+     * Generate a '<field>Iterator' method per query field returning a Relay connection and taking 'after'. It
+     * returns a 'GqlPaginator<Edge>' iterating the edges of all pages, which are fetched on demand and prefetched
+     * while the current page is consumed.
+     */
+    private boolean paginationMethods = false;
+
+    /**
+     * Generate a streaming Jackson deserializer per type, a serializer per input type and the module
+     * 'SerializationModule' registering them, which the endpoint classes' object mapper uses instead of
+     * introspecting the generated classes. The endpoints' requests are written by generated serializers, too.
+     */
+    private boolean generatedSerializers = false;
+
+    /**
+     * Generate code without runtime reflection for GraalVM native images, implying 'useVariables' and
+     * 'generatedSerializers'. The reflection configuration of the enums, which Jackson still resolves reflectively,
+     * is written to 'META-INF/native-image' in the generation folder.
+     */
+    private boolean nativeImage = false;
+
+    /**
+     * Generate types and input types as final immutable classes with Lombok's '@Value' and '@Builder' instead of
+     * '@Data'. Jackson binds them by their all-args '@JsonCreator' constructor, so instances can be shared across
+     * threads and caches without copies.
+     */
+    private boolean immutableTypes = false;
+
+    /**
+     * Maximum number of fields selected by an endpoint method, 0 for no limit. Generation fails for larger
+     * selection sets, which would make queries and responses too expensive.
+     */
+    private int maxSelectionComplexity = 0;
+
+    /**
+     * HTTP client of the blocking endpoint methods. The java.net.http client requires the generated code to be
+     * compiled and run on JDK 11 or later.
+     */
+    private ClientTransport transport = ClientTransport.REST_TEMPLATE;
+
+
+    public boolean isUseVariables() {
+        return useVariables || nativeImage || persistedQueryManifest;
+    }
+
+
+    public boolean isGeneratedSerializers() {
+        return generatedSerializers || nativeImage;
+    }
+
+
+    /**
+     * Describe the options the generated classes depend on, in effect. Options only controlling how or where
+     * classes are generated, like 'threads' and 'incremental', are left out, so changing them keeps incrementally
+     * generated classes up to date.
+     *
+     * @return Options affecting the generated source
+     */
+    public String sourceOptions() {
+        return "useVariables=" + isUseVariables()
+                + ", asyncMethods=" + asyncMethods
+                + ", reactiveMethods=" + reactiveMethods
+                + ", batchMethods=" + batchMethods
+                + ", coalescingMethods=" + coalescingMethods
+                + ", normalizedCache=" + normalizedCache
+                + ", resultCacheTtlMillis=" + new TreeMap<>(resultCacheTtlMillis)
+                + ", persistedQueries=" + persistedQueries
+                + ", selections=" + selections
+                + ", maxSelectionDepth=" + maxSelectionDepth
+                + ", maxSelectionComplexity=" + maxSelectionComplexity
+                + ", streamingMethods=" + streamingMethods
+                + ", paginationMethods=" + paginationMethods
+                + ", generatedSerializers=" + isGeneratedSerializers()
+                + ", immutableTypes=" + immutableTypes
+                + ", transport=" + transport;
+    }
+
+}
@@ -10,6 +10,8 @@
 
 package services.videa.graphql.java;
 
+import java.util.List;
+
 public interface GeneratorInterface {
 
     public static final String LINE_SEPARATOR = System.getProperty("line.separator");
@@ -19,6 +21,19 @@ public interface GeneratorInterface {
         return new FileCreator(generationFolder, packageName);
     }
 
-    void generate();
+    /**
+     * Return one task per class to be generated.
+     *
+     * @return Independent generation tasks
+     */
+    List<GenerationTask> tasks();
+
+
+    /**
+     * Generate all classes sequentially.
+     */
+    default void generate() {
+        tasks().forEach(GenerationTask::run);
+    }
 
 }
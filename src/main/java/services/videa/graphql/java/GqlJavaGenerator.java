@@ -10,24 +10,48 @@
 
 package services.videa.graphql.java;
 
+import graphql.language.AstPrinter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import services.videa.graphql.java.endpoints.AbstractEndpointGenerator;
 import services.videa.graphql.java.endpoints.MutationGenerator;
 import services.videa.graphql.java.endpoints.QueryGenerator;
 import services.videa.graphql.java.enums.EnumGenerator;
 import services.videa.graphql.java.inputs.InputGenerator;
 import services.videa.graphql.java.interfaces.InterfaceGenerator;
 import services.videa.graphql.java.schema.GqlSchemaParser;
+import services.videa.graphql.java.selections.SelectionGenerator;
+import services.videa.graphql.java.serializers.SerializerGenerator;
 import services.videa.graphql.java.types.TypeGenerator;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 
 /**
  * Java class generator for a given GraphQL schema file. Approach is 'Schema First'.
  */
 public class GqlJavaGenerator {
+    private static Logger logger = LoggerFactory.getLogger(GqlJavaGenerator.class);
 
     /**
      * Generate Java classes from given GraphQL schema. The schema is passed as IDL content string.
@@ -37,31 +61,63 @@ public class GqlJavaGenerator {
      * @param packageName Package name for Java classes
      */
     public static void generateJavaClasses(InputStream schemaContent, String outputFolder, String packageName) {
-        String convert;
-        try {
-            convert = convert(schemaContent);
+        generateJavaClasses(schemaContent, outputFolder, packageName, new GeneratorConfiguration());
+    }
+
+
+    /**
+     * Generate Java classes from given GraphQL schema using the given configuration. The schema is streamed as
+     * UTF-8 into the GraphQL parser and the stream is closed afterwards.
+     *
+     * @param schemaContent GraphQL schema content as IDL content string
+     * @param outputFolder Generation output folder for Java classes
+     * @param packageName Package name for Java classes
+     * @param configuration Generator options
+     */
+    public static void generateJavaClasses(InputStream schemaContent, String outputFolder, String packageName,
+                                           GeneratorConfiguration configuration) {
+        GqlSchemaParser gqlSchemaParser;
+        try (Reader reader = new BufferedReader(new InputStreamReader(schemaContent, StandardCharsets.UTF_8))) {
+            gqlSchemaParser = new GqlSchemaParser(reader);
         } catch (IOException e) {
             throw new IllegalArgumentException(e);
         }
 
-        GqlSchemaParser gqlSchemaParser = new GqlSchemaParser(convert);
-        generate(outputFolder, packageName, gqlSchemaParser);
+        generate(outputFolder, packageName, gqlSchemaParser, configuration);
+    }
+
+
+    /**
+     * Generate Java classes from a GraphQL schema split into multiple files. The files are parsed in parallel and
+     * merged in the given order.
+     *
+     * @param schemaFiles GraphQL schema files in IDL
+     * @param outputFolder Generation output folder for Java classes
+     * @param packageName Package name for Java classes
+     * @param configuration Generator options
+     */
+    public static void generateJavaClasses(List<File> schemaFiles, String outputFolder, String packageName,
+                                           GeneratorConfiguration configuration) {
+        GqlSchemaParser gqlSchemaParser = new GqlSchemaParser(schemaFiles);
+        generate(outputFolder, packageName, gqlSchemaParser, configuration);
     }
 
 
     /**
-     * Convert an input stream to a string by reading contect line by line.
+     * Convert an input stream to a string by reading contect line by line. The stream is decoded as UTF-8.
      *
      * @param inputStream Given input stream to be converted.
      * @return Converted string
      * @throws IOException In case of internal reader conflicts
+     * @deprecated Schema streams are parsed directly, see {@link #generateJavaClasses(InputStream, String, String)}
      */
+    @Deprecated
     public static String convert(InputStream inputStream) throws IOException {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
         StringBuilder out = new StringBuilder();
         String line;
         while ((line = reader.readLine()) != null) {
-            out.append(line).append(System.getProperty("line.separator"));
+            out.append(line).append(GeneratorInterface.LINE_SEPARATOR);
         }
         reader.close();
         return out.toString();
@@ -69,35 +125,138 @@ public class GqlJavaGenerator {
 
 
     /**
-     * Generate Java classes from given GraphQL schema parser.
+     * Generate Java classes from given GraphQL schema parser. Every class is generated by an independent task, so
+     * with more than one configured thread the tasks of all type kinds are executed in parallel. If configured, the
+     * operation documents of all endpoints are written to the persisted query manifest afterwards, and the
+     * reflection configuration of native images in native image mode.
      *
      * @param generationFolder Output folder for generated Java classes
      * @param packageName Package name for generated Java classes
      * @param gqlSchemaParser Schema parser to parse GraphQL types
+     * @param configuration Generator options
      */
-    private static void generate(String generationFolder, String packageName, GqlSchemaParser gqlSchemaParser) {
-        EnumGenerator enumGenerator = new EnumGenerator(gqlSchemaParser.enums(), generationFolder, packageName);
-        enumGenerator.generate();
+    private static void generate(String generationFolder, String packageName, GqlSchemaParser gqlSchemaParser,
+                                 GeneratorConfiguration configuration) {
+        List<AbstractEndpointGenerator> endpointGenerators = Arrays.asList(
+                new QueryGenerator(gqlSchemaParser.objectTypes().get("Query"), gqlSchemaParser.types(),
+                        gqlSchemaParser.scalars(), generationFolder, packageName, configuration),
+                new MutationGenerator(gqlSchemaParser.objectTypes().get("Mutation"), gqlSchemaParser.types(),
+                        gqlSchemaParser.scalars(), generationFolder, packageName, configuration));
+        List<GeneratorInterface> generators = new ArrayList<>(Arrays.asList(
+                new EnumGenerator(gqlSchemaParser.enums(), generationFolder, packageName),
+                new InterfaceGenerator(gqlSchemaParser.interfaces(), generationFolder, packageName),
+                new InputGenerator(gqlSchemaParser.inputTypes(), gqlSchemaParser.scalars(), generationFolder,
+                        packageName, configuration.isImmutableTypes()),
+                new TypeGenerator(gqlSchemaParser.objectTypes(), gqlSchemaParser.scalars(), generationFolder,
+                        packageName, configuration.isImmutableTypes())));
+        if (configuration.isSelections()) {
+            generators.add(new SelectionGenerator(gqlSchemaParser.types(), generationFolder, packageName));
+        }
+        if (configuration.isGeneratedSerializers()) {
+            generators.add(new SerializerGenerator(gqlSchemaParser.objectTypes(), gqlSchemaParser.inputTypes(),
+                    gqlSchemaParser.scalars(), generationFolder, packageName, configuration.isImmutableTypes()));
+        }
+        generators.addAll(endpointGenerators);
 
-        InterfaceGenerator interfaceGenerator = new InterfaceGenerator(
-                gqlSchemaParser.interfaces(), generationFolder, packageName);
-        interfaceGenerator.generate();
+        List<GenerationTask> tasks = generators.stream()
+                .flatMap(generator -> generator.tasks().stream())
+                .collect(Collectors.toList());
 
-        InputGenerator inputGenerator = new InputGenerator(
-                gqlSchemaParser.inputTypes(), gqlSchemaParser.scalars(), generationFolder, packageName);
-        inputGenerator.generate();
+        if (configuration.isIncremental()) {
+            generateIncremental(generationFolder, packageName, gqlSchemaParser, configuration, tasks);
+        } else {
+            execute(tasks, configuration.getThreads());
+        }
 
-        TypeGenerator typeGenerator = new TypeGenerator(gqlSchemaParser.objectTypes(), gqlSchemaParser.scalars(),
-                generationFolder, packageName);
-        typeGenerator.generate();
+        if (configuration.isPersistedQueryManifest()) {
+            PersistedQueryManifest manifest = new PersistedQueryManifest();
+            endpointGenerators.forEach(endpointGenerator -> endpointGenerator.addDocuments(manifest));
+            logger.info("Persisted query manifest: {}", manifest.save(Paths.get(generationFolder)));
+        }
 
-        QueryGenerator queryGenerator = new QueryGenerator(
-                gqlSchemaParser.objectTypes().get("Query"), gqlSchemaParser.scalars(), generationFolder, packageName);
-        queryGenerator.generate();
+        if (configuration.isNativeImage()) {
+            NativeImageConfiguration nativeImageConfiguration = new NativeImageConfiguration(packageName);
+            gqlSchemaParser.enums().keySet().forEach(nativeImageConfiguration::addEnum);
+            logger.info("Native image configuration: {}",
+                    nativeImageConfiguration.save(Paths.get(generationFolder)));
+        }
+    }
+
+
+    /**
+     * Execute only the tasks whose definitions changed since the last generation according to the manifest in
+     * the generation folder and delete files of classes not generated anymore. Package name, the options affecting
+     * the generated source and scalars are part of every fingerprint, as all classes depend on them.
+     *
+     * @param generationFolder Output folder for generated Java classes
+     * @param packageName Package name for generated Java classes
+     * @param gqlSchemaParser Schema parser to parse GraphQL types
+     * @param configuration Generator options
+     * @param tasks Generation tasks of all classes
+     */
+    private static void generateIncremental(String generationFolder, String packageName,
+                                            GqlSchemaParser gqlSchemaParser, GeneratorConfiguration configuration,
+                                            List<GenerationTask> tasks) {
+        FileCreator fileCreator = new FileCreator(generationFolder, packageName);
+        GenerationManifest manifest = GenerationManifest.load(Paths.get(generationFolder));
+
+        StringBuilder salt = new StringBuilder(packageName).append('\n').append(configuration.sourceOptions());
+        new TreeMap<>(gqlSchemaParser.scalars()).values()
+                .forEach(scalar -> salt.append('\n').append(AstPrinter.printAst(scalar)));
+
+        Map<String, String> fingerprints = new HashMap<>();
+        tasks.forEach(task -> fingerprints.put(task.getName(),
+                GenerationManifest.fingerprint(salt + "\n" + task.getDefinition())));
 
-        MutationGenerator mutationGenerator = new MutationGenerator(
-                gqlSchemaParser.objectTypes().get("Mutation"), gqlSchemaParser.scalars(), generationFolder, packageName);
-        mutationGenerator.generate();
+        List<GenerationTask> changedTasks = tasks.stream()
+                .filter(task -> !manifest.isUpToDate(task.getName(), fingerprints.get(task.getName()),
+                        fileCreator.path(task.getName())))
+                .collect(Collectors.toList());
+        logger.info("Generating {} of {} classes", changedTasks.size(), tasks.size());
+        execute(changedTasks, configuration.getThreads());
+
+        changedTasks.forEach(task -> manifest.record(task.getName(), fingerprints.get(task.getName()),
+                fileCreator.path(task.getName())));
+        manifest.retain(fingerprints.keySet()).forEach(name -> {
+            try {
+                Files.deleteIfExists(fileCreator.path(name));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Orphaned file not deletable: " + fileCreator.path(name), e);
+            }
+        });
+        manifest.save();
+    }
+
+
+    /**
+     * Execute the given generation tasks sequentially or, with more than one thread, on a fixed thread pool and
+     * wait for all of them. The first failing task cancels the remaining ones.
+     *
+     * @param tasks Independent generation tasks
+     * @param threads Number of worker threads
+     */
+    private static void execute(List<GenerationTask> tasks, int threads) {
+        if (threads <= 1) {
+            tasks.forEach(GenerationTask::run);
+            return;
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(threads, Math.max(tasks.size(), 1)));
+        try {
+            List<Future<?>> futures = tasks.stream().map(executorService::submit).collect(Collectors.toList());
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Generation of " + tasks.get(i).getName() + " failed",
+                            e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Generation interrupted", e);
+                }
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
     }
 
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java;
+
+import com.fasterxml.jackson.core.util.DefaultIndenter;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+
+/**
+ * Reflection configuration of GraalVM native images for the generated classes, stored in the generation folder
+ * below 'META-INF/native-image/[package]'. Generated in native image mode, the classes need reflection only for
+ * enums, whose constants and annotations Jackson resolves reflectively. Classes are sorted by name, so the file is
+ * stable and diffable between builds.
+ */
+public class NativeImageConfiguration {
+
+    public static final String FOLDER = "META-INF/native-image";
+    public static final String REFLECT_CONFIG = "reflect-config.json";
+
+    private final String packageName;
+    private final TreeSet<String> enums = new TreeSet<>();
+
+
+    /**
+     * @param packageName Package name of the generated classes, also the folder below 'META-INF/native-image'
+     */
+    public NativeImageConfiguration(String packageName) {
+        this.packageName = packageName;
+    }
+
+
+    /**
+     * Add an enum bound by Jackson.
+     *
+     * @param name Simple name of the generated enum
+     */
+    public void addEnum(String name) {
+        enums.add(packageName + "." + name);
+    }
+
+
+    /**
+     * @return Reflection configuration entries sorted by class name
+     */
+    public List<Map<String, Object>> getReflectConfig() {
+        List<Map<String, Object>> reflectConfig = new ArrayList<>();
+        enums.forEach(name -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", name);
+            entry.put("allDeclaredFields", true);
+            entry.put("allPublicMethods", true);
+            reflectConfig.add(entry);
+        });
+        return reflectConfig;
+    }
+
+
+    /**
+     * Write the reflection configuration to the generation folder. An unchanged configuration is not written again.
+     *
+     * @param generationFolder Output folder for generated Java classes
+     * @return Path of the reflection configuration
+     */
+    public Path save(Path generationFolder) {
+        Path folder = generationFolder.resolve(FOLDER).resolve(packageName);
+        Path file = folder.resolve(REFLECT_CONFIG);
+
+        DefaultPrettyPrinter printer = new DefaultPrettyPrinter()
+                .withObjectIndenter(new DefaultIndenter("  ", "\n"));
+        printer.indentArraysWith(new DefaultIndenter("  ", "\n"));
+        try {
+            byte[] content = (new ObjectMapper().writer(printer).writeValueAsString(getReflectConfig()) + "\n")
+                    .getBytes(StandardCharsets.UTF_8);
+            if (!Files.exists(file) || !Arrays.equals(content, Files.readAllBytes(file))) {
+                Files.createDirectories(folder);
+                Files.write(file, content);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Native image configuration not writable: " + file, e);
+        }
+        return file;
+    }
+
+}
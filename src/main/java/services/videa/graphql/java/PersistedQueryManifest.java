@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java;
+
+import com.fasterxml.jackson.core.util.DefaultIndenter;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+
+/**
+ * Manifest of all operation documents sent by the generated endpoint classes, stored in the generation folder.
+ * Servers can preload and allow-list these documents at startup, as every document is identified by the same
+ * SHA-256 hash the clients send as automatic persisted query. The file uses the Apollo persisted query manifest
+ * format with operations sorted by type and name, so it is stable and diffable between builds.
+ */
+public class PersistedQueryManifest {
+
+    public static final String FILE_NAME = "persisted-queries.json";
+    public static final String FORMAT = "apollo-persisted-query-manifest";
+
+    private final Map<String, Map<String, Object>> operations = new TreeMap<>();
+
+
+    /**
+     * Add the document of an operation.
+     *
+     * @param operationType Operation type, e.g. 'query' or 'mutation'
+     * @param name Operation name, equal to the field name in schema
+     * @param document Operation document as sent by the generated client
+     */
+    public void add(String operationType, String name, String document) {
+        Map<String, Object> operation = new LinkedHashMap<>();
+        operation.put("id", GenerationManifest.fingerprint(document));
+        operation.put("name", name);
+        operation.put("type", operationType);
+        operation.put("body", document);
+        operations.put(operationType + " " + name + " " + operation.get("id"), operation);
+    }
+
+
+    /**
+     * @return Operations sorted by type, name and hash, each with 'id', 'name', 'type' and 'body'
+     */
+    public List<Map<String, Object>> getOperations() {
+        return new ArrayList<>(operations.values());
+    }
+
+
+    /**
+     * Write the manifest to the generation folder. An unchanged manifest is not written again.
+     *
+     * @param generationFolder Output folder for generated Java classes
+     * @return Path of the manifest
+     */
+    public Path save(Path generationFolder) {
+        Path file = generationFolder.resolve(FILE_NAME);
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("format", FORMAT);
+        manifest.put("version", 1);
+        manifest.put("operations", getOperations());
+
+        DefaultPrettyPrinter printer = new DefaultPrettyPrinter()
+                .withObjectIndenter(new DefaultIndenter("  ", "\n"));
+        printer.indentArraysWith(new DefaultIndenter("  ", "\n"));
+        try {
+            byte[] content = (new ObjectMapper().writer(printer).writeValueAsString(manifest) + "\n")
+                    .getBytes(StandardCharsets.UTF_8);
+            if (!Files.exists(file) || !Arrays.equals(content, Files.readAllBytes(file))) {
+                Files.createDirectories(generationFolder);
+                Files.write(file, content);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Persisted query manifest not writable: " + file, e);
+        }
+        return file;
+    }
+
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+
+/**
+ * Batch of operations sent in one HTTP round trip. Generated endpoints add operations, post {@link #request()} and
+ * pass the response body to {@link #read(ObjectMapper, InputStream)}, which completes the result of every
+ * operation.
+ */
+public class GqlBatch {
+
+    private static final String DATA = "data";
+    private static final String ERRORS = "errors";
+    private static final String PATH = "path";
+
+    private final GqlBatchMode mode;
+    private final List<Entry<?>> entries = new ArrayList<>();
+
+
+    public GqlBatch(GqlBatchMode mode) {
+        this.mode = mode;
+    }
+
+
+    /**
+     * Add an operation to the batch.
+     *
+     * @param operation Operation on a field of the endpoint type
+     * @param variables Values of the operation's arguments by argument name
+     * @param type Java class the result is bound to
+     * @param <T> Type of result
+     * @return Result of the operation, available after the batch has been executed
+     */
+    public <T> GqlBatchResult<T> add(GqlOperation operation, Map<String, Object> variables, Class<T> type) {
+        if (mode == GqlBatchMode.ALIASES && !entries.isEmpty()
+                && !entries.get(0).operation.getOperationType().equals(operation.getOperationType())) {
+            throw new IllegalArgumentException("Operations of an aliased batch must be of the same type");
+        }
+        Entry<T> entry = new Entry<>(operation, variables, type, operation.getFieldName() + "_" + entries.size());
+        entries.add(entry);
+        return entry.result;
+    }
+
+
+    public GqlBatchMode getMode() {
+        return mode;
+    }
+
+
+    public int size() {
+        return entries.size();
+    }
+
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+
+    /**
+     * Create the request body of the batch, to be serialized as JSON.
+     *
+     * @return One request with an aliased document, or a list of requests for array batches
+     */
+    public Object request() {
+        if (mode == GqlBatchMode.ARRAY) {
+            return entries.stream()
+                    .map(entry -> request(entry.operation.document(), entry.variables))
+                    .collect(Collectors.toList());
+        }
+
+        String variableDefinitions = entries.stream()
+                .filter(entry -> !entry.operation.getArgumentNames().isEmpty())
+                .map(entry -> entry.operation.variableDefinitions(entry.prefix()))
+                .collect(Collectors.joining(", "));
+        StringBuilder document = new StringBuilder(entries.get(0).operation.getOperationType()).append(" batch");
+        if (!variableDefinitions.isEmpty()) {
+            document.append("(").append(variableDefinitions).append(")");
+        }
+        document.append(" { ");
+        Map<String, Object> variables = new HashMap<>();
+        entries.forEach(entry -> {
+            document.append(entry.operation.field(entry.alias, entry.prefix()));
+            entry.variables.forEach((name, value) -> variables.put(entry.prefix() + name, value));
+        });
+        return request(document.append("}").toString(), variables);
+    }
+
+
+    /**
+     * Read the response of the batch and complete the result of every operation. Errors of an aliased batch are
+     * assigned to operations by the first element of their path, errors without path concern all operations.
+     *
+     * @param objectMapper Object mapper used for binding
+     * @param body Response body, closed after reading
+     * @throws IOException In case the body cannot be read or bound
+     */
+    public void read(ObjectMapper objectMapper, InputStream body) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (mode == GqlBatchMode.ARRAY) {
+                readArray(objectMapper, parser);
+            } else {
+                readAliases(objectMapper, parser);
+            }
+        }
+    }
+
+
+    private void readArray(ObjectMapper objectMapper, JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IOException("GraphQL batch response is not a JSON array");
+        }
+        for (Entry<?> entry : entries) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("GraphQL batch response contains less than " + entries.size() + " responses");
+            }
+            entry.readResponse(objectMapper, parser);
+        }
+    }
+
+
+    private void readAliases(ObjectMapper objectMapper, JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("GraphQL response is not a JSON object");
+        }
+
+        Map<String, Entry<?>> entriesByAlias = new LinkedHashMap<>();
+        entries.forEach(entry -> entriesByAlias.put(entry.alias, entry));
+        Map<String, Object> values = new HashMap<>();
+        JsonNode errors = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+
+            if (DATA.equals(fieldName) && token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    Entry<?> entry = entriesByAlias.get(parser.getCurrentName());
+                    parser.nextToken();
+                    if (entry != null) {
+                        values.put(entry.alias, objectMapper.readValue(parser, entry.type));
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if (ERRORS.equals(fieldName) && token == JsonToken.START_ARRAY) {
+                errors = objectMapper.readTree(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        for (Entry<?> entry : entries) {
+            entry.complete(values.get(entry.alias), errorsOf(errors, entry.alias));
+        }
+    }
+
+
+    /**
+     * Select the errors concerning an alias.
+     */
+    private static JsonNode errorsOf(JsonNode errors, String alias) {
+        if (errors == null) {
+            return null;
+        }
+        ArrayNode selected = JsonNodeFactory.instance.arrayNode();
+        errors.forEach(error -> {
+            JsonNode path = error.get(PATH);
+            if (path == null || !path.isArray() || path.size() == 0 || alias.equals(path.get(0).asText())) {
+                selected.add(error);
+            }
+        });
+        return selected.size() == 0 ? null : selected;
+    }
+
+
+    private static Map<String, Object> request(String query, Map<String, Object> variables) {
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("query", query);
+        request.put("variables", variables);
+        return request;
+    }
+
+
+    private static class Entry<T> {
+        private final GqlOperation operation;
+        private final Map<String, Object> variables;
+        private final Class<T> type;
+        private final String alias;
+        private final GqlBatchResult<T> result;
+
+        private Entry(GqlOperation operation, Map<String, Object> variables, Class<T> type, String alias) {
+            this.operation = operation;
+            this.variables = variables;
+            this.type = type;
+            this.alias = alias;
+            this.result = new GqlBatchResult<>(operation.getFieldName());
+        }
+
+        private String prefix() {
+            return alias + "_";
+        }
+
+        private void complete(Object value, JsonNode errors) {
+            result.complete(type.cast(value), errors);
+        }
+
+        private void readResponse(ObjectMapper objectMapper, JsonParser parser) throws IOException {
+            try {
+                result.complete(GqlResponseReader.read(objectMapper, parser, operation.getFieldName(), type), null);
+            } catch (GqlResponseException e) {
+                result.complete(null, e.getErrors());
+            }
+        }
+    }
+
+}
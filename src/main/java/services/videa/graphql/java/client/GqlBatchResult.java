@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+
+/**
+ * Result of an operation added to a {@link GqlBatch}, available after the batch has been executed.
+ *
+ * @param <T> Type of result
+ */
+public class GqlBatchResult<T> {
+
+    private final String operationName;
+    private boolean completed;
+    private T value;
+    private JsonNode errors;
+
+
+    GqlBatchResult(String operationName) {
+        this.operationName = operationName;
+    }
+
+
+    void complete(T value, JsonNode errors) {
+        this.value = value;
+        this.errors = errors;
+        this.completed = true;
+    }
+
+
+    /**
+     * Return the result of the operation.
+     *
+     * @return Bound result, null if the response contains no value for the operation
+     * @throws IllegalStateException In case the batch has not been executed yet
+     * @throws GqlResponseException In case the response contains errors and no value for the operation
+     */
+    public T get() throws GqlResponseException {
+        if (!completed) {
+            throw new IllegalStateException("Batch of '" + operationName + "' has not been executed");
+        }
+        if (value == null && errors != null) {
+            throw new GqlResponseException(operationName, errors);
+        }
+        return value;
+    }
+
+
+    /**
+     * Return the errors of the response concerning this operation, if any.
+     *
+     * @return Errors as JSON array, null if there are none
+     */
+    public JsonNode getErrors() {
+        return errors;
+    }
+
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Coalescer of calls on endpoint fields in the style of a DataLoader. Calls issued within a time window are
+ * collected, identical calls share one future, and all distinct calls are sent as one aliased {@link GqlBatch}.
+ */
+public class GqlCoalescer {
+
+    private static final ScheduledExecutorService TIMER
+            = Executors.newSingleThreadScheduledExecutor(daemonThreads("gql-coalescer-timer"));
+    private static final ExecutorService DISPATCHER = Executors.newCachedThreadPool(daemonThreads("gql-coalescer"));
+
+    private final BatchExecutor batchExecutor;
+    private final long windowMillis;
+    private final int maxBatchSize;
+
+    private Map<Key, Call<?>> pending = new LinkedHashMap<>();
+    private long generation;
+
+
+    /**
+     * Sender of a batch, e.g. the 'executeBatch' method of a generated endpoint.
+     */
+    @FunctionalInterface
+    public interface BatchExecutor {
+        void execute(GqlBatch batch) throws IOException;
+    }
+
+
+    public GqlCoalescer(BatchExecutor batchExecutor, GqlTransportSettings settings) {
+        this(batchExecutor, settings.getCoalescingWindowMillis(), settings.getCoalescingMaxBatchSize());
+    }
+
+
+    /**
+     * @param batchExecutor Sender of batches
+     * @param windowMillis Time calls are collected, 0 for explicit dispatch only
+     * @param maxBatchSize Number of distinct calls sending a batch immediately
+     */
+    public GqlCoalescer(BatchExecutor batchExecutor, long windowMillis, int maxBatchSize) {
+        this.batchExecutor = batchExecutor;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+
+    /**
+     * Add a call to the pending batch. A call with the same operation and variables as a pending call returns the
+     * pending call's future. With a window of 0 the batch is sent only by {@link #dispatch()} or once it holds
+     * the maximum number of calls, so the future of a call may otherwise never complete.
+     *
+     * @param operation Operation on a field of the endpoint type
+     * @param variables Values of the operation's arguments by argument name
+     * @param type Java class the result is bound to
+     * @param <T> Type of result
+     * @return Future completed after the batch has been sent
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> load(GqlOperation operation, Map<String, Object> variables, Class<T> type) {
+        Key key = new Key(operation, variables);
+        Call<?> call;
+        long scheduled = -1;
+        Map<Key, Call<?>> full = null;
+
+        synchronized (this) {
+            call = pending.get(key);
+            if (call == null) {
+                call = new Call<>(operation, variables, type);
+                pending.put(key, call);
+                if (pending.size() >= maxBatchSize) {
+                    full = take();
+                } else if (pending.size() == 1 && windowMillis > 0) {
+                    scheduled = generation;
+                }
+            }
+        }
+
+        if (full != null) {
+            Map<Key, Call<?>> calls = full;
+            DISPATCHER.execute(() -> send(calls));
+        } else if (scheduled >= 0) {
+            long dispatchedGeneration = scheduled;
+            TIMER.schedule(() -> DISPATCHER.execute(() -> dispatch(dispatchedGeneration)),
+                    windowMillis, TimeUnit.MILLISECONDS);
+        }
+        return (CompletableFuture<T>) call.future;
+    }
+
+
+    /**
+     * Send all pending calls in the calling thread, e.g. at the end of a request cycle. Errors thrown while sending
+     * complete the futures of the calls and are rethrown.
+     */
+    public void dispatch() {
+        Map<Key, Call<?>> calls;
+        synchronized (this) {
+            calls = take();
+        }
+        send(calls);
+    }
+
+
+    /**
+     * Return the number of distinct calls waiting to be sent.
+     *
+     * @return Number of pending calls
+     */
+    public synchronized int pending() {
+        return pending.size();
+    }
+
+
+    /**
+     * Send pending calls of a window, unless they were already sent by an explicit dispatch or a full batch.
+     */
+    private void dispatch(long dispatchedGeneration) {
+        Map<Key, Call<?>> calls = null;
+        synchronized (this) {
+            if (generation == dispatchedGeneration) {
+                calls = take();
+            }
+        }
+        if (calls != null) {
+            send(calls);
+        }
+    }
+
+
+    private Map<Key, Call<?>> take() {
+        Map<Key, Call<?>> calls = pending;
+        pending = new LinkedHashMap<>();
+        generation++;
+        return calls;
+    }
+
+
+    private void send(Map<Key, Call<?>> calls) {
+        if (calls.isEmpty()) {
+            return;
+        }
+
+        GqlBatch batch = new GqlBatch(GqlBatchMode.ALIASES);
+        List<Call<?>> sent = new ArrayList<>(calls.values());
+        try {
+            sent.forEach(call -> call.add(batch));
+            batchExecutor.execute(batch);
+        } catch (Throwable e) {
+            // Any failure, Errors included, must complete the futures, as callers wait for them
+            sent.forEach(call -> call.future.completeExceptionally(e));
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+            return;
+        }
+        sent.forEach(Call::complete);
+    }
+
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+
+    private static class Key {
+        private final GqlOperation operation;
+        private final Map<String, Object> variables;
+
+        private Key(GqlOperation operation, Map<String, Object> variables) {
+            this.operation = operation;
+            this.variables = variables;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return operation == key.operation && variables.equals(key.variables);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(operation), variables);
+        }
+    }
+
+
+    private static class Call<T> {
+        private final GqlOperation operation;
+        private final Map<String, Object> variables;
+        private final Class<T> type;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private GqlBatchResult<T> result;
+
+        private Call(GqlOperation operation, Map<String, Object> variables, Class<T> type) {
+            this.operation = operation;
+            this.variables = variables;
+            this.type = type;
+        }
+
+        private void add(GqlBatch batch) {
+            result = batch.add(operation, variables, type);
+        }
+
+        private void complete() {
+            try {
+                future.complete(result.get());
+            } catch (GqlResponseException | RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+}
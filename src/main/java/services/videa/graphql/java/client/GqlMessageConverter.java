@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+
+/**
+ * Message converter of RestTemplate based endpoint clients, writing requests by the writers of a
+ * {@link GqlObjectMapper}. Modules registered with it after the client was created are used as well.
+ */
+public class GqlMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final GqlObjectMapper gqlObjectMapper;
+
+
+    /**
+     * @param gqlObjectMapper Object mapper writing the requests
+     */
+    public GqlMessageConverter(GqlObjectMapper gqlObjectMapper) {
+        super(gqlObjectMapper.getObjectMapper());
+        this.gqlObjectMapper = gqlObjectMapper;
+    }
+
+
+    @Override
+    public ObjectMapper getObjectMapper() {
+        return gqlObjectMapper.getObjectMapper();
+    }
+
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        outputMessage.getBody().write(gqlObjectMapper.writer(object.getClass()).writeValueAsBytes(object));
+    }
+
+}
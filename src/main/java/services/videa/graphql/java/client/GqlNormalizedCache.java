@@ -0,0 +1,322 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Normalized cache of query results. Results are split into entities keyed by '__typename' and their ID field,
+ * every entity is stored once and referenced from root fields and other entities. A query is served from cache if
+ * all fields of its selection set are present and not expired, so entities fetched by one query serve others.
+ */
+public class GqlNormalizedCache {
+
+    private static final String TYPENAME = "__typename";
+    private static final String REFERENCE = "__ref";
+    private static final String ROOT = "ROOT_QUERY.";
+
+    private final GqlObjectMapper objectMapper;
+    private final Map<String, String> idFields;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+    private final Map<GqlOperation, Map<String, Object>> selections = new ConcurrentHashMap<>();
+
+
+    /**
+     * @param objectMapper Object mapper used for binding
+     * @param idFields Name of the ID field by type name, types without ID field are embedded in their parent
+     * @param settings Maximum number of entries and time to live
+     */
+    public GqlNormalizedCache(ObjectMapper objectMapper, Map<String, String> idFields, GqlTransportSettings settings) {
+        this(new GqlObjectMapper(objectMapper), idFields, settings);
+    }
+
+
+    /**
+     * @param objectMapper Object mapper used for binding, including modules registered later
+     * @param idFields Name of the ID field by type name, types without ID field are embedded in their parent
+     * @param settings Maximum number of entries and time to live
+     */
+    public GqlNormalizedCache(GqlObjectMapper objectMapper, Map<String, String> idFields,
+                              GqlTransportSettings settings) {
+        this.objectMapper = objectMapper;
+        this.idFields = idFields;
+        this.ttlMillis = settings.getCacheTtlMillis();
+        int maxEntries = settings.getCacheMaxEntries();
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+
+    /**
+     * Create the map of ID fields by type name from alternating type and field names, as used by generated
+     * endpoints.
+     *
+     * @param typesAndFields Type name followed by the name of its ID field, repeated for each type
+     * @return ID field by type name
+     */
+    public static Map<String, String> idFields(String... typesAndFields) {
+        Map<String, String> idFields = new HashMap<>();
+        for (int i = 0; i + 1 < typesAndFields.length; i += 2) {
+            idFields.put(typesAndFields[i], typesAndFields[i + 1]);
+        }
+        return Collections.unmodifiableMap(idFields);
+    }
+
+
+    /**
+     * Read the result of an operation from cache.
+     *
+     * @param operation Operation, its selection set must select '__typename' of all objects
+     * @param variables Values of the operation's arguments by argument name
+     * @param type Java class the result is bound to
+     * @param <T> Type of result
+     * @return Bound result, null if any selected field is missing or expired
+     * @throws IOException In case the cached result cannot be bound
+     */
+    public <T> T read(GqlOperation operation, Map<String, Object> variables, Class<T> type) throws IOException {
+        JsonNode value;
+        synchronized (this) {
+            value = denormalize(get(rootKey(operation, variables)), selection(operation));
+        }
+        return value == null || value.isNull() ? null : reader(type).readValue(value);
+    }
+
+
+    /**
+     * Write the result of an operation to cache and bind it.
+     *
+     * @param operation Operation the result was read for
+     * @param variables Values of the operation's arguments by argument name
+     * @param value Result as JSON tree, may be null
+     * @param type Java class the result is bound to
+     * @param <T> Type of result
+     * @return Bound result, null if the value is null
+     * @throws IOException In case the result cannot be bound
+     */
+    public <T> T write(GqlOperation operation, Map<String, Object> variables, JsonNode value, Class<T> type)
+            throws IOException {
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        synchronized (this) {
+            entries.put(rootKey(operation, variables), new Entry(normalize(value, expiresAt), expiresAt));
+        }
+        return reader(type).readValue(value);
+    }
+
+
+    /**
+     * Remove an entity, so all queries selecting it are sent again.
+     *
+     * @param typeName Name of the entity's type
+     * @param id Value of the entity's ID field
+     */
+    public synchronized void evict(String typeName, String id) {
+        entries.remove(typeName + ":" + id);
+    }
+
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+
+    /**
+     * Return the number of entities and root fields in cache, including expired ones not evicted yet.
+     *
+     * @return Number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+
+    /**
+     * Replace entities by references and merge their fields into the stored entity.
+     */
+    private JsonNode normalize(JsonNode value, long expiresAt) {
+        if (value.isArray()) {
+            ArrayNode array = JsonNodeFactory.instance.arrayNode();
+            value.forEach(element -> array.add(normalize(element, expiresAt)));
+            return array;
+        }
+        if (!value.isObject()) {
+            return value;
+        }
+
+        ObjectNode object = JsonNodeFactory.instance.objectNode();
+        value.fields().forEachRemaining(field -> object.set(field.getKey(), normalize(field.getValue(), expiresAt)));
+
+        String key = entityKey(value);
+        if (key == null) {
+            return object;
+        }
+        Entry entity = entries.get(key);
+        if (entity != null && entity.expiresAt > System.currentTimeMillis()) {
+            ((ObjectNode) entity.value).setAll(object);
+            entity.expiresAt = expiresAt;
+        } else {
+            entries.put(key, new Entry(object, expiresAt));
+        }
+        return JsonNodeFactory.instance.objectNode().put(REFERENCE, key);
+    }
+
+
+    /**
+     * Rebuild the value of a selection set from stored values, null if any selected field is missing.
+     */
+    @SuppressWarnings("unchecked")
+    private JsonNode denormalize(JsonNode value, Map<String, Object> selection) {
+        if (value == null) {
+            return null;
+        }
+        if (value.isArray()) {
+            ArrayNode array = JsonNodeFactory.instance.arrayNode();
+            for (JsonNode element : value) {
+                JsonNode denormalized = denormalize(element, selection);
+                if (denormalized == null) {
+                    return null;
+                }
+                array.add(denormalized);
+            }
+            return array;
+        }
+        if (!value.isObject() || selection == null) {
+            return value;
+        }
+
+        JsonNode object = value.has(REFERENCE) ? get(value.get(REFERENCE).asText()) : value;
+        if (object == null) {
+            return null;
+        }
+        ObjectNode result = JsonNodeFactory.instance.objectNode();
+        for (Map.Entry<String, Object> field : selection.entrySet()) {
+            JsonNode fieldValue = denormalize(object.get(field.getKey()), (Map<String, Object>) field.getValue());
+            if (fieldValue == null) {
+                return null;
+            }
+            result.set(field.getKey(), fieldValue);
+        }
+        return result;
+    }
+
+
+    private JsonNode get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+
+    private String entityKey(JsonNode object) {
+        JsonNode typeName = object.get(TYPENAME);
+        String idField = typeName == null ? null : idFields.get(typeName.asText());
+        JsonNode id = idField == null ? null : object.get(idField);
+        return id == null || id.isNull() ? null : typeName.asText() + ":" + id.asText();
+    }
+
+
+    private String rootKey(GqlOperation operation, Map<String, Object> variables) throws JsonProcessingException {
+        return ROOT + operation.getFieldName()
+                + objectMapper.getObjectMapper().writeValueAsString(new TreeMap<>(variables));
+    }
+
+
+    private ObjectReader reader(Class<?> type) {
+        return objectMapper.reader(type).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+
+    private Map<String, Object> selection(GqlOperation operation) {
+        return selections.computeIfAbsent(operation, key -> parse(key.getSelectionSet()));
+    }
+
+
+    /**
+     * Parse a rendered selection set into nested maps of field names, null for leaf fields.
+     *
+     * @param selectionSet Selection set including braces, e.g. '{ id user { id } } '
+     * @return Fields by name, null if the selection set is empty
+     */
+    static Map<String, Object> parse(String selectionSet) {
+        Iterator<String> tokens = Arrays.asList(selectionSet.trim().split("\\s+")).iterator();
+        if (!tokens.hasNext() || !"{".equals(tokens.next())) {
+            return null;
+        }
+
+        Deque<Map<String, Object>> stack = new ArrayDeque<>();
+        Map<String, Object> root = new LinkedHashMap<>();
+        Map<String, Object> current = root;
+        String last = null;
+        while (tokens.hasNext()) {
+            String token = tokens.next();
+            if ("{".equals(token)) {
+                Map<String, Object> fields = new LinkedHashMap<>();
+                current.put(last, fields);
+                stack.push(current);
+                current = fields;
+            } else if ("}".equals(token)) {
+                if (stack.isEmpty()) {
+                    break;
+                }
+                current = stack.pop();
+            } else {
+                current.put(token, null);
+                last = token;
+            }
+        }
+        return root;
+    }
+
+
+    private static class Entry {
+        private final JsonNode value;
+        private long expiresAt;
+
+        private Entry(JsonNode value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * Object mapper shared by generated endpoint clients, with one reader per result type and one writer per request
+ * type. Readers and writers resolve their (de)serializers when they are created, so {@link #warmUp(Class[])} at
+ * application startup moves the introspection of all types out of the first calls.
+ * <p>
+ * Jackson keeps the (de)serializers it resolved, so the mapper is configured before it is used for the first time.
+ * Only modules can be registered later, which replaces the mapper and its readers and writers at once by a copy with
+ * empty caches. Clients read the current mapper on every call, so they all use modules registered later.
+ */
+public class GqlObjectMapper {
+
+    private static final GqlObjectMapper SHARED = new GqlObjectMapper(new ObjectMapper());
+
+    private volatile Snapshot snapshot;
+
+
+    /**
+     * @param objectMapper Configured object mapper
+     */
+    public GqlObjectMapper(ObjectMapper objectMapper) {
+        this.snapshot = new Snapshot(objectMapper);
+    }
+
+
+    /**
+     * Instance used by all endpoint clients whose transport settings do not name another one.
+     *
+     * @return Shared instance with a default object mapper
+     */
+    public static GqlObjectMapper shared() {
+        return SHARED;
+    }
+
+
+    public ObjectMapper getObjectMapper() {
+        return snapshot.objectMapper;
+    }
+
+
+    /**
+     * Register a module unless it is registered already, so every endpoint client can register the modules it
+     * needs with a shared mapper. Calls in flight finish with the former mapper.
+     *
+     * @param module Module of (de)serializers
+     * @return This instance
+     */
+    public synchronized GqlObjectMapper registerModule(Module module) {
+        ObjectMapper objectMapper = snapshot.objectMapper;
+        if (!objectMapper.getRegisteredModuleIds().contains(module.getTypeId())) {
+            snapshot = new Snapshot(objectMapper.copy().registerModule(module));
+        }
+        return this;
+    }
+
+
+    /**
+     * Reader binding values to a type, created once per type.
+     *
+     * @param type Java class values are bound to
+     * @return Reader with resolved deserializer
+     */
+    public ObjectReader reader(Class<?> type) {
+        Snapshot current = snapshot;
+        return current.readers.computeIfAbsent(type, current.objectMapper::readerFor);
+    }
+
+
+    /**
+     * Writer serializing values of a type, created once per type.
+     *
+     * @param type Java class of the serialized values
+     * @return Writer with resolved serializer
+     */
+    public ObjectWriter writer(Class<?> type) {
+        Snapshot current = snapshot;
+        return current.writers.computeIfAbsent(type, current.objectMapper::writerFor);
+    }
+
+
+    /**
+     * Create the readers and writers of all types, which resolves and caches their (de)serializers.
+     *
+     * @param types Result and request types of endpoint clients
+     */
+    public void warmUp(Class<?>... types) {
+        for (Class<?> type : types) {
+            reader(type);
+            writer(type);
+        }
+    }
+
+
+    /**
+     * Mapper with the readers and writers created from it, replaced as a whole when a module is registered. A
+     * reader created from a former mapper only ends up in that mapper's cache.
+     */
+    private static class Snapshot {
+        private final ObjectMapper objectMapper;
+        private final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+        private Snapshot(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+        }
+    }
+
+}
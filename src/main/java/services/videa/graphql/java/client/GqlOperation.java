@@ -0,0 +1,129 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+
+/**
+ * Operation on a single field of an endpoint type, declaring one variable per argument. Generated endpoints hold
+ * one operation per field, which renders either its own document or an aliased part of a batch document.
+ */
+public class GqlOperation {
+
+    private final String operationType;
+    private final String fieldName;
+    private final String selectionSet;
+    private final List<String> argumentNames = new ArrayList<>();
+    private final List<String> argumentTypes = new ArrayList<>();
+
+
+    /**
+     * @param operationType Operation keyword, e.g. 'query' or 'mutation'
+     * @param fieldName Name of the field of the endpoint type
+     * @param selectionSet Selection set of the field's type including braces and a trailing blank, empty for
+     *                     scalar fields
+     */
+    public GqlOperation(String operationType, String fieldName, String selectionSet) {
+        this.operationType = operationType;
+        this.fieldName = fieldName;
+        this.selectionSet = selectionSet;
+    }
+
+
+    /**
+     * Add an argument of the field.
+     *
+     * @param name Name of the argument, also used as variable name
+     * @param type GraphQL type of the argument, e.g. 'ID!'
+     * @return This operation
+     */
+    public GqlOperation argument(String name, String type) {
+        argumentNames.add(name);
+        argumentTypes.add(type);
+        return this;
+    }
+
+
+    public String getOperationType() {
+        return operationType;
+    }
+
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+
+    public String getSelectionSet() {
+        return selectionSet;
+    }
+
+
+    public List<String> getArgumentNames() {
+        return Collections.unmodifiableList(argumentNames);
+    }
+
+
+    /**
+     * Render the document of this operation alone, e.g. 'query user($id: ID!) { user(id: $id) { id } }'.
+     *
+     * @return Operation document
+     */
+    public String document() {
+        StringBuilder document = new StringBuilder(operationType).append(" ").append(fieldName);
+        if (!argumentNames.isEmpty()) {
+            document.append("(").append(variableDefinitions("")).append(")");
+        }
+        return document.append(" { ").append(field(null, "")).append("}").toString();
+    }
+
+
+    /**
+     * Render the variable definitions of this operation, e.g. '$user_0_id: ID!'.
+     *
+     * @param prefix Prefix of the variable names
+     * @return Comma separated variable definitions, empty for fields without arguments
+     */
+    String variableDefinitions(String prefix) {
+        List<String> definitions = new ArrayList<>();
+        for (int i = 0; i < argumentNames.size(); i++) {
+            definitions.add("$" + prefix + argumentNames.get(i) + ": " + argumentTypes.get(i));
+        }
+        return String.join(", ", definitions);
+    }
+
+
+    /**
+     * Render the field selection of this operation, e.g. 'user_0: user(id: $user_0_id) { id } '.
+     *
+     * @param alias Alias of the field, null for none
+     * @param prefix Prefix of the variable names
+     * @return Field selection
+     */
+    String field(String alias, String prefix) {
+        StringBuilder field = new StringBuilder();
+        if (alias != null) {
+            field.append(alias).append(": ");
+        }
+        field.append(fieldName);
+        if (!argumentNames.isEmpty()) {
+            field.append("(").append(argumentNames.stream()
+                    .map(argument -> argument + ": $" + prefix + argument)
+                    .collect(Collectors.joining(", "))).append(")");
+        }
+        return field.append(" ").append(selectionSet).toString();
+    }
+
+}
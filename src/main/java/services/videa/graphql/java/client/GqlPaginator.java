@@ -0,0 +1,218 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * Iterator over all edges of a Relay connection, fetching pages on demand by the 'endCursor' of the previous page.
+ * With a prefetch greater than 0, the following pages are requested in the background while the current one is
+ * consumed, so bulk reads are not slowed down by waiting for each response. Iteration ends when a page repeats
+ * the end cursor of an earlier page, so a server that never advances cannot keep it fetching forever. Closing an
+ * abandoned paginator cancels the pages requested ahead.
+ *
+ * @param <E> Type of edges
+ */
+public class GqlPaginator<E> implements Iterator<E>, AutoCloseable {
+
+    private static final AtomicInteger THREADS = new AtomicInteger();
+    private static final ExecutorService FETCHER = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "gql-paginator-" + THREADS.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Function<CompletableFuture<Page<E>>, CompletableFuture<Page<E>>> following;
+    private final int prefetch;
+    private final Deque<CompletableFuture<Page<E>>> pages = new ArrayDeque<>();
+    private final Set<String> cursors = ConcurrentHashMap.newKeySet();
+
+    private CompletableFuture<Page<E>> last;
+    private Iterator<E> edges = Collections.emptyIterator();
+    private volatile boolean closed;
+
+
+    /**
+     * Loader of a single page of a connection.
+     *
+     * @param <C> Type of connection
+     */
+    @FunctionalInterface
+    public interface PageLoader<C> {
+
+        /**
+         * @param after Cursor of the last edge of the previous page, null for the first page
+         * @return Connection of the page, null if the connection does not exist
+         * @throws IOException In case the page cannot be loaded
+         */
+        C load(String after) throws IOException;
+    }
+
+
+    /**
+     * @param loader Loads a page after a cursor
+     * @param edges Edges of a page
+     * @param endCursor Cursor of the last edge of a page
+     * @param hasNextPage Checks whether another page follows
+     * @param prefetch Number of pages requested ahead of the consumed one, 0 to load each page when needed
+     * @param <C> Type of connection
+     */
+    public <C> GqlPaginator(PageLoader<C> loader, Function<C, List<E>> edges, Function<C, String> endCursor,
+                            Predicate<C> hasNextPage, int prefetch) {
+        this.prefetch = Math.max(prefetch, 0);
+        this.following = previous -> previous.thenCompose(page -> page.hasNext && !closed
+                ? fetch(loader, edges, endCursor, hasNextPage, page.endCursor)
+                : CompletableFuture.completedFuture(Page.<E>last()));
+
+        last = fetch(loader, edges, endCursor, hasNextPage, null);
+        pages.add(last);
+        prefetch();
+    }
+
+
+    private <C> CompletableFuture<Page<E>> fetch(PageLoader<C> loader, Function<C, List<E>> edges,
+                                                 Function<C, String> endCursor, Predicate<C> hasNextPage,
+                                                 String after) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                C connection = loader.load(after);
+                if (connection == null) {
+                    return Page.last();
+                }
+                List<E> page = edges.apply(connection);
+                String cursor = endCursor.apply(connection);
+                return new Page<>(page == null ? Collections.emptyList() : page,
+                        cursor != null && hasNextPage.test(connection) && cursors.add(cursor), cursor);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, FETCHER);
+    }
+
+
+    private void prefetch() {
+        while (pages.size() < prefetch) {
+            last = following.apply(last);
+            pages.add(last);
+        }
+    }
+
+
+    @Override
+    public boolean hasNext() {
+        while (!edges.hasNext()) {
+            if (closed) {
+                return false;
+            }
+            if (pages.isEmpty()) {
+                if (last.isDone() && !join(last).hasNext) {
+                    return false;
+                }
+                last = following.apply(last);
+                pages.add(last);
+            }
+            Page<E> page = join(pages.poll());
+            if (prefetch > 0 && page.hasNext) {
+                prefetch();
+            }
+            edges = page.edges.iterator();
+            if (!page.hasNext && !edges.hasNext()) {
+                pages.clear();
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    @Override
+    public E next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return edges.next();
+    }
+
+
+    /**
+     * @return Sequential stream of all edges, loading pages as the stream is consumed. Closing the stream closes
+     * the paginator.
+     */
+    public Stream<E> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+                .onClose(this::close);
+    }
+
+
+    /**
+     * Stop iterating and cancel the pages requested ahead. A page being loaded is not interrupted, but no further
+     * page is requested after it.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        pages.forEach(page -> page.cancel(false));
+        pages.clear();
+        last.cancel(false);
+        edges = Collections.emptyIterator();
+    }
+
+
+    private static <E> Page<E> join(CompletableFuture<Page<E>> page) {
+        try {
+            return page.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw (UncheckedIOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+
+    private static class Page<E> {
+        private final List<E> edges;
+        private final boolean hasNext;
+        private final String endCursor;
+
+        Page(List<E> edges, boolean hasNext, String endCursor) {
+            this.edges = edges;
+            this.hasNext = hasNext;
+            this.endCursor = endCursor;
+        }
+
+        static <E> Page<E> last() {
+            return new Page<>(Collections.emptyList(), false, null);
+        }
+    }
+
+}
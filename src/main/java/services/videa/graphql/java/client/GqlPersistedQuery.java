@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Automatic persisted queries as defined by Apollo. A request carries the SHA-256 hash of its document instead of
+ * the document; the server answers 'PersistedQueryNotFound' for unknown hashes, then the document is sent once
+ * together with its hash and the server stores it.
+ */
+public class GqlPersistedQuery {
+
+    public static final String NOT_FOUND = "PersistedQueryNotFound";
+    public static final String NOT_FOUND_CODE = "PERSISTED_QUERY_NOT_FOUND";
+
+
+    private GqlPersistedQuery() {
+    }
+
+
+    /**
+     * Create the request extensions referencing a persisted document.
+     *
+     * @param sha256Hash Hex encoded SHA-256 hash of the document
+     * @return Extensions to be sent as 'extensions' of the request
+     */
+    public static Map<String, Object> extensions(String sha256Hash) {
+        Map<String, Object> persistedQuery = new LinkedHashMap<>();
+        persistedQuery.put("version", 1);
+        persistedQuery.put("sha256Hash", sha256Hash);
+        return Collections.singletonMap("persistedQuery", persistedQuery);
+    }
+
+}
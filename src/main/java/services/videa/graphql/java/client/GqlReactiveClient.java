@@ -0,0 +1,172 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.channel.ChannelOption;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+
+/**
+ * Non-blocking client used by generated async and reactive endpoint methods. Requests are sent by Spring's
+ * {@link WebClient}, so no thread is blocked while a call is in flight. Requires spring-webflux and reactor-netty
+ * on the classpath of the generated code. Closing the client releases the connection pool it created.
+ */
+public class GqlReactiveClient implements AutoCloseable {
+
+    private final WebClient webClient;
+    private final GqlObjectMapper objectMapper;
+    private final ConnectionProvider connectionProvider;
+
+
+    /**
+     * @param url GraphQL endpoint URL
+     * @param token Token sent in the authorization header of each request
+     * @param objectMapper Object mapper used for request and response binding
+     */
+    public GqlReactiveClient(String url, String token, ObjectMapper objectMapper) {
+        this(url, token, objectMapper, new GqlTransportSettings());
+    }
+
+
+    /**
+     * @param url GraphQL endpoint URL
+     * @param token Token sent in the authorization header of each request
+     * @param objectMapper Object mapper used for request and response binding
+     * @param settings Connection pool and compression settings
+     */
+    public GqlReactiveClient(String url, String token, ObjectMapper objectMapper, GqlTransportSettings settings) {
+        this(url, token, new GqlObjectMapper(objectMapper), settings);
+    }
+
+
+    /**
+     * @param url GraphQL endpoint URL
+     * @param token Token sent in the authorization header of each request
+     * @param objectMapper Object mapper used for request and response binding, including modules registered later
+     * @param settings Connection pool and compression settings
+     */
+    public GqlReactiveClient(String url, String token, GqlObjectMapper objectMapper, GqlTransportSettings settings) {
+        this(url, token, objectMapper, settings, connectionProvider(settings));
+    }
+
+
+    private GqlReactiveClient(String url, String token, GqlObjectMapper objectMapper, GqlTransportSettings settings,
+                              ConnectionProvider connectionProvider) {
+        this(WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient(connectionProvider, settings)))
+                .baseUrl(url)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Token " + token)
+                .build(), objectMapper, connectionProvider);
+    }
+
+
+    /**
+     * @param webClient Configured web client sending requests to the GraphQL endpoint
+     * @param objectMapper Object mapper used for request and response binding
+     */
+    public GqlReactiveClient(WebClient webClient, ObjectMapper objectMapper) {
+        this(webClient, new GqlObjectMapper(objectMapper), null);
+    }
+
+
+    private GqlReactiveClient(WebClient webClient, GqlObjectMapper objectMapper,
+                              ConnectionProvider connectionProvider) {
+        this.webClient = webClient;
+        this.objectMapper = objectMapper;
+        this.connectionProvider = connectionProvider;
+    }
+
+
+    /**
+     * Post a request lazily on subscription and read the operation's result once the response body is complete.
+     *
+     * @param request Request containing query and variables
+     * @param operationName Name of the operation, the field below 'data'
+     * @param type Java class the result is bound to
+     * @param <T> Type of result
+     * @return Mono emitting the bound result, empty if the response contains no value for the operation. It fails
+     * with {@link GqlResponseException} if the response contains errors only.
+     */
+    public <T> Mono<T> execute(Object request, String operationName, Class<T> type) {
+        return Mono.fromCallable(() -> objectMapper.writer(request.getClass()).writeValueAsBytes(request))
+                .flatMap(body -> webClient.post()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .bodyValue(body)
+                        .retrieve()
+                        .bodyToFlux(DataBuffer.class)
+                        .as(DataBufferUtils::join))
+                .handle((buffer, sink) -> {
+                    try {
+                        T result = GqlResponseReader.read(objectMapper, buffer.asInputStream(true),
+                                operationName, type);
+                        if (result != null) {
+                            sink.next(result);
+                        }
+                    } catch (IOException e) {
+                        sink.error(e);
+                    }
+                });
+    }
+
+
+    /**
+     * Post a request immediately and complete the returned future with the operation's result.
+     *
+     * @param request Request containing query and variables
+     * @param operationName Name of the operation, the field below 'data'
+     * @param type Java class the result is bound to
+     * @param <T> Type of result
+     * @return Future completed with the bound result or null, completed exceptionally in case of errors
+     */
+    public <T> CompletableFuture<T> executeAsync(Object request, String operationName, Class<T> type) {
+        return execute(request, operationName, type).toFuture();
+    }
+
+
+    /**
+     * Dispose the connection pool created by this client. A web client passed to the constructor is left open.
+     */
+    @Override
+    public void close() {
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+    }
+
+
+    private static ConnectionProvider connectionProvider(GqlTransportSettings settings) {
+        return ConnectionProvider.fixed("graphql", settings.getMaxConnectionsPerRoute(),
+                ConnectionProvider.DEFAULT_POOL_ACQUIRE_TIMEOUT, Duration.ofMillis(settings.getIdleTimeoutMillis()));
+    }
+
+
+    private static HttpClient httpClient(ConnectionProvider connectionProvider, GqlTransportSettings settings) {
+        return HttpClient.create(connectionProvider)
+                .compress(settings.isGzip())
+                .tcpConfiguration(tcpClient -> tcpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
+                        (int) settings.getConnectTimeoutMillis()));
+    }
+
+}
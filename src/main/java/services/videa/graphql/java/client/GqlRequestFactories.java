@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Request factories of RestTemplate based endpoint clients.
+ */
+public class GqlRequestFactories {
+    private static Logger logger = LoggerFactory.getLogger(GqlRequestFactories.class);
+
+    private static final boolean HTTP_COMPONENTS_PRESENT = ClassUtils.isPresent(
+            "org.apache.http.impl.client.HttpClientBuilder", GqlRequestFactories.class.getClassLoader());
+
+
+    /**
+     * Create a request factory with a connection pool configured by the given settings. Requires Apache
+     * HttpClient on the classpath, otherwise the JDK's HttpURLConnection with its built-in keep-alive is used.
+     *
+     * @param settings Connection settings
+     * @return Pooled request factory
+     */
+    public static ClientHttpRequestFactory pooled(GqlTransportSettings settings) {
+        if (HTTP_COMPONENTS_PRESENT) {
+            return HttpComponents.pooled(settings);
+        }
+
+        logger.warn("Apache HttpClient not found, falling back to HttpURLConnection without pool settings");
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout((int) settings.getConnectTimeoutMillis());
+        return requestFactory;
+    }
+
+
+    /**
+     * Close a request factory created by {@link #pooled(GqlTransportSettings)}, which shuts down its connection pool
+     * and the thread evicting idle connections.
+     *
+     * @param requestFactory Request factory, null is ignored
+     */
+    public static void close(ClientHttpRequestFactory requestFactory) {
+        if (requestFactory instanceof DisposableBean) {
+            try {
+                ((DisposableBean) requestFactory).destroy();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Connection pool not closable", e);
+            } catch (Exception e) {
+                throw new IllegalStateException("Connection pool not closable", e);
+            }
+        }
+    }
+
+
+    /**
+     * Apache HttpClient specific code, only loaded if the library is present.
+     */
+    private static class HttpComponents {
+
+        private static ClientHttpRequestFactory pooled(GqlTransportSettings settings) {
+            PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+            connectionManager.setMaxTotal(settings.getMaxConnections());
+            connectionManager.setDefaultMaxPerRoute(settings.getMaxConnectionsPerRoute());
+
+            HttpClientBuilder builder = HttpClientBuilder.create()
+                    .setConnectionManager(connectionManager)
+                    .evictExpiredConnections()
+                    .evictIdleConnections(settings.getIdleTimeoutMillis(), TimeUnit.MILLISECONDS)
+                    .setDefaultRequestConfig(RequestConfig.custom()
+                            .setConnectTimeout((int) settings.getConnectTimeoutMillis())
+                            .setContentCompressionEnabled(settings.isGzip())
+                            .build());
+            if (!settings.isGzip()) {
+                builder.disableContentCompression();
+            }
+            return new HttpComponentsClientHttpRequestFactory(builder.build());
+        }
+
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+
+
+/**
+ * Exception for GraphQL responses that carry errors instead of a result.
+ */
+public class GqlResponseException extends IOException {
+
+    private final JsonNode errors;
+
+
+    public GqlResponseException(String operationName, JsonNode errors) {
+        super("GraphQL operation '" + operationName + "' failed: " + errors);
+        this.errors = errors;
+    }
+
+
+    /**
+     * Return the 'errors' array of the response.
+     *
+     * @return Errors as JSON array
+     */
+    public JsonNode getErrors() {
+        return errors;
+    }
+
+
+    /**
+     * Check whether the server does not know the hash of an automatic persisted query, so the document has to be
+     * sent.
+     *
+     * @return True if any error is 'PersistedQueryNotFound'
+     */
+    public boolean isPersistedQueryNotFound() {
+        for (JsonNode error : errors) {
+            if (GqlPersistedQuery.NOT_FOUND.equals(error.path("message").asText())
+                    || GqlPersistedQuery.NOT_FOUND_CODE.equals(error.path("extensions").path("code").asText())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
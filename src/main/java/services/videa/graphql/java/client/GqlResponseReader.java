@@ -0,0 +1,315 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * Reader for GraphQL responses used by generated endpoints. The response body is streamed once, the reader seeks
+ * to 'data.[operation]' and binds this value directly to the return type without any intermediate tree or string.
+ */
+public class GqlResponseReader {
+
+    private static final String DATA = "data";
+    private static final String ERRORS = "errors";
+
+
+    /**
+     * Read the result of an operation from a GraphQL response body.
+     *
+     * @param objectMapper Object mapper used for binding
+     * @param body Response body, closed after reading
+     * @param operationName Name of the operation, the field below 'data'
+     * @param type Java class the result is bound to
+     * @param <T> Type of result
+     * @return Bound result, null if the response contains no value for the operation.
+     * @throws GqlResponseException In case the response contains errors and no value for the operation
+     * @throws IOException In case the body cannot be read or bound
+     */
+    public static <T> T read(ObjectMapper objectMapper, InputStream body, String operationName, Class<T> type)
+            throws IOException {
+        return read(objectMapper, objectMapper.readerFor(type), body, operationName);
+    }
+
+
+    /**
+     * Read the result of an operation from a GraphQL response body with the cached reader of the result type.
+     *
+     * @param objectMapper Shared object mapper of the endpoint client
+     * @param body Response body, closed after reading
+     * @param operationName Name of the operation, the field below 'data'
+     * @param type Java class the result is bound to
+     * @param <T> Type of result
+     * @return Bound result, null if the response contains no value for the operation.
+     * @throws GqlResponseException In case the response contains errors and no value for the operation
+     * @throws IOException In case the body cannot be read or bound
+     */
+    public static <T> T read(GqlObjectMapper objectMapper, InputStream body, String operationName, Class<T> type)
+            throws IOException {
+        return read(objectMapper.getObjectMapper(), objectMapper.reader(type), body, operationName);
+    }
+
+
+    private static <T> T read(ObjectMapper objectMapper, ObjectReader reader, InputStream body,
+                              String operationName) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("GraphQL response is not a JSON object");
+            }
+            return read(objectMapper, reader, parser, operationName);
+        }
+    }
+
+
+    /**
+     * Read the result of an operation from a GraphQL response object. The parser is positioned on the start of the
+     * response object and left on its end, so several responses can be read from one JSON array.
+     *
+     * @param objectMapper Object mapper used for binding
+     * @param parser Parser positioned on the start of the response object
+     * @param operationName Name of the operation, the field below 'data'
+     * @param type Java class the result is bound to
+     * @param <T> Type of result
+     * @return Bound result, null if the response contains no value for the operation.
+     * @throws GqlResponseException In case the response contains errors and no value for the operation
+     * @throws IOException In case the response cannot be read or bound
+     */
+    static <T> T read(ObjectMapper objectMapper, JsonParser parser, String operationName, Class<T> type)
+            throws IOException {
+        return read(objectMapper, objectMapper.readerFor(type), parser, operationName);
+    }
+
+
+    private static <T> T read(ObjectMapper objectMapper, ObjectReader reader, JsonParser parser,
+                              String operationName) throws IOException {
+        T result = null;
+        JsonNode errors = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+
+            if (DATA.equals(fieldName) && token == JsonToken.START_OBJECT) {
+                result = readData(reader, parser, operationName);
+            } else if (ERRORS.equals(fieldName) && token == JsonToken.START_ARRAY) {
+                errors = objectMapper.readTree(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (result == null && errors != null) {
+            throw new GqlResponseException(operationName, errors);
+        }
+        return result;
+    }
+
+
+    /**
+     * Read the result of an operation from a GraphQL response body as JSON tree, e.g. to be normalized by a cache.
+     *
+     * @param objectMapper Object mapper used for parsing
+     * @param body Response body, closed after reading
+     * @param operationName Name of the operation, the field below 'data'
+     * @return Value of the operation, null if the response contains no value for the operation.
+     * @throws GqlResponseException In case the response contains errors and no value for the operation
+     * @throws IOException In case the body cannot be read
+     */
+    public static JsonNode readTree(ObjectMapper objectMapper, InputStream body, String operationName)
+            throws IOException {
+        return read(objectMapper, body, operationName, JsonNode.class);
+    }
+
+
+    /**
+     * Stream the elements of a list below an operation's value, e.g. the 'edges' of a connection, which are bound
+     * one by one while the body is read. Memory stays flat regardless of the number of elements. The stream has
+     * to be closed if not consumed completely, as it holds the open body.
+     *
+     * @param objectMapper Object mapper used for binding
+     * @param body Response body, closed with the stream
+     * @param operationName Name of the operation, the field below 'data'
+     * @param listField Name of the list field of the operation's value
+     * @param type Java class each element is bound to
+     * @param <T> Type of elements
+     * @return Lazily bound elements, empty if the response contains no value for the operation or list field
+     * @throws GqlResponseException In case the response contains errors before the list
+     * @throws IOException In case the body cannot be read
+     */
+    public static <T> Stream<T> stream(ObjectMapper objectMapper, InputStream body, String operationName,
+                                       String listField, Class<T> type) throws IOException {
+        return stream(objectMapper, objectMapper.readerFor(type), body, operationName, listField);
+    }
+
+
+    /**
+     * Stream the elements of a list below an operation's value with the cached reader of the element type.
+     *
+     * @param objectMapper Shared object mapper of the endpoint client
+     * @param body Response body, closed with the stream
+     * @param operationName Name of the operation, the field below 'data'
+     * @param listField Name of the list field of the operation's value
+     * @param type Java class each element is bound to
+     * @param <T> Type of elements
+     * @return Lazily bound elements, empty if the response contains no value for the operation or list field
+     * @throws GqlResponseException In case the response contains errors before the list
+     * @throws IOException In case the body cannot be read
+     */
+    public static <T> Stream<T> stream(GqlObjectMapper objectMapper, InputStream body, String operationName,
+                                       String listField, Class<T> type) throws IOException {
+        return stream(objectMapper.getObjectMapper(), objectMapper.reader(type), body, operationName, listField);
+    }
+
+
+    private static <T> Stream<T> stream(ObjectMapper objectMapper, ObjectReader reader, InputStream body,
+                                        String operationName, String listField) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(body);
+        try {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("GraphQL response is not a JSON object");
+            }
+            if (!seekList(objectMapper, parser, operationName, listField)) {
+                parser.close();
+                return Stream.empty();
+            }
+        } catch (IOException | RuntimeException e) {
+            parser.close();
+            throw e;
+        }
+
+        Iterator<T> iterator = new Iterator<T>() {
+            private JsonToken token;
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    if (token == null && !parser.isClosed()) {
+                        token = parser.nextToken();
+                        if (token == null || token == JsonToken.END_ARRAY) {
+                            parser.close();
+                        }
+                    }
+                    return !parser.isClosed();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                token = null;
+                try {
+                    return reader.readValue(parser);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(() -> {
+                    try {
+                        parser.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+
+    /**
+     * Move the parser to the start of the list 'data.[operation].[listField]'. Errors preceding the data are
+     * thrown, as the result cannot be streamed.
+     *
+     * @return True if the parser is positioned on the start of the list
+     */
+    private static boolean seekList(ObjectMapper objectMapper, JsonParser parser, String operationName,
+                                    String listField) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+
+            if (DATA.equals(fieldName) && token == JsonToken.START_OBJECT) {
+                return seekField(parser, operationName) && seekField(parser, listField)
+                        && parser.currentToken() == JsonToken.START_ARRAY;
+            } else if (ERRORS.equals(fieldName) && token == JsonToken.START_ARRAY) {
+                JsonNode errors = objectMapper.readTree(parser);
+                if (errors.size() > 0) {
+                    throw new GqlResponseException(operationName, errors);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Move the parser from the start of an object to the value of the given field, skipping all other fields.
+     *
+     * @return True if the parser is positioned on the start of the field's object or array value
+     */
+    private static boolean seekField(JsonParser parser, String name) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (name.equals(fieldName)) {
+                return token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+
+    /**
+     * Read the operation's value from within the 'data' object. The parser is positioned on the start of 'data'
+     * and left on its end.
+     */
+    private static <T> T readData(ObjectReader reader, JsonParser parser, String operationName)
+            throws IOException {
+        T result = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+
+            if (operationName.equals(fieldName) && token != JsonToken.VALUE_NULL) {
+                result = reader.readValue(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Cache of whole operation results keyed by operation name and argument values. Results are kept serialized, so
+ * every caller binds its own instance, and the cache is bounded by the total weight in bytes. Concurrent calls
+ * missing the same key wait for a single request.
+ */
+public class GqlResultCache {
+
+    private final GqlObjectMapper objectMapper;
+    private final long maxBytes;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<byte[]>> loading = new ConcurrentHashMap<>();
+    private long weight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+
+    /**
+     * Request of a result missing in cache, e.g. sent by a generated endpoint.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        JsonNode load() throws IOException;
+    }
+
+
+    public GqlResultCache(ObjectMapper objectMapper, GqlTransportSettings settings) {
+        this(new GqlObjectMapper(objectMapper), settings);
+    }
+
+
+    /**
+     * @param objectMapper Object mapper binding the results, including modules registered later
+     * @param settings Maximum total weight of the cached results
+     */
+    public GqlResultCache(GqlObjectMapper objectMapper, GqlTransportSettings settings) {
+        this.objectMapper = objectMapper;
+        this.maxBytes = settings.getResultCacheMaxBytes();
+    }
+
+
+    /**
+     * Return the cached result of an operation or load and cache it. Null results and errors are not cached.
+     *
+     * @param operationName Name of the operation
+     * @param arguments Argument values by argument name
+     * @param ttlMillis Time the result is served after it was loaded
+     * @param type Java class the result is bound to
+     * @param loader Request of the result as JSON tree
+     * @param <T> Type of result
+     * @return Bound result
+     * @throws IOException In case the result cannot be loaded or bound
+     */
+    public <T> T get(String operationName, Map<String, Object> arguments, long ttlMillis, Class<T> type,
+                     Loader loader) throws IOException {
+        String key = operationName + objectMapper.getObjectMapper().writeValueAsString(new TreeMap<>(arguments));
+        byte[] value = lookup(key);
+        if (value != null) {
+            hits.increment();
+            return objectMapper.reader(type).readValue(value);
+        }
+
+        CompletableFuture<byte[]> load = new CompletableFuture<>();
+        CompletableFuture<byte[]> pending = loading.putIfAbsent(key, load);
+        if (pending != null) {
+            hits.increment();
+            return bind(await(pending), type);
+        }
+
+        misses.increment();
+        try {
+            JsonNode result = loader.load();
+            value = result == null || result.isNull() ? null : objectMapper.getObjectMapper().writeValueAsBytes(result);
+            if (value != null) {
+                put(key, value, ttlMillis);
+            }
+            load.complete(value);
+            return bind(value, type);
+        } catch (IOException | RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+
+
+    /**
+     * Remove all cached results of an operation.
+     *
+     * @param operationName Name of the operation
+     */
+    public synchronized void invalidate(String operationName) {
+        String prefix = operationName + "{";
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Entry> entry = iterator.next();
+            if (entry.getKey().startsWith(prefix)) {
+                weight -= entry.getValue().weight;
+                iterator.remove();
+            }
+        }
+    }
+
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+
+    /**
+     * Return the number of calls served without a request of their own.
+     *
+     * @return Number of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+
+    /**
+     * Return the number of calls that sent a request.
+     *
+     * @return Number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+
+    /**
+     * Return the number of results evicted to stay within the maximum weight.
+     *
+     * @return Number of evictions
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+
+    /**
+     * Return the current weight of all cached results and their keys.
+     *
+     * @return Weight in bytes
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+
+    private synchronized byte[] lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key);
+            weight -= entry.weight;
+            return null;
+        }
+        return entry.value;
+    }
+
+
+    private synchronized void put(String key, byte[] value, long ttlMillis) {
+        Entry entry = new Entry(value, key.length() + value.length, System.currentTimeMillis() + ttlMillis);
+        if (entry.weight > maxBytes) {
+            return;
+        }
+
+        Entry replaced = entries.put(key, entry);
+        weight += entry.weight - (replaced == null ? 0 : replaced.weight);
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (weight > maxBytes && eldest.hasNext()) {
+            weight -= eldest.next().weight;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+
+    private <T> T bind(byte[] value, Class<T> type) throws IOException {
+        return value == null ? null : objectMapper.reader(type).readValue(value);
+    }
+
+
+    private static byte[] await(CompletableFuture<byte[]> pending) throws IOException {
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Waiting for a cached result interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+
+    private static class Entry {
+        private final byte[] value;
+        private final long weight;
+        private final long expiresAt;
+
+        private Entry(byte[] value, long weight, long expiresAt) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+}
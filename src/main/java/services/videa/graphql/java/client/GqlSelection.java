@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import java.util.function.Consumer;
+
+
+/**
+ * Base class of the generated type-safe selections, e.g. 'UserSelection.select().id().email()'. A selection
+ * renders only the chosen fields instead of the full selection set of a type, so responses get smaller and are
+ * parsed faster.
+ */
+public abstract class GqlSelection {
+
+    private final StringBuilder fields = new StringBuilder();
+
+
+    /**
+     * Select a field of a scalar or enum type.
+     *
+     * @param name Name of the field
+     */
+    protected void field(String name) {
+        fields.append(name).append(' ');
+    }
+
+
+    /**
+     * Select a field of an object or interface type with the sub selection built by the given consumer. Fields
+     * without any selected sub field are omitted.
+     *
+     * @param name Name of the field
+     * @param selection Empty selection of the field's type
+     * @param consumer Selects the sub fields
+     * @param <S> Selection type of the field's type
+     */
+    protected <S extends GqlSelection> void field(String name, S selection, Consumer<? super S> consumer) {
+        consumer.accept(selection);
+        if (!selection.isEmpty()) {
+            fields.append(name).append(" { ").append(((GqlSelection) selection).fields).append("} ");
+        }
+    }
+
+
+    public boolean isEmpty() {
+        return fields.length() == 0;
+    }
+
+
+    /**
+     * Render the selection set as used by {@link GqlOperation}.
+     *
+     * @return Selection set including braces and a trailing blank, e.g. '{ id email } '
+     * @throws IllegalStateException If no field is selected
+     */
+    public String render() {
+        if (isEmpty()) {
+            throw new IllegalStateException("No field selected");
+        }
+        return "{ " + fields + "} ";
+    }
+
+
+    @Override
+    public String toString() {
+        return isEmpty() ? "{ }" : render().trim();
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import lombok.Data;
+
+
+/**
+ * Connection and client settings of generated endpoint clients. The defaults keep a pool of reusable connections,
+ * so calls do not pay TCP and TLS setup each time. Pool settings are applied by the RestTemplate transport with
+ * Apache HttpClient and by the async and reactive client; the java.net.http client and HttpURLConnection are sized
+ * by JDK system properties.
+ */
+@Data
+public class GqlTransportSettings {
+
+    /**
+     * Maximum number of pooled connections in total. Applied by the Apache HttpClient pool only.
+     */
+    private int maxConnections = 200;
+
+    /**
+     * Maximum number of pooled connections to a single host, also the size of the async and reactive pool.
+     */
+    private int maxConnectionsPerRoute = 50;
+
+    /**
+     * Time after which idle connections are evicted from the pool.
+     */
+    private long idleTimeoutMillis = 30_000;
+
+    /**
+     * Timeout of establishing a connection.
+     */
+    private long connectTimeoutMillis = 10_000;
+
+    /**
+     * Negotiate HTTP/2 to multiplex calls over a single connection. Applied by the java.net.http transport.
+     */
+    private boolean http2 = true;
+
+    /**
+     * Request gzip compressed responses and decompress them transparently.
+     */
+    private boolean gzip = true;
+
+    /**
+     * Time coalesced calls are collected before they are sent as one batch. With 0 calls are only sent by an
+     * explicit dispatch or when the batch is full.
+     */
+    private long coalescingWindowMillis = 2;
+
+    /**
+     * Maximum number of distinct calls sent in one coalesced batch.
+     */
+    private int coalescingMaxBatchSize = 100;
+
+    /**
+     * Maximum number of entities and root fields kept by the normalized cache, least recently used ones are evicted.
+     */
+    private int cacheMaxEntries = 10_000;
+
+    /**
+     * Time entities and root fields of the normalized cache are served after they were written.
+     */
+    private long cacheTtlMillis = 60_000;
+
+    /**
+     * Maximum weight of the result cache in bytes, counting the serialized results and their keys.
+     */
+    private long resultCacheMaxBytes = 16 * 1024 * 1024;
+
+    /**
+     * Number of pages paginating methods request ahead of the consumed page, 0 to request each page when needed.
+     */
+    private int paginationPrefetch = 1;
+
+    /**
+     * Object mapper of the endpoint clients created with these settings, null for {@link GqlObjectMapper#shared()}.
+     */
+    private GqlObjectMapper objectMapper;
+
+}
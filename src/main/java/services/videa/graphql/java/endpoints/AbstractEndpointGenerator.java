@@ -10,56 +10,835 @@
 
 package services.videa.graphql.java.endpoints;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import com.squareup.javapoet.*;
+import graphql.language.AstPrinter;
+import graphql.language.FieldDefinition;
+import graphql.language.IntValue;
 import graphql.language.ObjectTypeDefinition;
 import graphql.language.ScalarTypeDefinition;
+import graphql.language.TypeDefinition;
 import graphql.language.TypeName;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
+import lombok.ToString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import services.videa.graphql.java.ClientTransport;
 import services.videa.graphql.java.FileCreator;
+import services.videa.graphql.java.GenerationManifest;
+import services.videa.graphql.java.PersistedQueryManifest;
+import services.videa.graphql.java.GenerationTask;
+import services.videa.graphql.java.GeneratorConfiguration;
 import services.videa.graphql.java.GeneratorInterface;
+import services.videa.graphql.java.client.GqlBatch;
+import services.videa.graphql.java.client.GqlBatchMode;
+import services.videa.graphql.java.client.GqlBatchResult;
+import services.videa.graphql.java.client.GqlCoalescer;
+import services.videa.graphql.java.client.GqlMessageConverter;
+import services.videa.graphql.java.client.GqlNormalizedCache;
+import services.videa.graphql.java.client.GqlObjectMapper;
+import services.videa.graphql.java.client.GqlPaginator;
+import services.videa.graphql.java.client.GqlPersistedQuery;
+import services.videa.graphql.java.client.GqlOperation;
+import services.videa.graphql.java.client.GqlRequestFactories;
+import services.videa.graphql.java.client.GqlResponseException;
+import services.videa.graphql.java.client.GqlResponseReader;
+import services.videa.graphql.java.client.GqlResultCache;
+import services.videa.graphql.java.client.GqlTransportSettings;
+import services.videa.graphql.java.rendering.SelectionSetRenderer;
+import services.videa.graphql.java.selections.SelectionMapper;
+import services.videa.graphql.java.serializers.SerializerMapper;
+import services.videa.graphql.java.scalars.BasicScalarMapper;
 import services.videa.graphql.java.types.TypeMapper;
 
 import javax.lang.model.element.Modifier;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 public abstract class AbstractEndpointGenerator implements GeneratorInterface {
     private static Logger logger = LoggerFactory.getLogger(AbstractEndpointGenerator.class);
 
+    /**
+     * Non-blocking client of async and reactive methods, referenced by name as spring-webflux is optional.
+     */
+    private static final ClassName REACTIVE_CLIENT
+            = ClassName.get("services.videa.graphql.java.client", "GqlReactiveClient");
+
+    /**
+     * Directive declaring the time to live of a field's result in seconds, e.g. '@cacheControl(maxAge: 60)'.
+     */
+    private static final String CACHE_CONTROL = "cacheControl";
+    private static final String MAX_AGE = "maxAge";
+    private static final String STREAMED_LIST = "edges";
+    private static final String PAGE_INFO = "pageInfo";
+    private static final String HAS_NEXT_PAGE = "hasNextPage";
+    private static final String END_CURSOR = "endCursor";
+    private static final String AFTER = "after";
+
+    private static final ClassName TRANSPORT_SETTINGS = ClassName.get(GqlTransportSettings.class);
+    private static final ClassName REQUEST_FACTORIES = ClassName.get(GqlRequestFactories.class);
+
     protected ObjectTypeDefinition queryTypeDefinition;
+    protected GeneratorConfiguration configuration;
     protected TypeMapper typeMapper;
+    protected SelectionSetRenderer selectionSetRenderer;
     protected String packageName;
     protected FileCreator fileCreator;
+    protected Map<String, TypeDefinition> types;
 
 
     protected AbstractEndpointGenerator(ObjectTypeDefinition queryTypeDefinition,
+                                        Map<String, TypeDefinition> types,
                                         Map<String, ScalarTypeDefinition> scalars,
                                         String generationFolder, String packageName) {
+        this(queryTypeDefinition, types, scalars, generationFolder, packageName, new GeneratorConfiguration());
+    }
+
+
+    protected AbstractEndpointGenerator(ObjectTypeDefinition queryTypeDefinition,
+                                        Map<String, TypeDefinition> types,
+                                        Map<String, ScalarTypeDefinition> scalars,
+                                        String generationFolder, String packageName,
+                                        GeneratorConfiguration configuration) {
         this.queryTypeDefinition = queryTypeDefinition;
+        this.configuration = configuration;
         typeMapper = new TypeMapper(scalars);
+        selectionSetRenderer = new SelectionSetRenderer(types, configuration.getMaxSelectionDepth());
+        this.types = types;
         this.packageName = packageName;
         fileCreator = new FileCreator(generationFolder, packageName);
     }
 
 
-    abstract String generateMethodBody(String methodName, String returnTypeName, List<ParameterSpec> parameterSpecList);
+    /**
+     * Generate the statements creating the variable 'request' with the inline operation document of a field.
+     *
+     * @param methodName Name of the endpoint method, equal to the field name in schema
+     * @param parameterSpecList Parameters of the method, equal to the field's arguments
+     * @return Statements creating the request
+     */
+    abstract String generateRequestBody(String methodName, List<ParameterSpec> parameterSpecList);
+
+
+    /**
+     * Operation type of the endpoint, e.g. 'query' or 'mutation'.
+     *
+     * @return Operation keyword used in the operation document
+     */
+    abstract String operationType();
+
+
+    /**
+     * Name of the constant holding the selection set of an endpoint method.
+     *
+     * @param methodName Name of the endpoint method, equal to the field name in schema
+     * @return Constant name in upper case, e.g. ALL_USERS_SELECTION_SET for allUsers
+     */
+    static String selectionSetConstant(String methodName) {
+        return methodName.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase() + "_SELECTION_SET";
+    }
+
+
+    /**
+     * Name of the constant holding the complete operation document of an endpoint method.
+     *
+     * @param methodName Name of the endpoint method, equal to the field name in schema
+     * @return Constant name in upper case, e.g. ALL_USERS_DOCUMENT for allUsers
+     */
+    static String documentConstant(String methodName) {
+        return methodName.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase() + "_DOCUMENT";
+    }
+
+
+    /**
+     * Name of the constant holding the SHA-256 hash of the operation document of an endpoint method.
+     *
+     * @param methodName Name of the endpoint method, equal to the field name in schema
+     * @return Constant name in upper case, e.g. ALL_USERS_HASH for allUsers
+     */
+    static String hashConstant(String methodName) {
+        return methodName.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase() + "_HASH";
+    }
+
+
+    /**
+     * Generate the constant holding the operation document of a field.
+     *
+     * @param fieldDefinition Field of the endpoint type
+     * @param document Rendered operation document
+     * @param complexityComment Size of the selection set
+     * @return Constant of type String
+     */
+    private FieldSpec documentSpec(FieldDefinition fieldDefinition, String document, String complexityComment) {
+        return FieldSpec.builder(String.class, documentConstant(fieldDefinition.getName()),
+                Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .addJavadoc("Operation document of '" + fieldDefinition.getName() + "' with variables. "
+                        + complexityComment + LINE_SEPARATOR)
+                .initializer("$S", document)
+                .build();
+    }
+
+
+    /**
+     * Generate the statements of a method sending an automatic persisted query. Only the document's hash is sent,
+     * the document follows if the server answers 'PersistedQueryNotFound'.
+     *
+     * @param methodName Name of the endpoint method, equal to the field name in schema
+     * @param parameterSpecList Parameters of the method, equal to the field's arguments
+     * @param returnTypeName Simple name of the generated return type
+     * @return Code returning the result of the operation
+     */
+    private String generatePersistedQueryBody(String methodName, List<ParameterSpec> parameterSpecList,
+                                              String returnTypeName) {
+        return variablesBody(parameterSpecList)
+                + "Request request = new Request();" + LINE_SEPARATOR
+                + "request.setVariables(variables);" + LINE_SEPARATOR
+                + "request.setExtensions(" + GqlPersistedQuery.class.getName() + ".extensions("
+                + hashConstant(methodName) + "));" + LINE_SEPARATOR
+                + "return executePersisted(request, " + documentConstant(methodName) + ", \"" + methodName + "\", "
+                + returnTypeName + ".class);" + LINE_SEPARATOR;
+    }
+
+
+    /**
+     * Generate the statements of a method requesting only the fields of the given selection. The document is
+     * rendered per call, as it depends on the selection.
+     *
+     * @param fieldDefinition Field of the endpoint type
+     * @param parameterSpecList Parameters of the method, equal to the field's arguments
+     * @param selection Name of the selection parameter, not clashing with the arguments
+     * @param returnTypeName Simple name of the generated return type
+     * @return Code returning the result of the operation
+     */
+    private String generateSelectionBody(FieldDefinition fieldDefinition, List<ParameterSpec> parameterSpecList,
+                                         String selection, String returnTypeName) {
+        StringBuilder operation = new StringBuilder("new " + GqlOperation.class.getName() + "(\"" + operationType()
+                + "\", \"" + fieldDefinition.getName() + "\", " + selection + ".render())");
+        fieldDefinition.getInputValueDefinitions().forEach(argument -> operation.append(LINE_SEPARATOR)
+                .append("        .argument(\"").append(argument.getName()).append("\", \"")
+                .append(AstPrinter.printAst(argument.getType())).append("\")"));
+
+        return variablesBody(parameterSpecList)
+                + "Request request = new Request();" + LINE_SEPARATOR
+                + "request.setQuery(" + operation + ".document());" + LINE_SEPARATOR
+                + "request.setVariables(variables);" + LINE_SEPARATOR
+                + generateResponseBody(fieldDefinition.getName(), returnTypeName);
+    }
+
+
+    /**
+     * Streaming methods are generated for query fields returning a Relay connection, whose 'edges' are streamed.
+     *
+     * @param fieldDefinition Field of the endpoint type
+     * @return Name of the edge type, null if the field gets no streaming method
+     */
+    String streamedListTypeName(FieldDefinition fieldDefinition) {
+        if (!configuration.isStreamingMethods() || !"query".equals(operationType())) {
+            return null;
+        }
+        TypeDefinition typeDefinition = types.get(SelectionSetRenderer.unwrap(fieldDefinition.getType()).getName());
+        if (!(typeDefinition instanceof ObjectTypeDefinition)) {
+            return null;
+        }
+        return ((ObjectTypeDefinition) typeDefinition).getFieldDefinitions().stream()
+                .filter(field -> STREAMED_LIST.equals(field.getName()))
+                .filter(field -> types.get(SelectionSetRenderer.unwrap(field.getType()).getName())
+                        instanceof ObjectTypeDefinition)
+                .map(field -> SelectionSetRenderer.unwrap(field.getType()).getName())
+                .findFirst()
+                .orElse(null);
+    }
+
+
+    /**
+     * Paginating methods are generated for query fields returning a Relay connection and taking the argument
+     * 'after'. A connection has 'edges' and a 'pageInfo' with 'hasNextPage' and 'endCursor'.
+     *
+     * @param fieldDefinition Field of the endpoint type
+     * @return Name of the edge type, null if the field gets no paginating method
+     */
+    String paginatedEdgeTypeName(FieldDefinition fieldDefinition) {
+        if (!configuration.isPaginationMethods() || !"query".equals(operationType())
+                || fieldDefinition.getInputValueDefinitions().stream()
+                .noneMatch(argument -> AFTER.equals(argument.getName()))) {
+            return null;
+        }
+        TypeDefinition typeDefinition = types.get(SelectionSetRenderer.unwrap(fieldDefinition.getType()).getName());
+        if (!(typeDefinition instanceof ObjectTypeDefinition)) {
+            return null;
+        }
+        FieldDefinition edges = null;
+        FieldDefinition pageInfo = null;
+        for (FieldDefinition field : ((ObjectTypeDefinition) typeDefinition).getFieldDefinitions()) {
+            if (STREAMED_LIST.equals(field.getName())) {
+                edges = field;
+            } else if (PAGE_INFO.equals(field.getName())) {
+                pageInfo = field;
+            }
+        }
+        if (edges == null || pageInfo == null || !(types.get(SelectionSetRenderer.unwrap(edges.getType()).getName())
+                instanceof ObjectTypeDefinition)) {
+            return null;
+        }
+        TypeDefinition pageInfoType = types.get(SelectionSetRenderer.unwrap(pageInfo.getType()).getName());
+        if (!(pageInfoType instanceof ObjectTypeDefinition) || ((ObjectTypeDefinition) pageInfoType)
+                .getFieldDefinitions().stream().map(FieldDefinition::getName)
+                .filter(name -> HAS_NEXT_PAGE.equals(name) || END_CURSOR.equals(name)).count() < 2) {
+            return null;
+        }
+        return SelectionSetRenderer.unwrap(edges.getType()).getName();
+    }
+
+
+    /**
+     * Generate the statements creating a paginator, which calls the endpoint method with the cursor as 'after'.
+     *
+     * @param methodName Name of the endpoint method, equal to the field name in schema
+     * @param parameterSpecList Parameters of the endpoint method, equal to the field's arguments
+     * @param returnTypeName Simple name of the generated connection type
+     * @param edgeTypeName Simple name of the generated edge type
+     * @return Code returning the paginator
+     */
+    private String generatePaginationBody(String methodName, List<ParameterSpec> parameterSpecList,
+                                          String returnTypeName, String edgeTypeName) {
+        String arguments = parameterSpecList.stream().map(parameterSpec -> parameterSpec.name)
+                .collect(Collectors.joining(", "));
+        return "return new " + GqlPaginator.class.getName() + "<" + edgeTypeName + ">("
+                + "(String after) -> " + methodName + "(" + arguments + ")," + LINE_SEPARATOR
+                + "        (" + returnTypeName + " connection) -> connection.getEdges()," + LINE_SEPARATOR
+                + "        connection -> connection.getPageInfo() == null ? null "
+                + ": connection.getPageInfo().getEndCursor()," + LINE_SEPARATOR
+                + "        connection -> connection.getPageInfo() != null "
+                + "&& Boolean.TRUE.equals(connection.getPageInfo().getHasNextPage())," + LINE_SEPARATOR
+                + "        paginationPrefetch);" + LINE_SEPARATOR;
+    }
+
+
+    /**
+     * Render the operation document of a field, declaring one variable per argument with the argument's type.
+     * The document is fixed for each operation, so servers can cache its parsing and validation.
+     *
+     * @param fieldDefinition Field of the endpoint type
+     * @param selectionSet Selection set of the field's type including braces
+     * @return Operation document, e.g. 'query user($id: ID!) { user(id: $id) { id } }'
+     */
+    String renderDocument(FieldDefinition fieldDefinition, String selectionSet) {
+        GqlOperation operation = new GqlOperation(operationType(), fieldDefinition.getName(), selectionSet);
+        fieldDefinition.getInputValueDefinitions()
+                .forEach(argument -> operation.argument(argument.getName(), AstPrinter.printAst(argument.getType())));
+        return operation.document();
+    }
+
+
+    /**
+     * Coalesced methods are generated for queries only, as identical mutations must not be merged.
+     *
+     * @return True if the endpoint gets coalesced methods
+     */
+    boolean isCoalescing() {
+        return configuration.isCoalescingMethods() && "query".equals(operationType());
+    }
+
+
+    /**
+     * Name of the constant holding the batch operation of an endpoint method.
+     *
+     * @param methodName Name of the endpoint method, equal to the field name in schema
+     * @return Constant name in upper case, e.g. ALL_USERS_OPERATION for allUsers
+     */
+    static String operationConstant(String methodName) {
+        return methodName.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase() + "_OPERATION";
+    }
+
+
+    /**
+     * Generate the constant holding the operation of a field, which batches render as aliased field.
+     *
+     * @param fieldDefinition Field of the endpoint type
+     * @param selectionSet Selection set of the field's type including braces
+     * @return Constant of type {@link GqlOperation}
+     */
+    FieldSpec operationSpec(FieldDefinition fieldDefinition, String selectionSet) {
+        return operationSpec(fieldDefinition, selectionSet, operationConstant(fieldDefinition.getName()),
+                "Operation of '" + fieldDefinition.getName() + "' used in batches.");
+    }
+
+
+    /**
+     * Generate a constant holding the operation of a field.
+     *
+     * @param fieldDefinition Field of the endpoint type
+     * @param selectionSet Selection set of the field's type including braces
+     * @param name Name of the constant
+     * @param comment Javadoc of the constant
+     * @return Constant of type {@link GqlOperation}
+     */
+    private FieldSpec operationSpec(FieldDefinition fieldDefinition, String selectionSet, String name,
+                                    String comment) {
+        CodeBlock.Builder initializer = CodeBlock.builder()
+                .add("new $T($S, $S, $S)", GqlOperation.class, operationType(), fieldDefinition.getName(), selectionSet);
+        fieldDefinition.getInputValueDefinitions().forEach(argument -> initializer
+                .add("$W.argument($S, $S)", argument.getName(), AstPrinter.printAst(argument.getType())));
+
+        return FieldSpec.builder(GqlOperation.class, name, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .addJavadoc(comment + LINE_SEPARATOR)
+                .initializer(initializer.build())
+                .build();
+    }
+
+
+    /**
+     * The normalized cache serves queries only, mutations are always sent.
+     *
+     * @return True if the query methods of the endpoint read through the normalized cache
+     */
+    boolean isCaching() {
+        return configuration.isNormalizedCache() && "query".equals(operationType());
+    }
+
+
+    /**
+     * Time the result of a query field is kept in the result cache, as configured by field name or declared by
+     * the directive '@cacheControl(maxAge: seconds)' on the field. The configuration takes precedence.
+     *
+     * @param fieldDefinition Field of the endpoint type
+     * @return Time to live in milliseconds, 0 if the field is not cached
+     */
+    long resultCacheTtl(FieldDefinition fieldDefinition) {
+        if (!"query".equals(operationType())) {
+            return 0;
+        }
+        Long configured = configuration.getResultCacheTtlMillis().get(fieldDefinition.getName());
+        if (configured != null) {
+            return configured;
+        }
+        return fieldDefinition.getDirectives().stream()
+                .filter(directive -> CACHE_CONTROL.equals(directive.getName()))
+                .map(directive -> directive.getArgument(MAX_AGE))
+                .filter(argument -> argument != null && argument.getValue() instanceof IntValue)
+                .map(argument -> ((IntValue) argument.getValue()).getValue().longValue() * 1000)
+                .findFirst().orElse(0L);
+    }
+
+
+    /**
+     * @return True if any field of the endpoint is kept in the result cache
+     */
+    boolean hasResultCache() {
+        return queryTypeDefinition.getFieldDefinitions().stream().anyMatch(field -> resultCacheTtl(field) > 0);
+    }
+
+
+    /**
+     * Generate the statements of a query method served by the result cache. The request is only created and sent
+     * if the result is missing or expired.
+     *
+     * @param methodName Name of the endpoint method, equal to the field name in schema
+     * @param parameterSpecList Parameters of the method, equal to the field's arguments
+     * @param returnTypeName Simple name of the generated return type
+     * @param ttlMillis Time to live of the result
+     * @return Code returning the result of the operation
+     */
+    private String generateResultCacheBody(String methodName, List<ParameterSpec> parameterSpecList,
+                                           String returnTypeName, long ttlMillis) {
+        String requestBody = requestBody(methodName, parameterSpecList).replaceAll("(?m)^", "    ");
+        return variablesBody(parameterSpecList, "arguments")
+                + "return resultCache.get(\"" + methodName + "\", arguments, " + ttlMillis + "L, " + returnTypeName
+                + ".class, () -> {" + LINE_SEPARATOR
+                + requestBody
+                + "    return executeTree(request, \"" + methodName + "\");" + LINE_SEPARATOR
+                + "});" + LINE_SEPARATOR;
+    }
+
+
+    /**
+     * Name of the constant holding the cached operation of an endpoint method, which selects '__typename'.
+     *
+     * @param methodName Name of the endpoint method, equal to the field name in schema
+     * @return Constant name in upper case, e.g. ALL_USERS_CACHED_OPERATION for allUsers
+     */
+    static String cachedOperationConstant(String methodName) {
+        return methodName.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase() + "_CACHED_OPERATION";
+    }
+
+
+    /**
+     * Return the ID field of every object type that has one, which identifies entities in the normalized cache. A
+     * field named 'id' is preferred over other fields of the ID scalar.
+     *
+     * @return ID field by type name, sorted by type name
+     */
+    private SortedMap<String, String> entityIdFields() {
+        SortedMap<String, String> idFields = new TreeMap<>();
+        types.values().stream()
+                .filter(ObjectTypeDefinition.class::isInstance)
+                .map(ObjectTypeDefinition.class::cast)
+                .forEach(type -> type.getFieldDefinitions().stream()
+                        .filter(field -> BasicScalarMapper.ID.equals(
+                                SelectionSetRenderer.unwrap(field.getType()).getName()))
+                        .min(Comparator.comparing(field -> !"id".equals(field.getName())))
+                        .ifPresent(field -> idFields.put(type.getName(), field.getName())));
+        return idFields;
+    }
+
+
+    /**
+     * Generate the constant mapping object types to their ID field, which identifies entities in the normalized
+     * cache.
+     *
+     * @return Constant holding the ID field by type name
+     */
+    private FieldSpec entityIdFieldsSpec() {
+        CodeBlock.Builder arguments = CodeBlock.builder();
+        entityIdFields().forEach((type, field) ->
+                arguments.add(arguments.isEmpty() ? "$S, $S" : ",$W$S, $S", type, field));
+
+        return FieldSpec.builder(ParameterizedTypeName.get(Map.class, String.class, String.class), "ENTITY_ID_FIELDS",
+                Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .addJavadoc("ID field by type name identifying entities in the normalized cache." + LINE_SEPARATOR)
+                .initializer("$T.idFields($L)", GqlNormalizedCache.class, arguments.build())
+                .build();
+    }
+
+
+    /**
+     * Generate the statements of a cached query method. The result is read from the normalized cache, on a miss
+     * the operation selecting '__typename' is sent and its result is written to cache.
+     *
+     * @param methodName Name of the endpoint method, equal to the field name in schema
+     * @param parameterSpecList Parameters of the method, equal to the field's arguments
+     * @param returnTypeName Simple name of the generated return type
+     * @return Code returning the result of the operation
+     */
+    private String generateCachedBody(String methodName, List<ParameterSpec> parameterSpecList,
+                                      String returnTypeName) {
+        String operation = cachedOperationConstant(methodName);
+        return variablesBody(parameterSpecList)
+                + returnTypeName + " cached = normalizedCache.read(" + operation + ", variables, " + returnTypeName
+                + ".class);" + LINE_SEPARATOR
+                + "if (cached != null) {" + LINE_SEPARATOR
+                + "    return cached;" + LINE_SEPARATOR
+                + "}" + LINE_SEPARATOR
+                + "Request request = new Request();" + LINE_SEPARATOR
+                + "request.setQuery(" + operation + ".document());" + LINE_SEPARATOR
+                + "request.setVariables(variables);" + LINE_SEPARATOR
+                + "return normalizedCache.write(" + operation + ", variables, executeTree(request, \"" + methodName
+                + "\"), " + returnTypeName + ".class);" + LINE_SEPARATOR;
+    }
+
+
+    /**
+     * Generate the statements creating the variable 'request' with the fixed operation document and the arguments
+     * as variables. Arguments being null are left out, so the server applies the argument's default value.
+     *
+     * @param methodName Name of the endpoint method, equal to the field name in schema
+     * @param parameterSpecList Parameters of the method, equal to the field's arguments
+     * @return Statements creating the request
+     */
+    String generateVariablesRequestBody(String methodName, List<ParameterSpec> parameterSpecList) {
+        StringBuilder body = new StringBuilder();
+        body.append("Request request = new Request();").append(LINE_SEPARATOR);
+        body.append("request.setQuery(" + documentConstant(methodName) + ");").append(LINE_SEPARATOR);
+
+        body.append(variablesBody(parameterSpecList));
+        body.append("request.setVariables(variables);").append(LINE_SEPARATOR);
+        return body.toString();
+    }
 
 
     /**
+     * Generate the statements creating the map 'variables' holding all arguments being not null.
      *
+     * @param parameterSpecList Parameters of the method, equal to the field's arguments
+     * @return Statements creating the variables
      */
-    public void generate() {
-        List<MethodSpec> methodSpecList = queryTypeDefinition.getFieldDefinitions().stream().map(methodDefinition -> {
+    private String variablesBody(List<ParameterSpec> parameterSpecList) {
+        return variablesBody(parameterSpecList, "variables");
+    }
+
+
+    /**
+     * Generate the statements creating a map holding all arguments being not null.
+     *
+     * @param parameterSpecList Parameters of the method, equal to the field's arguments
+     * @param name Name of the map variable
+     * @return Statements creating the map
+     */
+    private String variablesBody(List<ParameterSpec> parameterSpecList, String name) {
+        StringBuilder body = new StringBuilder();
+        body.append("java.util.Map<String, Object> " + name + " = new java.util.HashMap<>();").append(LINE_SEPARATOR);
+        parameterSpecList.forEach(parameterSpec -> {
+            body.append("if (" + parameterSpec.name + " != null) {").append(LINE_SEPARATOR);
+            body.append("    " + name + ".put(\"" + parameterSpec.name + "\", " + parameterSpec.name + ");")
+                    .append(LINE_SEPARATOR);
+            body.append("}").append(LINE_SEPARATOR);
+        });
+        return body.toString();
+    }
+
+
+    /**
+     * Generate the statements creating the request of a field as configured, either inline or with variables.
+     *
+     * @param methodName Name of the endpoint method, equal to the field name in schema
+     * @param parameterSpecList Parameters of the method, equal to the field's arguments
+     * @return Statements creating the request
+     */
+    String requestBody(String methodName, List<ParameterSpec> parameterSpecList) {
+        return configuration.isUseVariables()
+                ? generateVariablesRequestBody(methodName, parameterSpecList)
+                : generateRequestBody(methodName, parameterSpecList);
+    }
+
+
+    /**
+     * Generate the statement that posts the request and reads the operation's result from the response body.
+     * The body is streamed once and bound directly to the return type by {@link GqlResponseReader}.
+     *
+     * @param methodName Name of the endpoint method, equal to the field name in schema
+     * @param returnTypeName Simple name of the generated return type
+     * @return Code returning the result of the operation
+     */
+    String generateResponseBody(String methodName, String returnTypeName) {
+        if (configuration.getTransport() == ClientTransport.JAVA_HTTP_CLIENT) {
+            return "return execute(request, \"" + methodName + "\", " + returnTypeName + ".class);" + LINE_SEPARATOR;
+        }
+        return "return restTemplate.execute(\"\", org.springframework.http.HttpMethod.POST, "
+                + "restTemplate.httpEntityCallback(request)," + LINE_SEPARATOR
+                + "        response -> " + GqlResponseReader.class.getName()
+                + ".read(gqlObjectMapper, response.getBody(), \""
+                + methodName + "\", " + returnTypeName + ".class));" + LINE_SEPARATOR;
+    }
+
+
+    /**
+     * Generate the statement that posts the request by the non-blocking client and returns a future of the result.
+     *
+     * @param methodName Name of the endpoint method, equal to the field name in schema
+     * @param returnTypeName Simple name of the generated return type
+     * @return Code returning a CompletableFuture of the operation's result
+     */
+    String generateAsyncResponseBody(String methodName, String returnTypeName) {
+        return "return reactiveClient.executeAsync(request, \"" + methodName + "\", " + returnTypeName + ".class);"
+                + LINE_SEPARATOR;
+    }
+
+
+    /**
+     * Generate the statement that returns a Mono posting the request by the non-blocking client on subscription.
+     *
+     * @param methodName Name of the endpoint method, equal to the field name in schema
+     * @param returnTypeName Simple name of the generated return type
+     * @return Code returning a Mono of the operation's result
+     */
+    String generateReactiveResponseBody(String methodName, String returnTypeName) {
+        return "return reactiveClient.execute(request, \"" + methodName + "\", " + returnTypeName + ".class);"
+                + LINE_SEPARATOR;
+    }
+
+
+    /**
+     * Return the task generating the endpoint class, none if the schema does not define the endpoint type.
+     */
+    @Override
+    public List<GenerationTask> tasks() {
+        if (queryTypeDefinition == null) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(
+                new GenerationTask(queryTypeDefinition.getName(), definition(), this::generateEndpoint));
+    }
+
+
+    /**
+     * Printed definition of the endpoint type followed by everything else the endpoint class embeds: the selection
+     * sets and the definitions of the fields' return types, which decide on selection, streaming and paginating
+     * methods, and with the normalized cache the ID fields of all object types.
+     *
+     * @return Definition the endpoint class is derived from
+     */
+    private String definition() {
+        StringBuilder definition = new StringBuilder(AstPrinter.printAst(queryTypeDefinition));
+        Set<String> returnTypes = new TreeSet<>();
+        queryTypeDefinition.getFieldDefinitions().forEach(fieldDefinition -> {
+            String returnType = SelectionSetRenderer.unwrap(fieldDefinition.getType()).getName();
+            returnTypes.add(returnType);
+            definition.append(LINE_SEPARATOR).append(selectionSetRenderer.render(returnType));
+        });
+        returnTypes.stream()
+                .map(types::get)
+                .filter(Objects::nonNull)
+                .forEach(type -> definition.append(LINE_SEPARATOR).append(AstPrinter.printAst(type)));
+        if (isCaching()) {
+            entityIdFields().forEach((type, field) -> definition.append(LINE_SEPARATOR)
+                    .append(type).append('.').append(field));
+        }
+        return definition.toString();
+    }
+
+
+    /**
+     * Add the operation documents of all fields of the endpoint type to the manifest, exactly as the generated
+     * methods send them: the '_DOCUMENT' constants and, with the normalized cache, the '_CACHED_OPERATION'
+     * documents selecting '__typename'.
+     *
+     * @param manifest Persisted query manifest of the generation
+     */
+    public void addDocuments(PersistedQueryManifest manifest) {
+        if (queryTypeDefinition == null) {
+            return;
+        }
+        queryTypeDefinition.getFieldDefinitions().forEach(fieldDefinition -> {
+            manifest.add(operationType(), fieldDefinition.getName(),
+                    renderDocument(fieldDefinition, selectionSetBlock(fieldDefinition)));
+            if (isCaching()) {
+                manifest.add(operationType(), fieldDefinition.getName(),
+                        renderDocument(fieldDefinition, selectionSetBlock(fieldDefinition, true)));
+            }
+        });
+    }
+
+
+    /**
+     * Selection set of the field's type rendered from schema.
+     *
+     * @param fieldDefinition Field of the endpoint type
+     * @return Selection set including braces, empty for scalar and enum types
+     * @throws IllegalStateException If the selection set exceeds the configured maximum complexity
+     */
+    private String selectionSetBlock(FieldDefinition fieldDefinition) {
+        return selectionSetBlock(fieldDefinition, false);
+    }
+
+
+    /**
+     * Selection set of the field's type rendered from schema, optionally selecting '__typename' for the normalized
+     * cache. Both are limited by the configured maximum complexity, as both are sent.
+     *
+     * @param fieldDefinition Field of the endpoint type
+     * @param typename Select '__typename' in each selection set
+     * @return Selection set including braces, empty for scalar and enum types
+     * @throws IllegalStateException If the selection set exceeds the configured maximum complexity
+     */
+    private String selectionSetBlock(FieldDefinition fieldDefinition, boolean typename) {
+        String selectionSet = selectionSetRenderer.render(SelectionSetRenderer.unwrap(fieldDefinition.getType())
+                .getName(), typename);
+        int complexity = SelectionSetRenderer.complexity(selectionSet);
+        logger.debug("field: {}, complexity: {}, depth: {}", fieldDefinition.getName(), complexity,
+                SelectionSetRenderer.depth(selectionSet));
+        if (configuration.getMaxSelectionComplexity() > 0 && complexity > configuration.getMaxSelectionComplexity()) {
+            throw new IllegalStateException("Selection set of '" + fieldDefinition.getName() + "' selects "
+                    + complexity + " fields, more than the maximum complexity of "
+                    + configuration.getMaxSelectionComplexity() + ". Limit the depth by 'maxSelectionDepth'.");
+        }
+        return selectionSet.isEmpty() ? "" : "{ " + selectionSet + "} ";
+    }
+
+
+    /**
+     * Describe the size of a rendered selection set for the Javadoc of its constant.
+     *
+     * @param selectionSet Selection set including braces
+     * @return Number of fields and depth, e.g. 'Selects 12 fields, depth 3.'
+     */
+    private static String complexityComment(String selectionSet) {
+        if (selectionSet.isEmpty()) {
+            return "Selects no fields.";
+        }
+        String fields = selectionSet.trim().substring(1, selectionSet.trim().length() - 1);
+        return "Selects " + SelectionSetRenderer.complexity(fields) + " fields, depth "
+                + SelectionSetRenderer.depth(fields) + ".";
+    }
+
+
+    /**
+     * Generate the endpoint class with one method per field of the endpoint type.
+     */
+    private void generateEndpoint() {
+        List<FieldSpec> operationSpecs = new ArrayList<>();
+        List<FieldSpec> selectionSetSpecs = queryTypeDefinition.getFieldDefinitions().stream().map(methodDefinition -> {
+            String selectionSetBlock = selectionSetBlock(methodDefinition);
+
+            if (configuration.isBatchMethods() || isCoalescing()) {
+                operationSpecs.add(operationSpec(methodDefinition, selectionSetBlock));
+            }
+
+            if (isCaching()) {
+                operationSpecs.add(operationSpec(methodDefinition, selectionSetBlock(methodDefinition, true),
+                        cachedOperationConstant(methodDefinition.getName()),
+                        "Operation of '" + methodDefinition.getName() + "' selecting '__typename' for the "
+                                + "normalized cache."));
+            }
+
+            if (configuration.isPersistedQueries()) {
+                String document = renderDocument(methodDefinition, selectionSetBlock);
+                if (!configuration.isUseVariables()) {
+                    operationSpecs.add(documentSpec(methodDefinition, document, complexityComment(selectionSetBlock)));
+                }
+                operationSpecs.add(FieldSpec.builder(String.class, hashConstant(methodDefinition.getName()),
+                        Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .addJavadoc("SHA-256 hash of the operation document of '" + methodDefinition.getName()
+                                + "' sent as persisted query." + LINE_SEPARATOR)
+                        .initializer("$S", GenerationManifest.fingerprint(document))
+                        .build());
+            }
+
+            if (configuration.isUseVariables()) {
+                return documentSpec(methodDefinition, renderDocument(methodDefinition, selectionSetBlock),
+                        complexityComment(selectionSetBlock));
+            }
+
+            return FieldSpec.builder(String.class, selectionSetConstant(methodDefinition.getName()),
+                    Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .addJavadoc("Selection set of '" + methodDefinition.getName() + "' rendered from schema. "
+                            + complexityComment(selectionSetBlock) + LINE_SEPARATOR)
+                    .initializer("$S", selectionSetBlock)
+                    .build();
+        }).collect(Collectors.toList());
+
+        List<MethodSpec> methodSpecList = new ArrayList<>();
+        List<MethodSpec> batchMethodSpecs = new ArrayList<>();
+        Set<ClassName> warmUpTypes = new LinkedHashSet<>();
+        warmUpTypes.add(ClassName.get(packageName, queryTypeDefinition.getName(), "Request"));
+        queryTypeDefinition.getFieldDefinitions().forEach(methodDefinition -> {
 
             String methodName = methodDefinition.getName();
             logger.debug("methodName: {}", methodName);
@@ -73,109 +852,854 @@ public abstract class AbstractEndpointGenerator implements GeneratorInterface {
 
             String returnTypeName = ((TypeName) methodDefinition.getType()).getName();
             ClassName returnType = ClassName.get(packageName, returnTypeName);
+            warmUpTypes.add(returnType);
 
-            String methodBody = generateMethodBody(methodName, returnTypeName, parameterSpecList);
+            String requestBody = requestBody(methodName, parameterSpecList);
 
-            return MethodSpec.methodBuilder(methodName)
+            methodSpecList.add(MethodSpec.methodBuilder(methodName)
                     .addModifiers(Modifier.PUBLIC)
                     .addException(IOException.class)
                     .returns(returnType)
                     .addParameters(parameterSpecList)
-                    .addCode(CodeBlock.of(methodBody) + LINE_SEPARATOR)
-                    .build();
+                    .addCode(CodeBlock.of(resultCacheTtl(methodDefinition) > 0
+                            ? generateResultCacheBody(methodName, parameterSpecList, returnTypeName,
+                                    resultCacheTtl(methodDefinition))
+                            : isCaching()
+                            ? generateCachedBody(methodName, parameterSpecList, returnTypeName)
+                            : configuration.isPersistedQueries()
+                            ? generatePersistedQueryBody(methodName, parameterSpecList, returnTypeName)
+                            : requestBody + generateResponseBody(methodName, returnTypeName))
+                            + LINE_SEPARATOR)
+                    .build());
 
-        }).collect(Collectors.toList());
+            TypeDefinition returnTypeDefinition =
+                    types.get(SelectionSetRenderer.unwrap(methodDefinition.getType()).getName());
+            if (configuration.isSelections() && SelectionMapper.isSelectable(returnTypeDefinition)) {
+                NameAllocator names = new NameAllocator();
+                parameterSpecList.forEach(parameterSpec -> names.newName(parameterSpec.name));
+                String selection = names.newName("selection");
+                methodSpecList.add(MethodSpec.methodBuilder(methodName)
+                        .addModifiers(Modifier.PUBLIC)
+                        .addException(IOException.class)
+                        .returns(returnType)
+                        .addParameters(parameterSpecList)
+                        .addParameter(ClassName.get(packageName,
+                                SelectionMapper.selectionName(returnTypeDefinition.getName())), selection)
+                        .addCode(CodeBlock.of(generateSelectionBody(methodDefinition, parameterSpecList, selection,
+                                returnTypeName)) + LINE_SEPARATOR)
+                        .build());
+            }
+
+            String listTypeName = streamedListTypeName(methodDefinition);
+            if (listTypeName != null) {
+                warmUpTypes.add(ClassName.get(packageName, listTypeName));
+                methodSpecList.add(MethodSpec.methodBuilder(methodName + "Stream")
+                        .addJavadoc("Stream the '" + STREAMED_LIST + "' of '" + methodName + "' while reading the "
+                                + "response. The stream has to be closed if not consumed completely." + LINE_SEPARATOR)
+                        .addModifiers(Modifier.PUBLIC)
+                        .addException(IOException.class)
+                        .returns(ParameterizedTypeName.get(ClassName.get(Stream.class),
+                                ClassName.get(packageName, listTypeName)))
+                        .addParameters(parameterSpecList)
+                        .addCode(CodeBlock.of(requestBody + "return " + GqlResponseReader.class.getName()
+                                + ".stream(gqlObjectMapper, send(request, \"" + methodName + "\"), \"" + methodName
+                                + "\", \"" + STREAMED_LIST + "\", " + listTypeName + ".class);" + LINE_SEPARATOR)
+                                + LINE_SEPARATOR)
+                        .build());
+            }
+
+            String edgeTypeName = paginatedEdgeTypeName(methodDefinition);
+            if (edgeTypeName != null) {
+                methodSpecList.add(MethodSpec.methodBuilder(methodName + "Iterator")
+                        .addJavadoc("Iterate all edges of '" + methodName + "', fetching the pages after each other's "
+                                + "'endCursor'. The transport settings' 'paginationPrefetch' pages are requested "
+                                + "ahead." + LINE_SEPARATOR)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(ParameterizedTypeName.get(ClassName.get(GqlPaginator.class),
+                                ClassName.get(packageName, edgeTypeName)))
+                        .addParameters(parameterSpecList.stream()
+                                .filter(parameterSpec -> !AFTER.equals(parameterSpec.name))
+                                .collect(Collectors.toList()))
+                        .addCode(CodeBlock.of(generatePaginationBody(methodName, parameterSpecList, returnTypeName,
+                                edgeTypeName)) + LINE_SEPARATOR)
+                        .build());
+            }
+
+            if (configuration.isAsyncMethods()) {
+                methodSpecList.add(MethodSpec.methodBuilder(methodName + "Async")
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(ParameterizedTypeName.get(ClassName.get(CompletableFuture.class), returnType))
+                        .addParameters(parameterSpecList)
+                        .addCode(CodeBlock.of(requestBody + generateAsyncResponseBody(methodName, returnTypeName))
+                                + LINE_SEPARATOR)
+                        .build());
+            }
+
+            if (configuration.isReactiveMethods()) {
+                methodSpecList.add(MethodSpec.methodBuilder(methodName + "Mono")
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(ParameterizedTypeName.get(ClassName.get("reactor.core.publisher", "Mono"),
+                                returnType))
+                        .addParameters(parameterSpecList)
+                        .addCode(CodeBlock.of(requestBody + generateReactiveResponseBody(methodName, returnTypeName))
+                                + LINE_SEPARATOR)
+                        .build());
+            }
+
+            if (isCoalescing()) {
+                methodSpecList.add(MethodSpec.methodBuilder(methodName + "Coalesced")
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(ParameterizedTypeName.get(ClassName.get(CompletableFuture.class), returnType))
+                        .addParameters(parameterSpecList)
+                        .addCode(CodeBlock.of(variablesBody(parameterSpecList) + "return coalescer.load("
+                                + operationConstant(methodName) + ", variables, " + returnTypeName + ".class);"
+                                + LINE_SEPARATOR))
+                        .build());
+            }
+
+            if (configuration.isBatchMethods()) {
+                batchMethodSpecs.add(MethodSpec.methodBuilder(methodName)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(ParameterizedTypeName.get(ClassName.get(GqlBatchResult.class), returnType))
+                        .addParameters(parameterSpecList)
+                        .addCode(CodeBlock.of(variablesBody(parameterSpecList) + "return batch.add("
+                                + operationConstant(methodName) + ", variables, " + returnTypeName + ".class);"
+                                + LINE_SEPARATOR))
+                        .build());
+            }
+        });
 
         String comment = queryTypeDefinition.getDescription() != null ?
                 queryTypeDefinition.getDescription().getContent() : System.getProperty("line.separator");
 
-        List<FieldSpec> fieldSpecs = new ArrayList<>();
+        List<FieldSpec> fieldSpecs = new ArrayList<>(selectionSetSpecs);
+        fieldSpecs.addAll(operationSpecs);
+        if (isCaching()) {
+            fieldSpecs.add(entityIdFieldsSpec());
+        }
+        List<MethodSpec> clientMethodSpecs = new ArrayList<>();
+        if (configuration.getTransport() == ClientTransport.JAVA_HTTP_CLIENT) {
+            addJavaHttpClient(fieldSpecs, clientMethodSpecs);
+        } else {
+            addRestTemplate(fieldSpecs, clientMethodSpecs);
+        }
+
+        List<TypeSpec> typeSpecs = new ArrayList<>();
+        if (configuration.isBatchMethods()) {
+            typeSpecs.add(batchTypeSpec(batchMethodSpecs));
+        }
+        addBatch(clientMethodSpecs);
+        if (isCaching() || hasResultCache()) {
+            clientMethodSpecs.add(executeTreeSpec());
+        }
+        if (configuration.isStreamingMethods() && "query".equals(operationType())
+                && configuration.getTransport() != ClientTransport.JAVA_HTTP_CLIENT) {
+            clientMethodSpecs.add(sendSpec());
+        }
+        clientMethodSpecs.add(closeSpec());
+        clientMethodSpecs.addAll(warmUpSpecs(warmUpTypes));
+        if (configuration.isGeneratedSerializers()) {
+            typeSpecs.add(requestModuleTypeSpec());
+            clientMethodSpecs.add(registerModulesSpec());
+        }
+
+        TypeSpec.Builder requestTypeBuilder = TypeSpec.classBuilder("Request")
+                .addModifiers(Modifier.PRIVATE)
+                .addAnnotation(Getter.class).addAnnotation(Setter.class)
+                .addField(String.class, "query", Modifier.PRIVATE)
+                .addField(Map.class, "variables", Modifier.PRIVATE);
+        if (configuration.isPersistedQueries()) {
+            requestTypeBuilder.addAnnotation(AnnotationSpec.builder(JsonInclude.class)
+                    .addMember("value", "$T.NON_NULL", JsonInclude.Include.class).build())
+                    .addField(Map.class, "extensions", Modifier.PRIVATE);
+            addPersistedQueries(clientMethodSpecs);
+        }
+        TypeSpec requestTypeSpec = requestTypeBuilder.build();
+
+        TypeSpec typeSpec = TypeSpec.classBuilder(queryTypeDefinition.getName())
+                .addJavadoc(comment)
+                .addAnnotation(Data.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addSuperinterface(AutoCloseable.class)
+                .addType(requestTypeSpec)
+                .addTypes(typeSpecs)
+                .addFields(fieldSpecs)
+                .addMethods(clientMethodSpecs)
+                .addMethods(methodSpecList)
+                .build();
+
+        fileCreator.write(typeSpec);
+    }
+
+
+    /**
+     * Generate the inner class 'Batch' collecting operations on any field of the endpoint type. Its methods mirror
+     * the endpoint methods and return results, which are available after 'execute' sent the batch.
+     *
+     * @param batchMethodSpecs One method per field of the endpoint type
+     * @return Inner class of the endpoint class
+     */
+    private TypeSpec batchTypeSpec(List<MethodSpec> batchMethodSpecs) {
+        return TypeSpec.classBuilder("Batch")
+                .addModifiers(Modifier.PUBLIC)
+                .addField(GqlBatch.class, "batch", Modifier.PRIVATE, Modifier.FINAL)
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PRIVATE)
+                        .addParameter(GqlBatchMode.class, "mode")
+                        .addStatement("this.batch = new $T(mode)", GqlBatch.class)
+                        .build())
+                .addMethods(batchMethodSpecs)
+                .addMethod(MethodSpec.methodBuilder("execute")
+                        .addJavadoc("Send all operations of this batch in one request and complete their results."
+                                + LINE_SEPARATOR)
+                        .addModifiers(Modifier.PUBLIC)
+                        .addException(IOException.class)
+                        .beginControlFlow("if (!batch.isEmpty())")
+                        .addStatement("executeBatch(batch)")
+                        .endControlFlow()
+                        .build())
+                .build();
+    }
+
+
+    /**
+     * Add the methods creating, coalescing and sending batches with the configured transport, as far as batch or
+     * coalesced methods are configured.
+     *
+     * @param methodSpecs Constructors and helper methods of the endpoint class
+     */
+    private void addBatch(List<MethodSpec> methodSpecs) {
+        if (!configuration.isBatchMethods() && !isCoalescing()) {
+            return;
+        }
+
+        if (configuration.isBatchMethods()) {
+            addBatchFactories(methodSpecs);
+        }
+
+        if (isCoalescing()) {
+            methodSpecs.add(MethodSpec.methodBuilder("dispatch")
+                    .addJavadoc("Send all pending coalesced calls in the calling thread." + LINE_SEPARATOR)
+                    .addModifiers(Modifier.PUBLIC)
+                    .addStatement("coalescer.dispatch()")
+                    .build());
+        }
+
+        MethodSpec.Builder executeBatch = MethodSpec.methodBuilder("executeBatch")
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(GqlBatch.class, "batch")
+                .addException(IOException.class);
+        if (configuration.getTransport() == ClientTransport.JAVA_HTTP_CLIENT) {
+            executeBatch.addStatement("batch.read(gqlObjectMapper.getObjectMapper(), "
+                    + "send(batch.request(), \"batch\"))");
+        } else {
+            executeBatch.addCode(CodeBlock.of("" +
+                    "restTemplate.execute(\"\", org.springframework.http.HttpMethod.POST, "
+                    + "restTemplate.httpEntityCallback(batch.request()), response -> {\n" +
+                    "    batch.read(gqlObjectMapper.getObjectMapper(), response.getBody());\n" +
+                    "    return null;\n" +
+                    "});\n"));
+        }
+        methodSpecs.add(executeBatch.build());
+    }
+
+
+    /**
+     * Add the methods creating batches, in the default aliased mode or a given mode.
+     *
+     * @param methodSpecs Constructors and helper methods of the endpoint class
+     */
+    private void addBatchFactories(List<MethodSpec> methodSpecs) {
+        ClassName batch = ClassName.get(packageName, queryTypeDefinition.getName(), "Batch");
+
+        methodSpecs.add(MethodSpec.methodBuilder("batch")
+                .addJavadoc("Create a batch sending all its operations as one document with aliased fields."
+                        + LINE_SEPARATOR)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(batch)
+                .addStatement("return new Batch($T.ALIASES)", GqlBatchMode.class)
+                .build());
+
+        methodSpecs.add(MethodSpec.methodBuilder("batch")
+                .addJavadoc("@param mode Wire format of the batch" + LINE_SEPARATOR)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(batch)
+                .addParameter(GqlBatchMode.class, "mode")
+                .addStatement("return new Batch(mode)")
+                .build());
+    }
+
+
+    /**
+     * Add the method sending automatic persisted queries, and for RestTemplate the method 'execute' reporting
+     * GraphQL errors as {@link services.videa.graphql.java.client.GqlResponseException} instead of wrapping them.
+     *
+     * @param methodSpecs Constructors and helper methods of the endpoint class
+     */
+    private void addPersistedQueries(List<MethodSpec> methodSpecs) {
+        TypeVariableName t = TypeVariableName.get("T");
+        ClassName request = ClassName.get(packageName, queryTypeDefinition.getName(), "Request");
+        ParameterizedTypeName type = ParameterizedTypeName.get(ClassName.get(Class.class), t);
+
+        if (configuration.getTransport() != ClientTransport.JAVA_HTTP_CLIENT) {
+            methodSpecs.add(MethodSpec.methodBuilder("execute")
+                    .addModifiers(Modifier.PRIVATE)
+                    .addTypeVariable(t)
+                    .returns(t)
+                    .addParameter(request, "request")
+                    .addParameter(String.class, "operationName")
+                    .addParameter(type, "type")
+                    .addException(IOException.class)
+                    .beginControlFlow("try")
+                    .addStatement("return restTemplate.execute(\"\", org.springframework.http.HttpMethod.POST, "
+                                    + "restTemplate.httpEntityCallback(request),$W"
+                                    + "response -> $T.read(gqlObjectMapper, response.getBody(), operationName, type))",
+                            GqlResponseReader.class)
+                    .nextControlFlow("catch ($T e)", ResourceAccessException.class)
+                    .beginControlFlow("if (e.getCause() instanceof $T)", GqlResponseException.class)
+                    .addStatement("throw ($T) e.getCause()", GqlResponseException.class)
+                    .endControlFlow()
+                    .addStatement("throw e")
+                    .endControlFlow()
+                    .build());
+        }
+
+        methodSpecs.add(MethodSpec.methodBuilder("executePersisted")
+                .addModifiers(Modifier.PRIVATE)
+                .addTypeVariable(t)
+                .returns(t)
+                .addParameter(request, "request")
+                .addParameter(String.class, "document")
+                .addParameter(String.class, "operationName")
+                .addParameter(type, "type")
+                .addException(IOException.class)
+                .beginControlFlow("try")
+                .addStatement("return execute(request, operationName, type)")
+                .nextControlFlow("catch ($T e)", GqlResponseException.class)
+                .beginControlFlow("if (!e.isPersistedQueryNotFound())")
+                .addStatement("throw e")
+                .endControlFlow()
+                .endControlFlow()
+                .addStatement("request.setQuery(document)")
+                .addStatement("return execute(request, operationName, type)")
+                .build());
+    }
+
+
+    /**
+     * Add fields, constructors and 'init' method of the RestTemplate client. By default requests are sent by a
+     * pooled request factory, which the client closes, alternatively any request factory can be passed.
+     *
+     * @param fieldSpecs Fields of the endpoint class
+     * @param methodSpecs Constructors and helper methods of the endpoint class
+     */
+    private void addRestTemplate(List<FieldSpec> fieldSpecs, List<MethodSpec> methodSpecs) {
         fieldSpecs.add(FieldSpec.builder(RestTemplate.class, "restTemplate", Modifier.PRIVATE).build());
         fieldSpecs.add(FieldSpec.builder(DefaultUriBuilderFactory.class, "defaultUriBuilderFactory",
                 Modifier.PRIVATE).build());
-        fieldSpecs.add(FieldSpec.builder(ObjectMapper.class, "objectMapper", Modifier.PRIVATE).build());
+        fieldSpecs.add(FieldSpec.builder(ClientHttpRequestFactory.class, "ownedRequestFactory", Modifier.PRIVATE)
+                .build());
+        fieldSpecs.add(FieldSpec.builder(GqlObjectMapper.class, "gqlObjectMapper", Modifier.PRIVATE).build());
 
-        MethodSpec constructorMethodSpec = MethodSpec.constructorBuilder()
+        methodSpecs.add(MethodSpec.constructorBuilder()
                 .addModifiers(Modifier.PUBLIC)
                 .addParameter(String.class, "url")
                 .addParameter(String.class, "token")
+                .addStatement("this(url, token, new $T())", TRANSPORT_SETTINGS)
+                .build());
+
+        methodSpecs.add(MethodSpec.constructorBuilder()
+                .addJavadoc("@param settings Connection pool and compression settings" + LINE_SEPARATOR)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(String.class, "url")
+                .addParameter(String.class, "token")
+                .addParameter(TRANSPORT_SETTINGS, "settings")
+                .addStatement("this(url, token, settings, $T.pooled(settings), true)", REQUEST_FACTORIES)
+                .build());
+
+        methodSpecs.add(MethodSpec.constructorBuilder()
+                .addJavadoc("@param requestFactory Request factory sending all blocking calls" + LINE_SEPARATOR)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(String.class, "url")
+                .addParameter(String.class, "token")
+                .addParameter(ClientHttpRequestFactory.class, "requestFactory")
+                .addStatement("this(url, token, new $T(), requestFactory, false)", TRANSPORT_SETTINGS)
+                .build());
+
+        MethodSpec.Builder constructorBuilder = MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(String.class, "url")
+                .addParameter(String.class, "token")
+                .addParameter(TRANSPORT_SETTINGS, "settings")
+                .addParameter(ClientHttpRequestFactory.class, "requestFactory")
+                .addParameter(boolean.class, "ownRequestFactory")
                 .addStatement("this.defaultUriBuilderFactory = new DefaultUriBuilderFactory(url)")
-                .addStatement("this.restTemplate = init(token)")
-                .addStatement("this.objectMapper = new ObjectMapper()")
-                .build();
+                .addStatement("this.ownedRequestFactory = ownRequestFactory ? requestFactory : null");
+        addObjectMapper(constructorBuilder);
+        constructorBuilder.addStatement("this.restTemplate = init(token, requestFactory)");
+        addReactiveClient(fieldSpecs, constructorBuilder);
+        addCoalescer(fieldSpecs, constructorBuilder);
+        addNormalizedCache(fieldSpecs, constructorBuilder);
+        addResultCache(fieldSpecs, constructorBuilder);
+        addPagination(fieldSpecs, constructorBuilder);
+        methodSpecs.add(constructorBuilder.build());
 
-        MethodSpec initMethodSpec = MethodSpec.methodBuilder("init")
+        methodSpecs.add(MethodSpec.methodBuilder("init")
                 .addModifiers(Modifier.PRIVATE)
                 .addParameter(String.class, "token")
+                .addParameter(ClientHttpRequestFactory.class, "requestFactory")
                 .addCode(CodeBlock.of("" +
-                        "            RestTemplate restTemplate = new RestTemplate();\n" +
+                        "            RestTemplate restTemplate = new RestTemplate(requestFactory);\n" +
                         "            restTemplate.setUriTemplateHandler(this.defaultUriBuilderFactory);\n" +
+                        "            restTemplate.getMessageConverters().replaceAll(converter ->\n" +
+                        "                    converter instanceof $T\n" +
+                        "                            ? new $T(this.gqlObjectMapper) : converter);\n" +
                         "            restTemplate.getInterceptors().add((request, body, execution) -> {\n" +
                         "                request.getHeaders().set(\"Authorization\", \"Token \" + token);\n" +
                         "                return execution.execute(request, body);\n" +
                         "            });\n" +
-                        "            return restTemplate;\n"))
+                        "            return restTemplate;\n",
+                        MappingJackson2HttpMessageConverter.class, GqlMessageConverter.class))
                 .returns(RestTemplate.class)
-                .build();
+                .build());
+    }
+
 
-        MethodSpec readFieldsMethodSpec = MethodSpec.methodBuilder("readFields")
+    /**
+     * Generate the method sending a request by the RestTemplate's request factory and returning the open response
+     * body, which streaming methods read lazily. The RestTemplate itself always closes the response after
+     * extracting the result.
+     *
+     * @return Method 'send' of the RestTemplate client
+     */
+    private MethodSpec sendSpec() {
+        return MethodSpec.methodBuilder("send")
                 .addModifiers(Modifier.PRIVATE)
-                .addParameter(Class.class, "aClass")
-                .addCode(CodeBlock.of(generateReadFieldsBody()))
-                .returns(String.class)
+                .returns(InputStream.class)
+                .addParameter(Object.class, "request")
+                .addParameter(String.class, "operationName")
+                .addException(IOException.class)
+                .addStatement("$T httpRequest = restTemplate.getRequestFactory()" + LINE_SEPARATOR
+                                + ".createRequest(defaultUriBuilderFactory.expand(\"\"), $T.POST)",
+                        ClientHttpRequest.class, HttpMethod.class)
+                .addStatement("httpRequest.getHeaders().setContentType($T.APPLICATION_JSON)", MediaType.class)
+                .addStatement("httpRequest.getBody().write(" + LINE_SEPARATOR
+                        + "gqlObjectMapper.writer(request.getClass()).writeValueAsBytes(request))")
+                .addStatement("$T response = httpRequest.execute()", ClientHttpResponse.class)
+                .beginControlFlow("if (response.getRawStatusCode() >= 400)")
+                .addStatement("response.close()")
+                .addStatement("throw new $T(\"GraphQL endpoint responded with status \" + "
+                        + "response.getRawStatusCode())", IOException.class)
+                .endControlFlow()
+                .addStatement("return response.getBody()")
                 .build();
+    }
+
+
+    /**
+     * Add fields, constructors and the 'execute' method of the java.net.http client. The client negotiates HTTP/2
+     * and keeps its own connection pool. Types of java.net.http are referenced by name, as the generator itself
+     * runs on Java 8.
+     *
+     * @param fieldSpecs Fields of the endpoint class
+     * @param methodSpecs Constructors and helper methods of the endpoint class
+     */
+    private void addJavaHttpClient(List<FieldSpec> fieldSpecs, List<MethodSpec> methodSpecs) {
+        ClassName httpClient = ClassName.get("java.net.http", "HttpClient");
+        ClassName httpRequest = ClassName.get("java.net.http", "HttpRequest");
+        ClassName httpResponse = ClassName.get("java.net.http", "HttpResponse");
+
+        fieldSpecs.add(FieldSpec.builder(httpClient, "httpClient", Modifier.PRIVATE).build());
+        fieldSpecs.add(FieldSpec.builder(boolean.class, "ownHttpClient", Modifier.PRIVATE).build());
+        fieldSpecs.add(FieldSpec.builder(URI.class, "uri", Modifier.PRIVATE).build());
+        fieldSpecs.add(FieldSpec.builder(String.class, "authorization", Modifier.PRIVATE, Modifier.FINAL)
+                .addAnnotation(AnnotationSpec.builder(Getter.class)
+                        .addMember("value", "$T.NONE", AccessLevel.class).build())
+                .addAnnotation(ToString.Exclude.class)
+                .build());
+        fieldSpecs.add(FieldSpec.builder(boolean.class, "gzip", Modifier.PRIVATE).build());
+        fieldSpecs.add(FieldSpec.builder(GqlObjectMapper.class, "gqlObjectMapper", Modifier.PRIVATE).build());
+
+        methodSpecs.add(MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(String.class, "url")
+                .addParameter(String.class, "token")
+                .addStatement("this(url, token, ($T) null)", Executor.class)
+                .build());
 
-        TypeSpec requestTypeSpec = TypeSpec.classBuilder("Request")
+        methodSpecs.add(MethodSpec.constructorBuilder()
+                .addJavadoc("@param executor Executor of the HTTP client's asynchronous tasks, e.g. a virtual thread "
+                        + "executor, null for the default. A bounded pool must not also run blocking calls of this "
+                        + "client." + LINE_SEPARATOR)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(String.class, "url")
+                .addParameter(String.class, "token")
+                .addParameter(Executor.class, "executor")
+                .addStatement("this(url, token, new $T(), executor)", TRANSPORT_SETTINGS)
+                .build());
+
+        methodSpecs.add(MethodSpec.constructorBuilder()
+                .addJavadoc("@param settings Connection settings, pool sizes are configured by the JDK's "
+                        + "'jdk.httpclient' system properties" + LINE_SEPARATOR
+                        + "@param executor Executor of the HTTP client's asynchronous tasks, null for the default"
+                        + LINE_SEPARATOR)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(String.class, "url")
+                .addParameter(String.class, "token")
+                .addParameter(TRANSPORT_SETTINGS, "settings")
+                .addParameter(Executor.class, "executor")
+                .addStatement("this(url, token, settings, httpClient(settings, executor), true)")
+                .build());
+
+        methodSpecs.add(MethodSpec.constructorBuilder()
+                .addJavadoc("@param settings Connection settings" + LINE_SEPARATOR
+                        + "@param httpClient HTTP client sending all blocking calls, left open by 'close'"
+                        + LINE_SEPARATOR)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(String.class, "url")
+                .addParameter(String.class, "token")
+                .addParameter(TRANSPORT_SETTINGS, "settings")
+                .addParameter(httpClient, "httpClient")
+                .addStatement("this(url, token, settings, httpClient, false)")
+                .build());
+
+        MethodSpec.Builder constructorBuilder = MethodSpec.constructorBuilder()
                 .addModifiers(Modifier.PRIVATE)
-                .addAnnotation(Getter.class).addAnnotation(Setter.class)
-                .addField(String.class, "query", Modifier.PRIVATE)
-                .addField(Map.class, "variables", Modifier.PRIVATE)
+                .addParameter(String.class, "url")
+                .addParameter(String.class, "token")
+                .addParameter(TRANSPORT_SETTINGS, "settings")
+                .addParameter(httpClient, "httpClient")
+                .addParameter(boolean.class, "ownHttpClient")
+                .addStatement("this.httpClient = httpClient")
+                .addStatement("this.ownHttpClient = ownHttpClient")
+                .addStatement("this.uri = $T.create(url)", URI.class)
+                .addStatement("this.authorization = \"Token \" + token")
+                .addStatement("this.gzip = settings.isGzip()");
+        addObjectMapper(constructorBuilder);
+        addReactiveClient(fieldSpecs, constructorBuilder);
+        addCoalescer(fieldSpecs, constructorBuilder);
+        addNormalizedCache(fieldSpecs, constructorBuilder);
+        addResultCache(fieldSpecs, constructorBuilder);
+        addPagination(fieldSpecs, constructorBuilder);
+        methodSpecs.add(constructorBuilder.build());
+
+        methodSpecs.add(MethodSpec.methodBuilder("httpClient")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(httpClient)
+                .addParameter(TRANSPORT_SETTINGS, "settings")
+                .addParameter(Executor.class, "executor")
+                .addStatement("$T.Builder builder = $T.newBuilder()" + LINE_SEPARATOR
+                                + ".version(settings.isHttp2() ? $T.Version.HTTP_2 : $T.Version.HTTP_1_1)"
+                                + LINE_SEPARATOR
+                                + ".connectTimeout($T.ofMillis(settings.getConnectTimeoutMillis()))",
+                        httpClient, httpClient, httpClient, httpClient, Duration.class)
+                .beginControlFlow("if (executor != null)")
+                .addStatement("builder.executor(executor)")
+                .endControlFlow()
+                .addStatement("return builder.build()")
+                .build());
+
+        TypeVariableName t = TypeVariableName.get("T");
+        methodSpecs.add(MethodSpec.methodBuilder("execute")
+                .addModifiers(Modifier.PRIVATE)
+                .addTypeVariable(t)
+                .returns(t)
+                .addParameter(ClassName.get(packageName, queryTypeDefinition.getName(), "Request"), "request")
+                .addParameter(String.class, "operationName")
+                .addParameter(ParameterizedTypeName.get(ClassName.get(Class.class), t), "type")
+                .addException(IOException.class)
+                .addStatement("return $T.read(gqlObjectMapper, send(request, operationName), operationName, type)",
+                        GqlResponseReader.class)
+                .build());
+
+        methodSpecs.add(MethodSpec.methodBuilder("send")
+                .addModifiers(Modifier.PRIVATE)
+                .returns(InputStream.class)
+                .addParameter(Object.class, "request")
+                .addParameter(String.class, "operationName")
+                .addException(IOException.class)
+                .addStatement("$T.Builder builder = $T.newBuilder(uri)" + LINE_SEPARATOR
+                                + ".header(\"Content-Type\", \"application/json\")" + LINE_SEPARATOR
+                                + ".header(\"Accept\", \"application/json\")" + LINE_SEPARATOR
+                                + ".header(\"Authorization\", authorization)" + LINE_SEPARATOR
+                                + ".POST($T.BodyPublishers.ofByteArray(" + LINE_SEPARATOR
+                                + "gqlObjectMapper.writer(request.getClass()).writeValueAsBytes(request)))",
+                        httpRequest, httpRequest, httpRequest)
+                .beginControlFlow("if (gzip)")
+                .addStatement("builder.header(\"Accept-Encoding\", \"gzip\")")
+                .endControlFlow()
+                .addStatement("$T<$T> response", httpResponse, InputStream.class)
+                .beginControlFlow("try")
+                .addStatement("response = httpClient.send(builder.build(), $T.BodyHandlers.ofInputStream())",
+                        httpResponse)
+                .nextControlFlow("catch ($T e)", InterruptedException.class)
+                .addStatement("Thread.currentThread().interrupt()")
+                .addStatement("throw new $T(\"Request of \" + operationName + \" interrupted\")",
+                        InterruptedIOException.class)
+                .endControlFlow()
+                .beginControlFlow("if (response.statusCode() >= 400)")
+                .addStatement("response.body().close()")
+                .addStatement("throw new $T(\"GraphQL endpoint responded with status \" + response.statusCode())",
+                        IOException.class)
+                .endControlFlow()
+                .addStatement("$T body = response.body()", InputStream.class)
+                .beginControlFlow("if (\"gzip\".equalsIgnoreCase(response.headers().firstValue(\"Content-Encoding\")"
+                        + ".orElse(\"\")))")
+                .addStatement("body = new $T(body)", GZIPInputStream.class)
+                .endControlFlow()
+                .addStatement("return body")
+                .build());
+    }
+
+
+    /**
+     * Generate the method releasing the connection pools the client created, after sending pending coalesced
+     * calls. Request factories and HTTP clients passed to a constructor are left open. The java.net.http client
+     * is closable on JDK 21 and later only, earlier ones release its connections when it is unreachable.
+     *
+     * @return Method 'close'
+     */
+    private MethodSpec closeSpec() {
+        MethodSpec.Builder close = MethodSpec.methodBuilder("close")
+                .addJavadoc("Release the connection pools of this client." + LINE_SEPARATOR)
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC);
+        if (isCoalescing()) {
+            close.addStatement("coalescer.dispatch()");
+        }
+        if (configuration.isAsyncMethods() || configuration.isReactiveMethods()) {
+            close.addStatement("reactiveClient.close()");
+        }
+        if (configuration.getTransport() == ClientTransport.JAVA_HTTP_CLIENT) {
+            close.beginControlFlow("if (ownHttpClient && httpClient instanceof $T)", AutoCloseable.class)
+                    .beginControlFlow("try")
+                    .addStatement("(($T) httpClient).close()", AutoCloseable.class)
+                    .nextControlFlow("catch ($T e)", Exception.class)
+                    .addStatement("throw new $T(\"HTTP client not closable\", e)", IllegalStateException.class)
+                    .endControlFlow()
+                    .endControlFlow();
+        } else {
+            close.addStatement("$T.close(ownedRequestFactory)", REQUEST_FACTORIES);
+        }
+        return close.build();
+    }
+
+
+    /**
+     * Add the non-blocking client of async and reactive methods if configured.
+     *
+     * @param fieldSpecs Fields of the endpoint class
+     * @param constructorBuilder Constructor initializing all clients
+     */
+    private void addReactiveClient(List<FieldSpec> fieldSpecs, MethodSpec.Builder constructorBuilder) {
+        if (configuration.isAsyncMethods() || configuration.isReactiveMethods()) {
+            fieldSpecs.add(FieldSpec.builder(REACTIVE_CLIENT, "reactiveClient", Modifier.PRIVATE).build());
+            constructorBuilder.addStatement("this.reactiveClient = new $T(url, token, this.gqlObjectMapper, settings)",
+                    REACTIVE_CLIENT);
+        }
+    }
+
+
+    /**
+     * Add the normalized cache of query methods and the method reading an operation's result as JSON tree, if
+     * configured.
+     *
+     * @param fieldSpecs Fields of the endpoint class
+     * @param constructorBuilder Constructor initializing all clients
+     */
+    private void addNormalizedCache(List<FieldSpec> fieldSpecs, MethodSpec.Builder constructorBuilder) {
+        if (isCaching()) {
+            fieldSpecs.add(FieldSpec.builder(GqlNormalizedCache.class, "normalizedCache", Modifier.PRIVATE).build());
+            constructorBuilder.addStatement("this.normalizedCache = new $T(this.gqlObjectMapper, ENTITY_ID_FIELDS, "
+                    + "settings)", GqlNormalizedCache.class);
+        }
+    }
+
+
+    /**
+     * Add the result cache if any field of the endpoint is cached.
+     *
+     * @param fieldSpecs Fields of the endpoint class
+     * @param constructorBuilder Constructor initializing all clients
+     */
+    private void addResultCache(List<FieldSpec> fieldSpecs, MethodSpec.Builder constructorBuilder) {
+        if (hasResultCache()) {
+            fieldSpecs.add(FieldSpec.builder(GqlResultCache.class, "resultCache", Modifier.PRIVATE).build());
+            constructorBuilder.addStatement("this.resultCache = new $T(this.gqlObjectMapper, settings)",
+                    GqlResultCache.class);
+        }
+    }
+
+
+    /**
+     * Generate the method posting a request and reading the operation's result as JSON tree for the normalized
+     * cache and the result cache.
+     *
+     * @return Method 'executeTree'
+     */
+    private MethodSpec executeTreeSpec() {
+        MethodSpec.Builder executeTree = MethodSpec.methodBuilder("executeTree")
+                .addModifiers(Modifier.PRIVATE)
+                .returns(JsonNode.class)
+                .addParameter(ClassName.get(packageName, queryTypeDefinition.getName(), "Request"), "request")
+                .addParameter(String.class, "operationName")
+                .addException(IOException.class);
+        if (configuration.getTransport() == ClientTransport.JAVA_HTTP_CLIENT) {
+            return executeTree.addStatement("return $T.readTree(gqlObjectMapper.getObjectMapper(), "
+                    + "send(request, operationName), "
+                    + "operationName)", GqlResponseReader.class).build();
+        }
+        return executeTree.addStatement("return restTemplate.execute(\"\", org.springframework.http.HttpMethod.POST, "
+                        + "restTemplate.httpEntityCallback(request),$W"
+                        + "response -> $T.readTree(gqlObjectMapper.getObjectMapper(), response.getBody(), "
+                        + "operationName))",
+                GqlResponseReader.class).build();
+    }
+
+
+    /**
+     * Add the coalescer of coalesced methods if configured.
+     *
+     * @param fieldSpecs Fields of the endpoint class
+     * @param constructorBuilder Constructor initializing all clients
+     */
+    private void addCoalescer(List<FieldSpec> fieldSpecs, MethodSpec.Builder constructorBuilder) {
+        if (isCoalescing()) {
+            fieldSpecs.add(FieldSpec.builder(GqlCoalescer.class, "coalescer", Modifier.PRIVATE).build());
+            constructorBuilder.addStatement("this.coalescer = new $T(this::executeBatch, settings)", GqlCoalescer.class);
+        }
+    }
+
+
+    /**
+     * Initialize the object mapper of the transport settings, by default the one shared by all endpoint clients,
+     * and register the generated deserializers and serializers with it if configured.
+     *
+     * @param constructorBuilder Constructor initializing all clients
+     */
+    private void addObjectMapper(MethodSpec.Builder constructorBuilder) {
+        constructorBuilder.addStatement("this.gqlObjectMapper = settings.getObjectMapper() != null "
+                + "? settings.getObjectMapper() : $T.shared()", GqlObjectMapper.class);
+        if (configuration.isGeneratedSerializers()) {
+            constructorBuilder.addStatement("registerModules(this.gqlObjectMapper)");
+        }
+    }
+
+
+    /**
+     * Generate the method registering the generated deserializers and serializers of all types and inputs and the
+     * serializer of requests, so the object mapper does not introspect any generated class.
+     *
+     * @return Method 'registerModules'
+     */
+    private MethodSpec registerModulesSpec() {
+        return MethodSpec.methodBuilder("registerModules")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addParameter(GqlObjectMapper.class, "objectMapper")
+                .addStatement("objectMapper.registerModule(new $T())",
+                        ClassName.get(packageName, SerializerMapper.MODULE_NAME))
+                .addStatement("objectMapper.registerModule(new RequestModule())")
                 .build();
+    }
 
-        TypeSpec typeSpec = TypeSpec.classBuilder(queryTypeDefinition.getName())
-                .addJavadoc(comment)
-                .addAnnotation(Data.class)
+
+    /**
+     * Generate the inner class 'RequestModule' registering a serializer of the inner class 'Request'. With
+     * persisted queries null fields are omitted like by the request's JsonInclude annotation.
+     *
+     * @return Inner class of the endpoint class
+     */
+    private TypeSpec requestModuleTypeSpec() {
+        ClassName request = ClassName.get(packageName, queryTypeDefinition.getName(), "Request");
+        boolean omitNull = configuration.isPersistedQueries();
+        List<String> fields = new ArrayList<>(Arrays.asList("query", "variables"));
+        if (configuration.isPersistedQueries()) {
+            fields.add("extensions");
+        }
+
+        MethodSpec.Builder serialize = MethodSpec.methodBuilder("serialize")
+                .addAnnotation(Override.class)
                 .addModifiers(Modifier.PUBLIC)
-                .addType(requestTypeSpec)
-                .addFields(fieldSpecs)
-                .addMethod(constructorMethodSpec)
-                .addMethod(initMethodSpec)
-                .addMethod(readFieldsMethodSpec)
-                .addMethods(methodSpecList)
+                .addParameter(request, "value")
+                .addParameter(JsonGenerator.class, "gen")
+                .addParameter(SerializerProvider.class, "provider")
+                .addException(IOException.class)
+                .addStatement("gen.writeStartObject()");
+        for (String field : fields) {
+            String getter = "value.get" + Character.toUpperCase(field.charAt(0)) + field.substring(1) + "()";
+            if (omitNull) {
+                serialize.beginControlFlow("if ($L != null)", getter);
+            }
+            if ("query".equals(field)) {
+                serialize.addStatement("gen.writeStringField($S, $L)", field, getter);
+            } else {
+                serialize.addStatement("provider.defaultSerializeField($S, $L, gen)", field, getter);
+            }
+            if (omitNull) {
+                serialize.endControlFlow();
+            }
+        }
+
+        TypeSpec serializer = TypeSpec.anonymousClassBuilder("$T.class", request)
+                .superclass(ParameterizedTypeName.get(ClassName.get(StdSerializer.class), request))
+                .addMethod(serialize.addStatement("gen.writeEndObject()").build())
                 .build();
 
-        fileCreator.write(typeSpec);
+        return TypeSpec.classBuilder("RequestModule")
+                .addJavadoc("Module registering the serializer of requests." + LINE_SEPARATOR)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .superclass(SimpleModule.class)
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addStatement("super($S)", queryTypeDefinition.getName() + ".Request")
+                        .addStatement("addSerializer($T.class, $L)", request, serializer)
+                        .build())
+                .build();
     }
 
 
-    private String generateReadFieldsBody() {
-        return  "        StringBuffer buffer = new StringBuffer();\n" +
-                "        java.lang.reflect.Field[] fields = aClass.getDeclaredFields();\n" +
-                "        for (java.lang.reflect.Field field : fields) {\n" +
-                "            buffer.append(field.getName()).append(\" \");\n" +
-                "            if (!field.getType().getName().startsWith(\"java.lang\")) {\n" +
-                "                buffer.append(\" { \").append(System.getProperty(\"line.separator\"));\n" +
-                "                Class<?> myClass = null;\n" +
-                "                try {\n" +
-                "                    if (\"java.util.List\".equals(field.getType().getName())) {\n" +
-                "                        java.lang.reflect.ParameterizedType typeName \n" +
-                "                                = (java.lang.reflect.ParameterizedType) field.getGenericType();\n" +
-                "                        myClass = Class.forName(typeName.getActualTypeArguments()[0].getTypeName());\n" +
-                "                    } else {\n" +
-                "                        myClass = field.getType();\n" +
-                "                    }\n" +
-                "                } catch(ClassNotFoundException e) {\n" +
-                "                    e.printStackTrace(System.err);\n" +
-                "                    System.err.println(\"Setting aClass to String.class\");\n" +
-                "                    myClass = String.class;\n" +
-                "                }\n" +
-                "                String fieldsStr = readFields(myClass);\n" +
-                "                buffer.append(fieldsStr).append(System.getProperty(\"line.separator\"));\n" +
-                "                buffer.append(\"}\").append(System.getProperty(\"line.separator\"));\n" +
-                "            }\n" +
-                "        }\n" +
-                "        return buffer.toString();\n";
+    /**
+     * Generate the static warm-up hooks resolving the (de)serializers of all requests and results of the endpoint
+     * class, to be called at application startup instead of paying the introspection with the first calls.
+     *
+     * @param warmUpTypes Request class and generated result types
+     * @return Methods 'warmUp' with and without object mapper
+     */
+    private List<MethodSpec> warmUpSpecs(Collection<ClassName> warmUpTypes) {
+        MethodSpec.Builder warmUp = MethodSpec.methodBuilder("warmUp")
+                .addJavadoc("Resolve the readers of all results and the writer of requests of this endpoint."
+                        + LINE_SEPARATOR + LINE_SEPARATOR
+                        + "@param objectMapper Object mapper of the transport settings of later created clients"
+                        + LINE_SEPARATOR)
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .addParameter(GqlObjectMapper.class, "objectMapper");
+        if (configuration.isGeneratedSerializers()) {
+            warmUp.addStatement("registerModules(objectMapper)");
+        }
+        warmUp.addStatement("objectMapper.warmUp(" + warmUpTypes.stream().map(type -> "$T.class")
+                .collect(Collectors.joining(", ")) + ")", warmUpTypes.toArray());
+
+        return Arrays.asList(
+                MethodSpec.methodBuilder("warmUp")
+                        .addJavadoc("Resolve the readers of all results and the writer of requests of this endpoint "
+                                + "with the shared object mapper." + LINE_SEPARATOR)
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .addStatement("warmUp($T.shared())", GqlObjectMapper.class)
+                        .build(),
+                warmUp.build());
     }
 
 
+    /**
+     * Add the number of prefetched pages of paginating methods if configured.
+     *
+     * @param fieldSpecs Fields of the endpoint class
+     * @param constructorBuilder Constructor initializing all clients
+     */
+    private void addPagination(List<FieldSpec> fieldSpecs, MethodSpec.Builder constructorBuilder) {
+        if (configuration.isPaginationMethods() && "query".equals(operationType())) {
+            fieldSpecs.add(FieldSpec.builder(int.class, "paginationPrefetch", Modifier.PRIVATE).build());
+            constructorBuilder.addStatement("this.paginationPrefetch = settings.getPaginationPrefetch()");
+        }
+    }
+
 }
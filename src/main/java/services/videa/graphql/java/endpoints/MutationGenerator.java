@@ -13,6 +13,8 @@ package services.videa.graphql.java.endpoints;
 import com.squareup.javapoet.ParameterSpec;
 import graphql.language.ObjectTypeDefinition;
 import graphql.language.ScalarTypeDefinition;
+import graphql.language.TypeDefinition;
+import services.videa.graphql.java.GeneratorConfiguration;
 
 import java.text.MessageFormat;
 import java.util.List;
@@ -22,12 +24,30 @@ import java.util.Map;
 public class MutationGenerator extends AbstractEndpointGenerator {
 
     public MutationGenerator(ObjectTypeDefinition queryTypeDefinition,
+                             Map<String, TypeDefinition> types,
                              Map<String, ScalarTypeDefinition> scalars,
                              String srcFolder, String packageName) {
-        super(queryTypeDefinition, scalars, srcFolder, packageName);
+        super(queryTypeDefinition, types, scalars, srcFolder, packageName);
     }
 
-    String generateMethodBody(String methodName, String returnTypeName, List<ParameterSpec> parameterSpecList) {
+
+    public MutationGenerator(ObjectTypeDefinition queryTypeDefinition,
+                             Map<String, TypeDefinition> types,
+                             Map<String, ScalarTypeDefinition> scalars,
+                             String srcFolder, String packageName,
+                             GeneratorConfiguration configuration) {
+        super(queryTypeDefinition, types, scalars, srcFolder, packageName, configuration);
+    }
+
+
+    @Override
+    String operationType() {
+        return "mutation";
+    }
+
+
+    @Override
+    String generateRequestBody(String methodName, List<ParameterSpec> parameterSpecList) {
         StringBuilder body = new StringBuilder();
         body.append("Request request = new Request();").append(LINE_SEPARATOR);
 
@@ -38,29 +58,13 @@ public class MutationGenerator extends AbstractEndpointGenerator {
                 .append(LINE_SEPARATOR);
         body.append("jsonBody += \" ) \";").append(LINE_SEPARATOR);
 
-        body.append("jsonBody += \" { \";").append(LINE_SEPARATOR);
-        body.append("jsonBody += services.videa.graphql.java.rendering.GqlRenderer.renderReturnFields("
-                + returnTypeName + ".class);").append(LINE_SEPARATOR);
-        body.append("jsonBody += \" } \";").append(LINE_SEPARATOR);
+        body.append("jsonBody += " + selectionSetConstant(methodName) + ";").append(LINE_SEPARATOR);
 
         body.append("jsonBody += \" } \";").append(LINE_SEPARATOR);
 
         body.append("request.setQuery(jsonBody);").append(LINE_SEPARATOR);
         body.append("request.setVariables(java.util.Collections.emptyMap());").append(LINE_SEPARATOR);
 
-        body.append("Object response = restTemplate.postForObject(\"\", request, Object.class);").append(LINE_SEPARATOR);
-        body.append(
-                "java.util.Map map = objectMapper.convertValue(response, java.util.Map.class);")
-                .append(LINE_SEPARATOR);
-        body.append("Map nodeMap = (Map)((Map)map.get(\"data\")).get(\"" + methodName + "\");").append(LINE_SEPARATOR);
-
-        body.append("String responseJson = objectMapper.writeValueAsString(nodeMap);").append(LINE_SEPARATOR);
-        body.append(
-                returnTypeName + " nodeObject = objectMapper.readValue(responseJson, " + returnTypeName + ".class);")
-                .append(LINE_SEPARATOR);
-
-        body.append("return nodeObject;").append(LINE_SEPARATOR);
-
         return body.toString();
     }
 
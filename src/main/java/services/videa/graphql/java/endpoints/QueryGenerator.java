@@ -13,6 +13,8 @@ package services.videa.graphql.java.endpoints;
 import com.squareup.javapoet.ParameterSpec;
 import graphql.language.ObjectTypeDefinition;
 import graphql.language.ScalarTypeDefinition;
+import graphql.language.TypeDefinition;
+import services.videa.graphql.java.GeneratorConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,13 +28,30 @@ public class QueryGenerator extends AbstractEndpointGenerator {
 
 
     public QueryGenerator(ObjectTypeDefinition queryTypeDefinition,
+                          Map<String, TypeDefinition> types,
                           Map<String, ScalarTypeDefinition> scalars,
                           String generationFolder, String packageName) {
-        super(queryTypeDefinition, scalars, generationFolder, packageName);
+        super(queryTypeDefinition, types, scalars, generationFolder, packageName);
     }
 
 
-    String generateMethodBody(String methodName, String returnTypeName, List<ParameterSpec> parameterSpecList) {
+    public QueryGenerator(ObjectTypeDefinition queryTypeDefinition,
+                          Map<String, TypeDefinition> types,
+                          Map<String, ScalarTypeDefinition> scalars,
+                          String generationFolder, String packageName,
+                          GeneratorConfiguration configuration) {
+        super(queryTypeDefinition, types, scalars, generationFolder, packageName, configuration);
+    }
+
+
+    @Override
+    String operationType() {
+        return "query";
+    }
+
+
+    @Override
+    String generateRequestBody(String methodName, List<ParameterSpec> parameterSpecList) {
         StringBuilder body = new StringBuilder();
         body.append("Request request = new Request();").append(LINE_SEPARATOR);
 
@@ -48,28 +67,13 @@ public class QueryGenerator extends AbstractEndpointGenerator {
         body.append("}").append(LINE_SEPARATOR);
         body.append("jsonBody += \" ) \";").append(LINE_SEPARATOR);
 
-        body.append("jsonBody += \" { \";").append(LINE_SEPARATOR);
-        body.append("jsonBody += readFields(" + returnTypeName + ".class);").append(LINE_SEPARATOR);
-        body.append("jsonBody += \" } \";").append(LINE_SEPARATOR);
+        body.append("jsonBody += " + selectionSetConstant(methodName) + ";").append(LINE_SEPARATOR);
 
         body.append("jsonBody += \" } \";").append(LINE_SEPARATOR);
 
         body.append("request.setQuery(jsonBody);").append(LINE_SEPARATOR);
         body.append("request.setVariables(java.util.Collections.emptyMap());").append(LINE_SEPARATOR);
 
-        body.append("Object response = restTemplate.postForObject(\"\", request, Object.class);").append(LINE_SEPARATOR);
-        body.append(
-                "java.util.Map map = objectMapper.convertValue(response, java.util.Map.class);")
-                .append(LINE_SEPARATOR);
-        body.append("Map nodeMap = (Map)((Map)map.get(\"data\")).get(\"" + methodName + "\");").append(LINE_SEPARATOR);
-
-        body.append("String responseJson = objectMapper.writeValueAsString(nodeMap);").append(LINE_SEPARATOR);
-        body.append(
-                returnTypeName + " nodeObject = objectMapper.readValue(responseJson, " + returnTypeName + ".class);")
-                .append(LINE_SEPARATOR);
-
-        body.append("return nodeObject;").append(LINE_SEPARATOR);
-
         return body.toString();
     }
 
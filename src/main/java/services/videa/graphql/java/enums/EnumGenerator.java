@@ -11,13 +11,17 @@
 package services.videa.graphql.java.enums;
 
 import com.squareup.javapoet.TypeSpec;
+import graphql.language.AstPrinter;
 import graphql.language.EnumTypeDefinition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import services.videa.graphql.java.FileCreator;
+import services.videa.graphql.java.GenerationTask;
 import services.videa.graphql.java.GeneratorInterface;
 
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 
 /**
@@ -50,8 +54,10 @@ public class EnumGenerator implements GeneratorInterface {
 
 
     @Override
-    public void generate() {
-        enums.forEach((key, element) -> generate(element));
+    public List<GenerationTask> tasks() {
+        return enums.values().stream()
+                .map(element -> new GenerationTask(element.getName(), AstPrinter.printAst(element), () -> generate(element)))
+                .collect(Collectors.toList());
     }
 
 
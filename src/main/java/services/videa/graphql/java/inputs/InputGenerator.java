@@ -11,15 +11,19 @@
 package services.videa.graphql.java.inputs;
 
 import com.squareup.javapoet.TypeSpec;
+import graphql.language.AstPrinter;
 import graphql.language.InputObjectTypeDefinition;
 import graphql.language.ScalarTypeDefinition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import services.videa.graphql.java.FileCreator;
+import services.videa.graphql.java.GenerationTask;
 import services.videa.graphql.java.GeneratorInterface;
 
 import javax.swing.*;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 
 /**
@@ -37,9 +41,15 @@ public class InputGenerator implements GeneratorInterface {
 
     public InputGenerator(Map<String, InputObjectTypeDefinition> inputs, Map<String, ScalarTypeDefinition> scalars,
                           String generationFolder, String packageName) {
+        this(inputs, scalars, generationFolder, packageName, false);
+    }
+
+
+    public InputGenerator(Map<String, InputObjectTypeDefinition> inputs, Map<String, ScalarTypeDefinition> scalars,
+                          String generationFolder, String packageName, boolean immutable) {
         this.inputs = inputs;
         this.packageName = packageName;
-        inputMapper = new InputMapper(scalars, packageName);
+        inputMapper = new InputMapper(scalars, packageName, immutable);
         fileCreator = fileCreator(generationFolder, packageName);
     }
 
@@ -59,11 +69,13 @@ public class InputGenerator implements GeneratorInterface {
 
 
     /**
-     * Generate all input types
+     * Return a task for each input type
      */
     @Override
-    public void generate() {
-        inputs.forEach((key, value) -> generate(value));
+    public List<GenerationTask> tasks() {
+        return inputs.values().stream()
+                .map(value -> new GenerationTask(value.getName(), AstPrinter.printAst(value), () -> generate(value)))
+                .collect(Collectors.toList());
     }
 
 }
@@ -19,6 +19,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import services.videa.graphql.java.scalars.BasicScalarMapper;
 import services.videa.graphql.java.scalars.CustomScalarMapper;
+import services.videa.graphql.java.types.TypeMapper;
 
 import javax.lang.model.element.Modifier;
 import java.util.List;
@@ -34,10 +35,16 @@ public class InputMapper {
 
     private CustomScalarMapper customScalarMapper;
     private String packageName;
+    private boolean immutable;
 
     public InputMapper(Map<String, ScalarTypeDefinition> scalars, String packageName) {
+        this(scalars, packageName, false);
+    }
+
+    public InputMapper(Map<String, ScalarTypeDefinition> scalars, String packageName, boolean immutable) {
         customScalarMapper = new CustomScalarMapper(scalars);
         this.packageName = packageName;
+        this.immutable = immutable;
     }
 
 
@@ -48,10 +55,12 @@ public class InputMapper {
                 .map(this::convert)
                 .collect(Collectors.toList());
 
-        TypeSpec.Builder typeSpecBuilder = TypeSpec.classBuilder(inputObjectTypeDefinition.getName())
-                .addAnnotation(Data.class)
-                .addModifiers(Modifier.PUBLIC)
-                .addFields(fieldSpecs);
+        TypeSpec.Builder typeSpecBuilder = immutable
+                ? TypeMapper.immutableClassBuilder(inputObjectTypeDefinition.getName(), fieldSpecs)
+                : TypeSpec.classBuilder(inputObjectTypeDefinition.getName())
+                        .addAnnotation(Data.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .addFields(fieldSpecs);
 
         if(inputObjectTypeDefinition.getDescription() != null) {
             typeSpecBuilder.addJavadoc(inputObjectTypeDefinition.getDescription().getContent());
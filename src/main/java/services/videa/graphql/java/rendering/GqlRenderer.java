@@ -13,6 +13,8 @@ package services.videa.graphql.java.rendering;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 
 /**
@@ -20,65 +22,54 @@ import java.lang.reflect.Type;
  */
 public class GqlRenderer {
 
+    private static final String INPUT_ARGUMENT = "input";
+
+    private static final ClassValue<InputRenderer> INPUT_RENDERERS = new ClassValue<InputRenderer>() {
+        @Override
+        protected InputRenderer computeValue(Class<?> type) {
+            return new InputRenderer(type);
+        }
+    };
+
+
     /**
-     * Render input fields with assigned values and return this string to be used in query / mutation.
+     * Render input fields with assigned values and return this string to be used in query / mutation. The
+     * input is rendered as argument named 'input', which is the convention for Relay mutations.
      *
      * @param input Input object as Java class that is genereted from GraphQL schema.
      * @return Input string with assigned values.
      */
     public static String renderInputFields(Object input)  {
-        String objectName = "";
-        if (input != null) {
-            String methodName = new Exception().getStackTrace()[0].getMethodName();
-
-            try {
-                objectName = GqlRenderer.class.getMethod(methodName, Object.class).getParameters()[0].getName();
-                objectName += ": { " + inputJson(input) + " } ";
-
-            } catch(NoSuchMethodException e) {
-                throw new IllegalArgumentException((e));
-            } catch(IllegalAccessException e) {
-                throw new IllegalStateException(e);
-            }
+        return renderInputFields(INPUT_ARGUMENT, input);
+    }
+
+
+    /**
+     * Render input fields with assigned values as argument with the given name.
+     *
+     * @param name Argument name
+     * @param input Input object as Java class that is genereted from GraphQL schema.
+     * @return Input string with assigned values, empty if input is null.
+     */
+    public static String renderInputFields(String name, Object input)  {
+        if (input == null) {
+            return "";
         }
 
-        return objectName;
+        StringBuilder buffer = new StringBuilder(name).append(": { ");
+        inputRenderer(input.getClass()).render(input, buffer);
+        return buffer.append(" } ").toString();
     }
 
 
     /**
-     * Internal convenient method to render a JSON string for input fields. This is used in
-     * renderInputFields method.
+     * Return the renderer for an input class, which is built once per class.
      *
-     * @param input Innput object to render
-     * @return
-     * @throws IllegalAccessException
+     * @param inputClass Input class
+     * @return Cached renderer
      */
-    private static String inputJson(Object input) throws IllegalAccessException {
-        StringBuilder inputJson = new StringBuilder();
-
-        for (Field field : input.getClass().getDeclaredFields()) {
-            field.setAccessible(true);
-            String fieldClassName = field.getType().getName();
-            Object value = field.get(input);
-
-            if (value != null) {
-                if (fieldClassName.startsWith("java.lang")
-                        || fieldClassName.startsWith("java.math")
-                        || fieldClassName.startsWith("java.util")) {
-
-                    String quotes = value.getClass().getName().equals("java.lang.String") ? "\"" : "";
-                    inputJson.append(field.getName()).append(": ").append(quotes).append(value).append(quotes)
-                            .append(" ");
-
-                } else {
-                    inputJson.append(field.getName()).append(": ").append(" { ");
-                    String fieldJson = inputJson(value);
-                    inputJson.append(fieldJson).append(" } ");
-                }
-            }
-        }
-        return inputJson.toString();
+    static InputRenderer inputRenderer(Class<?> inputClass) {
+        return INPUT_RENDERERS.get(inputClass);
     }
 
 
@@ -89,25 +80,45 @@ public class GqlRenderer {
      * @return Rendered field string to paste into GraphQL query / mutation.
      */
     public static String renderReturnFields(Class aClass) {
+        return renderReturnFields(aClass, 0);
+    }
+
+
+    /**
+     * Render the return fields of a given class down to a maximum depth. Fields of a class which is already being
+     * rendered are skipped, so self-referential classes do not recurse endlessly.
+     *
+     * @param aClass Class for which field string is to be rendered.
+     * @param maxDepth Maximum number of nested selection sets, 0 for no limit
+     * @return Rendered field string to paste into GraphQL query / mutation.
+     */
+    public static String renderReturnFields(Class aClass, int maxDepth) {
+        return renderReturnFields(aClass, new ArrayDeque<>(), maxDepth);
+    }
+
+
+    private static String renderReturnFields(Class aClass, Deque<Class> path, int maxDepth) {
         StringBuilder fieldBuilder = new StringBuilder();
+        path.push(aClass);
+        boolean nested = maxDepth <= 0 || path.size() < maxDepth;
 
         Field[] fields = aClass.getDeclaredFields();
         for (Field field : fields) {
 
             if ("java.util.List".equals(field.getType().getName())) {
                 field.setAccessible(true);
-                fieldBuilder.append(field.getName());
 
                 Type genericType = field.getGenericType();
                 if (genericType instanceof ParameterizedType) {
                     String typeName = ((ParameterizedType) genericType).getActualTypeArguments()[0].getTypeName();
-                    if(!isBasicType(typeName)) {
-                        fieldBuilder.append(" { ");
-                    }
                     Class clazz = classForName(typeName);
-                    fieldBuilder.append(renderReturnFields(clazz)).append(" ");
-
-                    if(!isBasicType(typeName)) {
+                    if (isBasicType(typeName)) {
+                        fieldBuilder.append(field.getName());
+                        fieldBuilder.append(renderReturnFields(clazz, path, maxDepth)).append(" ");
+                    } else if (nested && !path.contains(clazz)) {
+                        fieldBuilder.append(field.getName());
+                        fieldBuilder.append(" { ");
+                        fieldBuilder.append(renderReturnFields(clazz, path, maxDepth)).append(" ");
                         fieldBuilder.append(" } ");
                     }
                 }
@@ -115,14 +126,16 @@ public class GqlRenderer {
             } else if (isBasicType(field.getType().getName())) {
                 fieldBuilder.append(field.getName()).append(" ");
 
-            } else if(field.getType().getName().startsWith(aClass.getPackage().getName())) {
+            } else if(field.getType().getName().startsWith(aClass.getPackage().getName())
+                    && nested && !path.contains(field.getType())) {
                 fieldBuilder.append(field.getName()).append(" ");
                 fieldBuilder.append(" { ");
-                fieldBuilder.append(renderReturnFields(field.getType()));
+                fieldBuilder.append(renderReturnFields(field.getType(), path, maxDepth));
                 fieldBuilder.append(" } ");
 
             }
         }
+        path.pop();
 
         return fieldBuilder.toString();
     }
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.rendering;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+
+/**
+ * Renderer for the fields of one input class. All getters are looked up once when the renderer is built, so
+ * rendering an input object is a plain sequence of getter calls appending into the given buffer. Instances are
+ * cached per class by {@link GqlRenderer}.
+ */
+class InputRenderer {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final String[] names;
+    private final boolean[] basics;
+    private final MethodHandle[] getters;
+
+
+    InputRenderer(Class<?> inputClass) {
+        List<Field> fields = new ArrayList<>();
+        List<MethodHandle> getterList = new ArrayList<>();
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (Field field : inputClass.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                continue;
+            }
+            fields.add(field);
+            getterList.add(getter(lookup, inputClass, field).asType(GETTER_TYPE));
+        }
+
+        names = new String[fields.size()];
+        basics = new boolean[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            names[i] = fields.get(i).getName();
+            basics[i] = isBasicType(fields.get(i).getType());
+        }
+        getters = getterList.toArray(new MethodHandle[0]);
+    }
+
+
+    /**
+     * Append all non null fields of the input object.
+     *
+     * @param input Input object of the class this renderer was built for
+     * @param buffer Buffer to append to
+     */
+    void render(Object input, StringBuilder buffer) {
+        for (int i = 0; i < getters.length; i++) {
+            Object value = get(getters[i], input);
+            if (value != null) {
+                buffer.append(names[i]).append(": ");
+                if (basics[i]) {
+                    renderValue(value, buffer);
+                    buffer.append(" ");
+                } else {
+                    buffer.append(" { ");
+                    GqlRenderer.inputRenderer(value.getClass()).render(value, buffer);
+                    buffer.append(" } ");
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Append a single value. Strings are quoted, enums are rendered by name and collections as lists.
+     */
+    private static void renderValue(Object value, StringBuilder buffer) {
+        if (value instanceof String) {
+            buffer.append('"');
+            escape((String) value, buffer);
+            buffer.append('"');
+
+        } else if (value instanceof Enum) {
+            buffer.append(((Enum<?>) value).name());
+
+        } else if (value instanceof Collection) {
+            buffer.append("[");
+            String separator = "";
+            for (Object element : (Collection<?>) value) {
+                buffer.append(separator);
+                if (element == null) {
+                    buffer.append("null");
+                } else if (isBasicType(element.getClass())) {
+                    renderValue(element, buffer);
+                } else {
+                    buffer.append("{ ");
+                    GqlRenderer.inputRenderer(element.getClass()).render(element, buffer);
+                    buffer.append("}");
+                }
+                separator = ", ";
+            }
+            buffer.append("]");
+
+        } else {
+            buffer.append(value);
+        }
+    }
+
+
+    /**
+     * Check if values of a type are rendered in place, which is true for types of the Java Class Library and
+     * for enums. All other types are rendered as nested input objects.
+     */
+    private static boolean isBasicType(Class<?> type) {
+        String className = type.getName();
+        return type.isPrimitive()
+                || className.startsWith("java.lang")
+                || className.startsWith("java.math")
+                || className.startsWith("java.util")
+                || Collection.class.isAssignableFrom(type)
+                || Enum.class.isAssignableFrom(type);
+    }
+
+
+    /**
+     * Escape a string value as GraphQL string literal, control characters as escape sequences as the spec requires.
+     */
+    private static void escape(String value, StringBuilder buffer) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                case '\\':
+                    buffer.append('\\').append(c);
+                    break;
+                case '\n':
+                    buffer.append("\\n");
+                    break;
+                case '\r':
+                    buffer.append("\\r");
+                    break;
+                case '\t':
+                    buffer.append("\\t");
+                    break;
+                case '\b':
+                    buffer.append("\\b");
+                    break;
+                case '\f':
+                    buffer.append("\\f");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        buffer.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        buffer.append(c);
+                    }
+            }
+        }
+    }
+
+
+    private static Object get(MethodHandle getter, Object input) {
+        try {
+            return (Object) getter.invokeExact(input);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    /**
+     * Find a public getter for the field as generated by Lombok, fall back to the field itself.
+     */
+    private static MethodHandle getter(MethodHandles.Lookup lookup, Class<?> inputClass, Field field) {
+        String suffix = Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+        try {
+            for (String prefix : new String[]{"get", "is"}) {
+                try {
+                    Method method = inputClass.getMethod(prefix + suffix);
+                    if (method.getReturnType() == field.getType()) {
+                        return lookup.unreflect(method);
+                    }
+                } catch (NoSuchMethodException | IllegalAccessException e) {
+                    // try next prefix or field access
+                }
+            }
+            field.setAccessible(true);
+            return lookup.unreflectGetter(field);
+
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.rendering;
+
+import graphql.language.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * This renderer generates the selection set of a GraphQL type from the parsed schema. In contrast to
+ * {@link GqlRenderer#renderReturnFields(Class)} it works at generation time, so the generated endpoints can keep
+ * the rendered selection set as a constant and do not need any reflection at runtime.
+ */
+public class SelectionSetRenderer {
+    private static Logger logger = LoggerFactory.getLogger(SelectionSetRenderer.class);
+
+    private Map<String, TypeDefinition> types;
+    private int maxDepth;
+
+
+    public SelectionSetRenderer(Map<String, TypeDefinition> types) {
+        this(types, 0);
+    }
+
+
+    /**
+     * @param types All types of the schema
+     * @param maxDepth Maximum number of nested selection sets, fields of object and interface types below are
+     *                 skipped; 0 for no limit
+     */
+    public SelectionSetRenderer(Map<String, TypeDefinition> types, int maxDepth) {
+        this.types = types;
+        this.maxDepth = maxDepth;
+    }
+
+
+    /**
+     * Render the selection set for all fields of the given type, recursing into object and interface types.
+     * Scalars and enums are selected by name. Fields pointing back to a type which is already being rendered
+     * are skipped, as well as fields that require arguments and composite fields below the maximum depth.
+     *
+     * @param typeName Name of the GraphQL type to select
+     * @return Selection set without the enclosing braces, empty if the type has no selectable fields.
+     */
+    public String render(String typeName) {
+        return render(typeName, false);
+    }
+
+
+    /**
+     * Render the selection set of the given type, optionally selecting '__typename' of every object and interface,
+     * which identifies entities in a normalized cache.
+     *
+     * @param typeName Name of the GraphQL type to select
+     * @param typename Select '__typename' in each selection set
+     * @return Selection set without the enclosing braces, empty if the type has no selectable fields.
+     */
+    public String render(String typeName, boolean typename) {
+        String selectionSet = render(typeName, new ArrayDeque<>(), typename);
+        logger.debug("typeName: {}, selectionSet: {}", typeName, selectionSet);
+        return selectionSet;
+    }
+
+
+    private String render(String typeName, Deque<String> path, boolean typename) {
+        TypeDefinition typeDefinition = types.get(typeName);
+        if (typeDefinition instanceof UnionTypeDefinition) {
+            return "__typename ";
+        }
+
+        List<FieldDefinition> fieldDefinitions = fieldDefinitions(typeDefinition);
+        if (fieldDefinitions == null) {
+            return "";
+        }
+
+        path.push(typeName);
+        StringBuilder selectionSet = new StringBuilder(typename ? "__typename " : "");
+        for (FieldDefinition fieldDefinition : fieldDefinitions) {
+            if (hasRequiredArguments(fieldDefinition)) {
+                continue;
+            }
+
+            String fieldTypeName = unwrap(fieldDefinition.getType()).getName();
+            if (!isComposite(fieldTypeName)) {
+                selectionSet.append(fieldDefinition.getName()).append(" ");
+
+            } else if (!path.contains(fieldTypeName) && (maxDepth <= 0 || path.size() < maxDepth)) {
+                String fieldSelectionSet = render(fieldTypeName, path, typename);
+                if (!fieldSelectionSet.isEmpty()) {
+                    selectionSet.append(fieldDefinition.getName())
+                            .append(" { ").append(fieldSelectionSet).append("} ");
+                }
+            }
+        }
+        path.pop();
+
+        return selectionSet.toString();
+    }
+
+
+    /**
+     * Estimate the complexity of a rendered selection set as the number of selected fields, which grows with the
+     * size of the query and of its response.
+     *
+     * @param selectionSet Selection set as rendered by this renderer, with or without enclosing braces
+     * @return Number of selected fields
+     */
+    public static int complexity(String selectionSet) {
+        int fields = 0;
+        for (String token : selectionSet.trim().split("\\s+")) {
+            if (!token.isEmpty() && !"{".equals(token) && !"}".equals(token)) {
+                fields++;
+            }
+        }
+        return fields;
+    }
+
+
+    /**
+     * Depth of a rendered selection set, which is the maximum number of nested braces.
+     *
+     * @param selectionSet Selection set as rendered by this renderer without enclosing braces
+     * @return Depth, 1 for scalar fields only and 0 for an empty selection set
+     */
+    public static int depth(String selectionSet) {
+        if (selectionSet.trim().isEmpty()) {
+            return 0;
+        }
+        int depth = 1;
+        int maxDepth = 1;
+        for (char c : selectionSet.toCharArray()) {
+            if (c == '{') {
+                maxDepth = Math.max(maxDepth, ++depth);
+            } else if (c == '}') {
+                depth--;
+            }
+        }
+        return maxDepth;
+    }
+
+
+    /**
+     * Return the field definitions of object and interface types, null for all other types.
+     *
+     * @param typeDefinition Type definition from schema, may be null for basic scalars
+     * @return Field definitions or null
+     */
+    private static List<FieldDefinition> fieldDefinitions(TypeDefinition typeDefinition) {
+        if (typeDefinition instanceof ObjectTypeDefinition) {
+            return ((ObjectTypeDefinition) typeDefinition).getFieldDefinitions();
+        }
+        if (typeDefinition instanceof InterfaceTypeDefinition) {
+            return ((InterfaceTypeDefinition) typeDefinition).getFieldDefinitions();
+        }
+        return null;
+    }
+
+
+    /**
+     * Check if a type needs a sub selection, which is true for object, interface and union types.
+     *
+     * @param typeName Name of the GraphQL type
+     * @return True, if the type has to be selected with braces.
+     */
+    private boolean isComposite(String typeName) {
+        TypeDefinition typeDefinition = types.get(typeName);
+        return typeDefinition instanceof ObjectTypeDefinition
+                || typeDefinition instanceof InterfaceTypeDefinition
+                || typeDefinition instanceof UnionTypeDefinition;
+    }
+
+
+    private static boolean hasRequiredArguments(FieldDefinition fieldDefinition) {
+        return fieldDefinition.getInputValueDefinitions().stream().anyMatch(inputValueDefinition ->
+                inputValueDefinition.getType() instanceof NonNullType
+                        && inputValueDefinition.getDefaultValue() == null);
+    }
+
+
+    /**
+     * Unwrap non null and list types down to the named type.
+     *
+     * @param type Type as declared in schema
+     * @return Innermost type name
+     */
+    public static TypeName unwrap(Type type) {
+        Type aType = type;
+        while (!(aType instanceof TypeName)) {
+            if (aType instanceof NonNullType) {
+                aType = ((NonNullType) aType).getType();
+            } else if (aType instanceof ListType) {
+                aType = ((ListType) aType).getType();
+            } else {
+                throw new IllegalStateException("Type '" + type + "' cannot be unwrapped.");
+            }
+        }
+        return (TypeName) aType;
+    }
+
+}
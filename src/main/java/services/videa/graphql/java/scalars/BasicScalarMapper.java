@@ -20,6 +20,11 @@ public class BasicScalarMapper {
     private static final String PACKAGE_LANG = "java.lang";
     private static final String PACKAGE_MATH = "java.math";
 
+    /**
+     * Name of the scalar identifying objects, e.g. as key of cached entities.
+     */
+    public static final String ID = "ID";
+
 
     /**
      * Convert a scalar type represented as string to a class name type in JavaPoet.
@@ -41,7 +46,7 @@ public class BasicScalarMapper {
             case "Boolean":
                 className = ClassName.get(PACKAGE_LANG, "Boolean");
                 break;
-            case "ID":
+            case ID:
             case "String":
                 className = ClassName.get(PACKAGE_LANG, "String");
                 break;
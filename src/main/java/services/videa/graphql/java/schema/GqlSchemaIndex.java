@@ -0,0 +1,168 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.schema;
+
+import graphql.language.EnumTypeDefinition;
+import graphql.language.FieldDefinition;
+import graphql.language.InputObjectTypeDefinition;
+import graphql.language.InputValueDefinition;
+import graphql.language.InterfaceTypeDefinition;
+import graphql.language.ListType;
+import graphql.language.NonNullType;
+import graphql.language.ObjectTypeDefinition;
+import graphql.language.ScalarTypeDefinition;
+import graphql.language.Type;
+import graphql.language.TypeDefinition;
+import graphql.language.TypeName;
+import graphql.language.UnionTypeDefinition;
+import graphql.schema.idl.TypeDefinitionRegistry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Immutable index of a parsed schema, built in a single pass over all type definitions. It classifies the
+ * definitions by kind, resolves names in constant time and records which types use or implement a type.
+ */
+public class GqlSchemaIndex {
+
+    private final Map<String, TypeDefinition> definitions = new LinkedHashMap<>();
+    private final Map<String, TypeDefinition> types = new LinkedHashMap<>();
+    private final Map<String, ScalarTypeDefinition> scalars = new LinkedHashMap<>();
+    private final Map<String, ObjectTypeDefinition> objectTypes = new LinkedHashMap<>();
+    private final Map<String, InputObjectTypeDefinition> inputTypes = new LinkedHashMap<>();
+    private final Map<String, EnumTypeDefinition> enums = new LinkedHashMap<>();
+    private final Map<String, InterfaceTypeDefinition> interfaces = new LinkedHashMap<>();
+    private final Map<String, Set<String>> usages = new LinkedHashMap<>();
+    private final Map<String, List<ObjectTypeDefinition>> implementations = new LinkedHashMap<>();
+
+
+    public GqlSchemaIndex(TypeDefinitionRegistry typeRegistry) {
+        typeRegistry.scalars().forEach((name, scalar) -> {
+            scalars.put(name, scalar);
+            definitions.put(name, scalar);
+        });
+
+        typeRegistry.types().forEach((name, definition) -> {
+            types.put(name, definition);
+            definitions.put(name, definition);
+
+            if (definition instanceof ObjectTypeDefinition) {
+                ObjectTypeDefinition objectType = (ObjectTypeDefinition) definition;
+                objectTypes.put(name, objectType);
+                objectType.getImplements().forEach(element -> implementations
+                        .computeIfAbsent(((TypeName) element).getName(), key -> new ArrayList<>()).add(objectType));
+                objectType.getFieldDefinitions().forEach(field -> use(name, field));
+
+            } else if (definition instanceof InterfaceTypeDefinition) {
+                interfaces.put(name, (InterfaceTypeDefinition) definition);
+                ((InterfaceTypeDefinition) definition).getFieldDefinitions().forEach(field -> use(name, field));
+
+            } else if (definition instanceof InputObjectTypeDefinition) {
+                inputTypes.put(name, (InputObjectTypeDefinition) definition);
+                ((InputObjectTypeDefinition) definition).getInputValueDefinitions()
+                        .forEach(inputValue -> use(name, inputValue.getType()));
+
+            } else if (definition instanceof EnumTypeDefinition) {
+                enums.put(name, (EnumTypeDefinition) definition);
+
+            } else if (definition instanceof UnionTypeDefinition) {
+                ((UnionTypeDefinition) definition).getMemberTypes().forEach(member -> use(name, member));
+            }
+        });
+    }
+
+
+    private void use(String user, FieldDefinition fieldDefinition) {
+        use(user, fieldDefinition.getType());
+        for (InputValueDefinition argument : fieldDefinition.getInputValueDefinitions()) {
+            use(user, argument.getType());
+        }
+    }
+
+
+    private void use(String user, Type type) {
+        while (!(type instanceof TypeName)) {
+            type = type instanceof NonNullType ? ((NonNullType) type).getType() : ((ListType) type).getType();
+        }
+        usages.computeIfAbsent(((TypeName) type).getName(), key -> new LinkedHashSet<>()).add(user);
+    }
+
+
+    /**
+     * Look up any type definition including scalars by name.
+     *
+     * @param name GraphQL type name
+     * @return Type definition or null if not defined
+     */
+    public TypeDefinition findByName(String name) {
+        return definitions.get(name);
+    }
+
+
+    public Map<String, TypeDefinition> types() {
+        return Collections.unmodifiableMap(types);
+    }
+
+
+    public Map<String, ScalarTypeDefinition> scalars() {
+        return Collections.unmodifiableMap(scalars);
+    }
+
+
+    public Map<String, ObjectTypeDefinition> objectTypes() {
+        return Collections.unmodifiableMap(objectTypes);
+    }
+
+
+    public Map<String, InputObjectTypeDefinition> inputTypes() {
+        return Collections.unmodifiableMap(inputTypes);
+    }
+
+
+    public Map<String, EnumTypeDefinition> enums() {
+        return Collections.unmodifiableMap(enums);
+    }
+
+
+    public Map<String, InterfaceTypeDefinition> interfaces() {
+        return Collections.unmodifiableMap(interfaces);
+    }
+
+
+    /**
+     * Names of all types referencing the given type by a field, an argument, an input field or a union member.
+     *
+     * @param name GraphQL type name
+     * @return Names of using types in schema order, empty if unused
+     */
+    public Set<String> usages(String name) {
+        return Collections.unmodifiableSet(usages.getOrDefault(name, Collections.emptySet()));
+    }
+
+
+    /**
+     * Object types implementing the given interface.
+     *
+     * @param name GraphQL interface name
+     * @return Implementing object types in schema order, empty if none
+     */
+    public List<ObjectTypeDefinition> implementations(String name) {
+        return Collections.unmodifiableList(implementations.getOrDefault(name, Collections.emptyList()));
+    }
+
+}
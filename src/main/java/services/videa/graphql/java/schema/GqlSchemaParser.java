@@ -17,8 +17,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 
 /**
@@ -28,11 +33,7 @@ public class GqlSchemaParser {
     private static Logger logger = LoggerFactory.getLogger(GqlSchemaParser.class);
 
     private TypeDefinitionRegistry typeRegistry;
-
-    private Map<String, ObjectTypeDefinition> objectTypes;
-    private Map<String, InputObjectTypeDefinition> inputTypes;
-    private Map<String, EnumTypeDefinition> enums;
-    private Map<String, InterfaceTypeDefinition> interfaces;
+    private GqlSchemaIndex index;
 
     public GqlSchemaParser(File gqlSchema) {
         logger.debug("gqlSchema: {}", gqlSchema);
@@ -40,6 +41,7 @@ public class GqlSchemaParser {
         SchemaParser schemaParser = new SchemaParser();
         typeRegistry = schemaParser.parse(gqlSchema);
         logger.debug("typeRegistry: {}", typeRegistry);
+        index = new GqlSchemaIndex(typeRegistry);
     }
 
     public GqlSchemaParser(String schemaContent) {
@@ -53,8 +55,58 @@ public class GqlSchemaParser {
         typeRegistry = schemaParser.parse(schemaContent);
 
         logger.debug("typeRegistry: {}", typeRegistry);
+        index = new GqlSchemaIndex(typeRegistry);
     }
 
+    /**
+     * Parse a schema by feeding the reader straight into the GraphQL parser without copying its content into a
+     * string first.
+     *
+     * @param schemaReader Reader of GraphQL schema content in IDL
+     */
+    public GqlSchemaParser(Reader schemaReader) {
+        if(schemaReader == null) {
+            throw new IllegalArgumentException(this.getClass().getSimpleName()
+                    + " schemaReader is null but must be defined");
+        }
+
+        SchemaParser schemaParser = new SchemaParser();
+        typeRegistry = schemaParser.parse(schemaReader);
+
+        logger.debug("typeRegistry: {}", typeRegistry);
+        index = new GqlSchemaIndex(typeRegistry);
+    }
+
+
+    /**
+     * Parse multiple schema files in parallel and merge them in the given order into one type registry.
+     * Files are read as UTF-8 as required by the GraphQL specification.
+     *
+     * @param gqlSchemas Schema files, each containing a part of the schema
+     */
+    public GqlSchemaParser(List<File> gqlSchemas) {
+        logger.debug("gqlSchemas: {}", gqlSchemas);
+
+        List<TypeDefinitionRegistry> typeRegistries = gqlSchemas.parallelStream()
+                .map(GqlSchemaParser::parse)
+                .collect(Collectors.toList());
+
+        typeRegistry = new TypeDefinitionRegistry();
+        typeRegistries.forEach(typeRegistry::merge);
+        logger.debug("typeRegistry: {}", typeRegistry);
+        index = new GqlSchemaIndex(typeRegistry);
+    }
+
+
+    private static TypeDefinitionRegistry parse(File gqlSchema) {
+        try (Reader reader = Files.newBufferedReader(gqlSchema.toPath(), StandardCharsets.UTF_8)) {
+            return new SchemaParser().parse(reader);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Schema file not readable: " + gqlSchema, e);
+        }
+    }
+
+
     /**
      * Search for a type definition with given name and return if existent.
      * Return null otherwise.
@@ -63,26 +115,21 @@ public class GqlSchemaParser {
      * @return TypeDefinition derived from type name.
      */
     public TypeDefinition findByName(String name) {
-        if(this.scalars().containsKey(name)) {
-            return this.scalars().get(name);
-        }
-        if(this.objectTypes().containsKey(name)) {
-            return this.objectTypes().get(name);
-        }
-        if(this.inputTypes().containsKey(name)) {
-            return this.inputTypes().get(name);
-        }
-        if(this.enums().containsKey(name)) {
-            return this.enums().get(name);
-        }
-        if(this.interfaces().containsKey(name)) {
-            return this.interfaces().get(name);
-        }
-        return null;
+        return index.findByName(name);
+    }
+
+
+    /**
+     * Return the index of all type definitions, shared by all generators of this schema.
+     *
+     * @return Schema index
+     */
+    public GqlSchemaIndex index() {
+        return index;
     }
 
     public Map<String, ScalarTypeDefinition> scalars() {
-        return typeRegistry.scalars();
+        return index.scalars();
     }
 
     /**
@@ -91,20 +138,11 @@ public class GqlSchemaParser {
      * @return Java types derived from schema.
      */
     public Map<String, TypeDefinition> types() {
-        return typeRegistry.types();
+        return index.types();
     }
 
     public Map<String, ObjectTypeDefinition> objectTypes() {
-        if (this.objectTypes == null) {
-            this.objectTypes = new HashMap<>();
-
-            this.typeRegistry.types().entrySet().forEach(entry -> {
-                if (entry.getValue() instanceof ObjectTypeDefinition) {
-                    this.objectTypes.put(entry.getKey(), (ObjectTypeDefinition) entry.getValue());
-                }
-            });
-        }
-        return this.objectTypes;
+        return index.objectTypes();
     }
 
 
@@ -114,16 +152,7 @@ public class GqlSchemaParser {
      * @return Input types from schema
      */
     public Map<String, InputObjectTypeDefinition> inputTypes() {
-        if (this.inputTypes == null) {
-            this.inputTypes = new HashMap<>();
-
-            this.typeRegistry.types().entrySet().forEach(entry -> {
-                if (entry.getValue() instanceof InputObjectTypeDefinition) {
-                    this.inputTypes.put(entry.getKey(), (InputObjectTypeDefinition) entry.getValue());
-                }
-            });
-        }
-        return this.inputTypes;
+        return index.inputTypes();
     }
 
 
@@ -133,16 +162,7 @@ public class GqlSchemaParser {
      * @return Enum types derived from schema.
      */
     public Map<String, EnumTypeDefinition> enums() {
-        if (this.enums == null) {
-            this.enums = new HashMap<>();
-
-            this.typeRegistry.types().entrySet().forEach(entry -> {
-                if (entry.getValue() instanceof EnumTypeDefinition) {
-                    this.enums.put(entry.getKey(), (EnumTypeDefinition) entry.getValue());
-                }
-            });
-        }
-        return this.enums;
+        return index.enums();
     }
 
 
@@ -152,16 +172,7 @@ public class GqlSchemaParser {
      * @return Interfaces derived from schema.
      */
     public Map<String, InterfaceTypeDefinition> interfaces() {
-        if (this.interfaces == null) {
-            this.interfaces = new HashMap<>();
-
-            this.typeRegistry.types().entrySet().forEach(entry -> {
-                if (entry.getValue() instanceof InterfaceTypeDefinition) {
-                    this.interfaces.put(entry.getKey(), (InterfaceTypeDefinition) entry.getValue());
-                }
-            });
-        }
-        return this.interfaces;
+        return index.interfaces();
     }
 
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.selections;
+
+import com.squareup.javapoet.TypeSpec;
+import graphql.language.AstPrinter;
+import graphql.language.TypeDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import services.videa.graphql.java.FileCreator;
+import services.videa.graphql.java.GenerationTask;
+import services.videa.graphql.java.GeneratorInterface;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+
+/**
+ * Selection generator to create a type-safe selection class for every GraphQL object and interface type except
+ * Query and Mutation. Endpoint methods accepting a selection request only the selected fields.
+ */
+public class SelectionGenerator implements GeneratorInterface {
+    private static Logger logger = LoggerFactory.getLogger(SelectionGenerator.class);
+
+    private Map<String, TypeDefinition> types;
+    private SelectionMapper selectionMapper;
+
+    private String packageName;
+    private FileCreator fileCreator;
+
+
+    public SelectionGenerator(Map<String, TypeDefinition> types, String generationFolder, String packageName) {
+        this.types = types;
+        selectionMapper = new SelectionMapper(types);
+        this.packageName = packageName;
+        fileCreator = fileCreator(generationFolder, packageName);
+    }
+
+
+    /**
+     * Generate the selection class of a single type to the generation folder.
+     *
+     * @param typeDefinition Object or interface type definition
+     */
+    public void generate(TypeDefinition typeDefinition) {
+        logger.debug("typeDefinition: {}", typeDefinition);
+
+        TypeSpec typeSpec = selectionMapper.convert(typeDefinition, packageName);
+
+        fileCreator.write(typeSpec);
+    }
+
+
+    /**
+     * Return one task per object and interface type. The definition includes the kinds of all types, as a field
+     * takes a sub selection depending on the kind of its type.
+     */
+    @Override
+    public List<GenerationTask> tasks() {
+        String kinds = types.values().stream()
+                .filter(SelectionMapper::isSelectable)
+                .map(TypeDefinition::getName)
+                .sorted()
+                .collect(Collectors.joining(" "));
+        return types.values().stream()
+                .filter(SelectionMapper::isSelectable)
+                .filter(value -> !("Query".equals(value.getName()) || "Mutation".equals(value.getName())))
+                .map(value -> new GenerationTask(SelectionMapper.selectionName(value.getName()),
+                        AstPrinter.printAst(value) + LINE_SEPARATOR + kinds, () -> generate(value)))
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.selections;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+import graphql.language.FieldDefinition;
+import graphql.language.InterfaceTypeDefinition;
+import graphql.language.NonNullType;
+import graphql.language.ObjectTypeDefinition;
+import graphql.language.TypeDefinition;
+import graphql.language.UnionTypeDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import services.videa.graphql.java.GeneratorInterface;
+import services.videa.graphql.java.client.GqlSelection;
+import services.videa.graphql.java.rendering.SelectionSetRenderer;
+
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Modifier;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+
+/**
+ * Mapper to convert object and interface types from schema to selection classes. Every field becomes a method
+ * selecting it; fields of object and interface types take a consumer selecting their sub fields.
+ */
+public class SelectionMapper {
+    private static Logger logger = LoggerFactory.getLogger(SelectionMapper.class);
+
+    public static final String SUFFIX = "Selection";
+
+    private static final Set<String> RESERVED = new HashSet<>(Arrays.asList("select", "render", "isEmpty",
+            "toString", "hashCode", "getClass", "notify", "notifyAll", "wait", "clone", "finalize"));
+
+    private Map<String, TypeDefinition> types;
+
+
+    public SelectionMapper(Map<String, TypeDefinition> types) {
+        this.types = types;
+    }
+
+
+    /**
+     * Name of the selection class of a type.
+     *
+     * @param typeName Name of the GraphQL type
+     * @return Simple class name, e.g. 'UserSelection' for 'User'
+     */
+    public static String selectionName(String typeName) {
+        return typeName + SUFFIX;
+    }
+
+
+    /**
+     * Check whether a selection class is generated for a type, which is true for object and interface types.
+     *
+     * @param typeDefinition Type definition from schema, may be null for basic scalars
+     * @return True if the type has a selection class
+     */
+    public static boolean isSelectable(TypeDefinition typeDefinition) {
+        return typeDefinition instanceof ObjectTypeDefinition || typeDefinition instanceof InterfaceTypeDefinition;
+    }
+
+
+    /**
+     * Convert an object or interface type definition to the specification of its selection class.
+     *
+     * @param typeDefinition Object or interface type definition read from schema
+     * @param packageName Package name where to put generated classes
+     * @return Type specification
+     */
+    public TypeSpec convert(TypeDefinition typeDefinition, String packageName) {
+        logger.debug("typeDefinition: {}", typeDefinition);
+
+        ClassName selectionClass = ClassName.get(packageName, selectionName(typeDefinition.getName()));
+        TypeSpec.Builder typeSpecBuilder = TypeSpec.classBuilder(selectionClass)
+                .addJavadoc("Selection of fields of '" + typeDefinition.getName() + "'." + GeneratorInterface.LINE_SEPARATOR)
+                .addModifiers(Modifier.PUBLIC)
+                .superclass(GqlSelection.class)
+                .addMethod(MethodSpec.methodBuilder("select")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .returns(selectionClass)
+                        .addStatement("return new $T()", selectionClass)
+                        .build());
+
+        fieldDefinitions(typeDefinition).stream()
+                .filter(fieldDefinition -> fieldDefinition.getInputValueDefinitions().stream().noneMatch(argument ->
+                        argument.getType() instanceof NonNullType && argument.getDefaultValue() == null))
+                .forEach(fieldDefinition -> typeSpecBuilder.addMethod(convert(fieldDefinition, selectionClass,
+                        packageName)));
+
+        return typeSpecBuilder.build();
+    }
+
+
+    private MethodSpec convert(FieldDefinition fieldDefinition, ClassName selectionClass, String packageName) {
+        String name = fieldDefinition.getName();
+        TypeDefinition fieldType = types.get(SelectionSetRenderer.unwrap(fieldDefinition.getType()).getName());
+
+        MethodSpec.Builder methodSpecBuilder = MethodSpec.methodBuilder(methodName(name))
+                .addModifiers(Modifier.PUBLIC)
+                .returns(selectionClass);
+        if (fieldDefinition.getDescription() != null) {
+            methodSpecBuilder.addJavadoc(fieldDefinition.getDescription().getContent() + GeneratorInterface.LINE_SEPARATOR);
+        }
+
+        if (isSelectable(fieldType)) {
+            ClassName fieldSelectionClass = ClassName.get(packageName, selectionName(fieldType.getName()));
+            methodSpecBuilder.addParameter(ParameterizedTypeName.get(ClassName.get(Consumer.class),
+                    WildcardTypeName.supertypeOf(fieldSelectionClass)), "selection")
+                    .addStatement("field($S, new $T(), selection)", name, fieldSelectionClass);
+        } else if (fieldType instanceof UnionTypeDefinition) {
+            methodSpecBuilder.addStatement("field($S)", name + " { __typename }");
+        } else {
+            methodSpecBuilder.addStatement("field($S)", name);
+        }
+
+        return methodSpecBuilder.addStatement("return this").build();
+    }
+
+
+    /**
+     * Method name of a field, suffixed with an underscore if it is a Java keyword or clashes with a method of
+     * {@link GqlSelection}.
+     *
+     * @param fieldName Name of the field in schema
+     * @return Java method name
+     */
+    static String methodName(String fieldName) {
+        return SourceVersion.isKeyword(fieldName) || RESERVED.contains(fieldName) ? fieldName + "_" : fieldName;
+    }
+
+
+    private static List<FieldDefinition> fieldDefinitions(TypeDefinition typeDefinition) {
+        if (typeDefinition instanceof ObjectTypeDefinition) {
+            return ((ObjectTypeDefinition) typeDefinition).getFieldDefinitions();
+        }
+        return ((InterfaceTypeDefinition) typeDefinition).getFieldDefinitions();
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.serializers;
+
+import graphql.language.AstPrinter;
+import graphql.language.InputObjectTypeDefinition;
+import graphql.language.ObjectTypeDefinition;
+import graphql.language.ScalarTypeDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import services.videa.graphql.java.FileCreator;
+import services.videa.graphql.java.GenerationTask;
+import services.videa.graphql.java.GeneratorInterface;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+
+/**
+ * Serializer generator to create a streaming Jackson deserializer for every GraphQL type except Query and
+ * Mutation, a serializer for every input type and a module registering all of them with an object mapper.
+ */
+public class SerializerGenerator implements GeneratorInterface {
+    private static Logger logger = LoggerFactory.getLogger(SerializerGenerator.class);
+
+    private List<ObjectTypeDefinition> types;
+    private List<InputObjectTypeDefinition> inputs;
+    private SerializerMapper serializerMapper;
+    private FileCreator fileCreator;
+
+
+    public SerializerGenerator(Map<String, ObjectTypeDefinition> types,
+                               Map<String, InputObjectTypeDefinition> inputs,
+                               Map<String, ScalarTypeDefinition> scalars,
+                               String generationFolder, String packageName) {
+        this(types, inputs, scalars, generationFolder, packageName, false);
+    }
+
+
+    public SerializerGenerator(Map<String, ObjectTypeDefinition> types,
+                               Map<String, InputObjectTypeDefinition> inputs,
+                               Map<String, ScalarTypeDefinition> scalars,
+                               String generationFolder, String packageName, boolean immutable) {
+        this.types = new TreeMap<>(types).values().stream()
+                .filter(value -> !("Query".equals(value.getName()) || "Mutation".equals(value.getName())))
+                .collect(Collectors.toList());
+        this.inputs = new ArrayList<>(new TreeMap<>(inputs).values());
+        serializerMapper = new SerializerMapper(scalars, packageName, immutable);
+        fileCreator = fileCreator(generationFolder, packageName);
+    }
+
+
+    /**
+     * Return one task per deserializer and serializer, and one task for the module depending on the names of all
+     * types and input types.
+     */
+    @Override
+    public List<GenerationTask> tasks() {
+        List<GenerationTask> tasks = new ArrayList<>();
+        types.forEach(type -> tasks.add(new GenerationTask(SerializerMapper.deserializerName(type.getName()),
+                AstPrinter.printAst(type), () -> fileCreator.write(serializerMapper.convert(type)))));
+        inputs.forEach(input -> tasks.add(new GenerationTask(SerializerMapper.serializerName(input.getName()),
+                AstPrinter.printAst(input), () -> fileCreator.write(serializerMapper.convert(input)))));
+
+        String names = types.stream().map(ObjectTypeDefinition::getName).collect(Collectors.joining(" "))
+                + LINE_SEPARATOR
+                + inputs.stream().map(InputObjectTypeDefinition::getName).collect(Collectors.joining(" "));
+        tasks.add(new GenerationTask(SerializerMapper.MODULE_NAME, names, () -> {
+            logger.debug("Module of {} types and {} input types", types.size(), inputs.size());
+            fileCreator.write(serializerMapper.convert(types, inputs));
+        }));
+        return tasks;
+    }
+
+}
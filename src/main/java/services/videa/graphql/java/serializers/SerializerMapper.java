@@ -0,0 +1,366 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.serializers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.NameAllocator;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.TypeVariableName;
+import graphql.language.FieldDefinition;
+import graphql.language.InputObjectTypeDefinition;
+import graphql.language.InputValueDefinition;
+import graphql.language.ObjectTypeDefinition;
+import graphql.language.ScalarTypeDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import services.videa.graphql.java.GeneratorInterface;
+import services.videa.graphql.java.inputs.InputMapper;
+import services.videa.graphql.java.scalars.BasicScalarMapper;
+import services.videa.graphql.java.scalars.CustomScalarMapper;
+import services.videa.graphql.java.types.TypeMapper;
+
+import javax.lang.model.element.Modifier;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Mapper to convert types from schema to streaming Jackson deserializers, input types to serializers, and all of
+ * them to one module registering them. Generated (de)serializers read and write the fields by name without any
+ * introspection of the generated classes.
+ */
+public class SerializerMapper {
+    private static Logger logger = LoggerFactory.getLogger(SerializerMapper.class);
+
+    public static final String MODULE_NAME = "SerializationModule";
+
+    private static final ClassName STRING = ClassName.get(String.class);
+    private static final String READ_SCALAR = "readScalar";
+    private static final Map<TypeName, String> PARSER_METHODS = new HashMap<>();
+    private static final Map<TypeName, CodeBlock> PARSER_TOKENS = new HashMap<>();
+
+    static {
+        PARSER_METHODS.put(STRING, "getText");
+        PARSER_METHODS.put(ClassName.get(Integer.class), "getIntValue");
+        PARSER_METHODS.put(ClassName.get(Long.class), "getLongValue");
+        PARSER_METHODS.put(ClassName.get(Float.class), "getFloatValue");
+        PARSER_METHODS.put(ClassName.get(Double.class), "getDoubleValue");
+        PARSER_METHODS.put(ClassName.get(Boolean.class), "getBooleanValue");
+
+        CodeBlock integral = CodeBlock.of("p.hasToken($T.VALUE_NUMBER_INT)", JsonToken.class);
+        PARSER_TOKENS.put(STRING, CodeBlock.of("p.hasToken($T.VALUE_STRING)", JsonToken.class));
+        PARSER_TOKENS.put(ClassName.get(Integer.class), integral);
+        PARSER_TOKENS.put(ClassName.get(Long.class), integral);
+        PARSER_TOKENS.put(ClassName.get(Float.class), CodeBlock.of("p.currentToken().isNumeric()"));
+        PARSER_TOKENS.put(ClassName.get(Double.class), CodeBlock.of("p.currentToken().isNumeric()"));
+        PARSER_TOKENS.put(ClassName.get(Boolean.class), CodeBlock.of("p.currentToken().isBoolean()"));
+    }
+
+    private TypeMapper typeMapper;
+    private CustomScalarMapper customScalarMapper;
+    private String packageName;
+    private boolean immutable;
+
+
+    public SerializerMapper(Map<String, ScalarTypeDefinition> scalars, String packageName) {
+        this(scalars, packageName, false);
+    }
+
+
+    public SerializerMapper(Map<String, ScalarTypeDefinition> scalars, String packageName, boolean immutable) {
+        typeMapper = new TypeMapper(scalars);
+        customScalarMapper = new CustomScalarMapper(scalars);
+        this.packageName = packageName;
+        this.immutable = immutable;
+    }
+
+
+    public static String deserializerName(String typeName) {
+        return typeName + "Deserializer";
+    }
+
+
+    public static String serializerName(String typeName) {
+        return typeName + "Serializer";
+    }
+
+
+    /**
+     * Convert a type definition to a deserializer. Strings, numbers and booleans are read from the parser directly
+     * if the token has the expected type, otherwise by the generated 'readScalar', which coerces like databinding.
+     * All other fields are read by the deserializer of their type, which is resolved once. Immutable types are
+     * created by their constructor from local variables after all fields are read.
+     *
+     * @param objectTypeDefinition Type definition read from schema
+     * @return Type specification of the deserializer
+     */
+    public TypeSpec convert(ObjectTypeDefinition objectTypeDefinition) {
+        logger.debug("objectTypeDefinition: {}", objectTypeDefinition);
+
+        ClassName type = ClassName.get(packageName, objectTypeDefinition.getName());
+        TypeSpec.Builder typeSpecBuilder = TypeSpec.classBuilder(deserializerName(objectTypeDefinition.getName()))
+                .addJavadoc("Streaming deserializer of '" + objectTypeDefinition.getName() + "'."
+                        + GeneratorInterface.LINE_SEPARATOR)
+                .addModifiers(Modifier.PUBLIC)
+                .superclass(ParameterizedTypeName.get(ClassName.get(StdDeserializer.class), type))
+                .addSuperinterface(ResolvableDeserializer.class)
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PUBLIC)
+                        .addStatement("super($T.class)", type)
+                        .build());
+
+        MethodSpec.Builder resolve = MethodSpec.methodBuilder("resolve")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(DeserializationContext.class, "ctxt")
+                .addException(JsonMappingException.class);
+
+        NameAllocator locals = new NameAllocator();
+        locals.newName("p");
+        locals.newName("ctxt");
+        locals.newName("token");
+        locals.newName("name");
+        CodeBlock.Builder declarations = CodeBlock.builder();
+        List<CodeBlock> arguments = new ArrayList<>();
+
+        boolean readsScalars = false;
+        CodeBlock.Builder fields = CodeBlock.builder();
+        for (FieldDefinition fieldDefinition : objectTypeDefinition.getFieldDefinitions()) {
+            String name = fieldDefinition.getName();
+            TypeName fieldType = typeMapper.typeName(fieldDefinition.getType(), packageName);
+            fields.add("case $S:\n", name).indent();
+
+            String assignment = "value." + setter(name) + "($L)";
+            if (immutable) {
+                String local = locals.newName(name);
+                declarations.addStatement("$T $N = null", fieldType, local);
+                arguments.add(CodeBlock.of("$N", local));
+                assignment = local + " = $L";
+            }
+
+            if (STRING.equals(fieldType)) {
+                readsScalars = true;
+                fields.addStatement(assignment, CodeBlock.of("$L ? p.$L() : $L(p, ctxt, $T.class)",
+                        PARSER_TOKENS.get(fieldType), PARSER_METHODS.get(fieldType), READ_SCALAR, fieldType));
+            } else if (PARSER_METHODS.containsKey(fieldType)) {
+                readsScalars = true;
+                fields.addStatement(assignment, CodeBlock.of("$L ? ($T) p.$L() : $L(p, ctxt, $T.class)",
+                        PARSER_TOKENS.get(fieldType), fieldType, PARSER_METHODS.get(fieldType), READ_SCALAR,
+                        fieldType));
+            } else {
+                String deserializer = name + "Deserializer";
+                typeSpecBuilder.addField(FieldSpec.builder(ParameterizedTypeName.get(
+                        ClassName.get(JsonDeserializer.class), ClassName.get(Object.class)), deserializer,
+                        Modifier.PRIVATE).build());
+                if (fieldType instanceof ParameterizedTypeName) {
+                    resolve.addStatement("$L = ctxt.findRootValueDeserializer(ctxt.getTypeFactory()"
+                                    + ".constructType(new $T<$T>() { }))", deserializer, TypeReference.class,
+                            fieldType);
+                } else {
+                    resolve.addStatement("$L = ctxt.findRootValueDeserializer(ctxt.constructType($T.class))",
+                            deserializer, fieldType);
+                }
+                fields.addStatement(assignment, CodeBlock.of(
+                        "p.currentToken() == $T.VALUE_NULL ? null : ($T) $L.deserialize(p, ctxt)",
+                        JsonToken.class, fieldType, deserializer));
+            }
+            fields.addStatement("break").unindent();
+        }
+        fields.add("default:\n").indent()
+                .addStatement("handleUnknownProperty(p, ctxt, $L, name)", immutable ? "handledType()" : "value")
+                .unindent();
+
+        MethodSpec.Builder deserialize = MethodSpec.methodBuilder("deserialize")
+                .addAnnotation(Override.class)
+                .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class).addMember("value", "$S", "unchecked")
+                        .build())
+                .addModifiers(Modifier.PUBLIC)
+                .returns(type)
+                .addParameter(JsonParser.class, "p")
+                .addParameter(DeserializationContext.class, "ctxt")
+                .addException(IOException.class)
+                .addStatement("$T token = p.currentToken()", JsonToken.class)
+                .beginControlFlow("if (token == $T.START_OBJECT)", JsonToken.class)
+                .addStatement("token = p.nextToken()")
+                .nextControlFlow("else if (token != $T.FIELD_NAME && token != $T.END_OBJECT)", JsonToken.class,
+                        JsonToken.class)
+                .addStatement("return ($T) ctxt.handleUnexpectedToken($T.class, p)", type, type)
+                .endControlFlow()
+                .addCode(immutable ? declarations.build() : CodeBlock.of("$T value = new $T();\n", type, type))
+                .beginControlFlow("for (; token == $T.FIELD_NAME; token = p.nextToken())", JsonToken.class)
+                .addStatement("String name = p.getCurrentName()")
+                .addStatement("p.nextToken()")
+                .beginControlFlow("switch (name)")
+                .addCode(fields.build())
+                .endControlFlow()
+                .endControlFlow();
+        if (immutable) {
+            deserialize.addStatement("return new $T($L)", type, CodeBlock.join(arguments, ", "));
+        } else {
+            deserialize.addStatement("return value");
+        }
+
+        typeSpecBuilder
+                .addMethod(resolve.build())
+                .addMethod(deserialize.build());
+        if (readsScalars) {
+            typeSpecBuilder.addMethod(readScalar());
+        }
+        return typeSpecBuilder.build();
+    }
+
+
+    /**
+     * Generate the method reading a scalar whose token is not of the expected type. Null stays null, strings and
+     * other scalars are coerced by the databinding deserializer of the type. Objects and arrays are skipped before
+     * they are reported, so the parser stays on the field's last token for problem handlers.
+     *
+     * @return Specification of 'readScalar'
+     */
+    private static MethodSpec readScalar() {
+        TypeVariableName t = TypeVariableName.get("T");
+        return MethodSpec.methodBuilder(READ_SCALAR)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addTypeVariable(t)
+                .returns(t)
+                .addParameter(JsonParser.class, "p")
+                .addParameter(DeserializationContext.class, "ctxt")
+                .addParameter(ParameterizedTypeName.get(ClassName.get(Class.class), t), "type")
+                .addException(IOException.class)
+                .addStatement("$T token = p.currentToken()", JsonToken.class)
+                .beginControlFlow("if (token == $T.VALUE_NULL)", JsonToken.class)
+                .addStatement("return null")
+                .endControlFlow()
+                .beginControlFlow("if (token.isStructStart())")
+                .addStatement("p.skipChildren()")
+                .addStatement("return type.cast(ctxt.handleUnexpectedToken(type, token, p, null))")
+                .endControlFlow()
+                .addStatement("return ctxt.readValue(p, type)")
+                .build();
+    }
+
+
+    /**
+     * Convert an input type definition to a serializer writing all fields in declaration order, including null
+     * values like the default bean serializer.
+     *
+     * @param inputObjectTypeDefinition Input type definition read from schema
+     * @return Type specification of the serializer
+     */
+    public TypeSpec convert(InputObjectTypeDefinition inputObjectTypeDefinition) {
+        logger.debug("inputObjectTypeDefinition: {}", inputObjectTypeDefinition);
+
+        ClassName type = ClassName.get(packageName, inputObjectTypeDefinition.getName());
+        MethodSpec.Builder serialize = MethodSpec.methodBuilder("serialize")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(type, "value")
+                .addParameter(JsonGenerator.class, "gen")
+                .addParameter(SerializerProvider.class, "provider")
+                .addException(IOException.class)
+                .addStatement("gen.writeStartObject()");
+
+        for (InputValueDefinition inputValueDefinition : inputObjectTypeDefinition.getInputValueDefinitions()) {
+            String name = inputValueDefinition.getName();
+            if (STRING.equals(inputTypeName(inputValueDefinition))) {
+                serialize.addStatement("gen.writeStringField($S, value.$L())", name, getter(name));
+            } else {
+                serialize.addStatement("provider.defaultSerializeField($S, value.$L(), gen)", name, getter(name));
+            }
+        }
+
+        return TypeSpec.classBuilder(serializerName(inputObjectTypeDefinition.getName()))
+                .addJavadoc("Streaming serializer of '" + inputObjectTypeDefinition.getName() + "'."
+                        + GeneratorInterface.LINE_SEPARATOR)
+                .addModifiers(Modifier.PUBLIC)
+                .superclass(ParameterizedTypeName.get(ClassName.get(StdSerializer.class), type))
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PUBLIC)
+                        .addStatement("super($T.class)", type)
+                        .build())
+                .addMethod(serialize.addStatement("gen.writeEndObject()").build())
+                .build();
+    }
+
+
+    /**
+     * Convert all types and input types to a module registering their deserializers and serializers.
+     *
+     * @param types Type definitions except Query and Mutation
+     * @param inputs Input type definitions
+     * @return Type specification of the module
+     */
+    public TypeSpec convert(Collection<ObjectTypeDefinition> types, Collection<InputObjectTypeDefinition> inputs) {
+        MethodSpec.Builder constructor = MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addStatement("super($S)", MODULE_NAME);
+        types.forEach(type -> constructor.addStatement("addDeserializer($T.class, new $T())",
+                ClassName.get(packageName, type.getName()),
+                ClassName.get(packageName, deserializerName(type.getName()))));
+        inputs.forEach(input -> constructor.addStatement("addSerializer($T.class, new $T())",
+                ClassName.get(packageName, input.getName()),
+                ClassName.get(packageName, serializerName(input.getName()))));
+
+        return TypeSpec.classBuilder(MODULE_NAME)
+                .addJavadoc("Module registering the generated deserializers of all types and serializers of all "
+                        + "input types." + GeneratorInterface.LINE_SEPARATOR)
+                .addModifiers(Modifier.PUBLIC)
+                .superclass(SimpleModule.class)
+                .addMethod(constructor.build())
+                .build();
+    }
+
+
+    /**
+     * Java type of an input field as declared by {@link InputMapper}.
+     */
+    private ClassName inputTypeName(InputValueDefinition inputValueDefinition) {
+        String typeName = InputMapper.typeName(inputValueDefinition.getType());
+        ClassName className = BasicScalarMapper.convert(typeName);
+        if (className == null) {
+            className = customScalarMapper.convert(typeName);
+        }
+        return className;
+    }
+
+
+    private static String setter(String fieldName) {
+        return "set" + Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+    }
+
+
+    private static String getter(String fieldName) {
+        return "get" + Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+    }
+
+}
@@ -11,17 +11,21 @@
 package services.videa.graphql.java.types;
 
 import com.squareup.javapoet.TypeSpec;
+import graphql.language.AstPrinter;
 import graphql.language.InputObjectTypeDefinition;
 import graphql.language.ObjectTypeDefinition;
 import graphql.language.ScalarTypeDefinition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import services.videa.graphql.java.FileCreator;
+import services.videa.graphql.java.GenerationTask;
 import services.videa.graphql.java.GeneratorInterface;
 import services.videa.graphql.java.inputs.InputMapper;
 import services.videa.graphql.java.scalars.CustomScalarMapper;
 
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 
 /**
@@ -41,8 +45,15 @@ public class TypeGenerator implements GeneratorInterface {
     public TypeGenerator(Map<String, ObjectTypeDefinition> types,
                          Map<String, ScalarTypeDefinition> scalars,
                          String generationFolder, String packageName) {
+        this(types, scalars, generationFolder, packageName, false);
+    }
+
+
+    public TypeGenerator(Map<String, ObjectTypeDefinition> types,
+                         Map<String, ScalarTypeDefinition> scalars,
+                         String generationFolder, String packageName, boolean immutable) {
         this.types = types;
-        typeMapper = new TypeMapper(scalars);
+        typeMapper = new TypeMapper(scalars, immutable);
         this.packageName = packageName;
         fileCreator = fileCreator(generationFolder, packageName);
     }
@@ -63,16 +74,15 @@ public class TypeGenerator implements GeneratorInterface {
 
 
     /**
-     * This public methods generates all GraphQL types except Query and Mutation. These two
-     * special endpoint classes are to be generated specifically after creation of all other types.
+     * This public methods returns tasks for all GraphQL types except Query and Mutation. These two
+     * special endpoint classes are to be generated specifically by their endpoint generators.
      */
     @Override
-    public void generate() {
-        types.forEach((key, value) -> {
-            if(!("Query".equals(value.getName()) || "Mutation".equals(value.getName()))) {
-                generate(value);
-            }
-        });
+    public List<GenerationTask> tasks() {
+        return types.values().stream()
+                .filter(value -> !("Query".equals(value.getName()) || "Mutation".equals(value.getName())))
+                .map(value -> new GenerationTask(value.getName(), AstPrinter.printAst(value), () -> generate(value)))
+                .collect(Collectors.toList());
     }
 
 }
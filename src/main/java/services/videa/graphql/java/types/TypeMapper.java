@@ -10,18 +10,27 @@
 
 package services.videa.graphql.java.types;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeSpec;
 import graphql.language.*;
+import lombok.Builder;
 import lombok.Data;
+import lombok.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import services.videa.graphql.java.scalars.BasicScalarMapper;
 import services.videa.graphql.java.scalars.CustomScalarMapper;
 
 import javax.lang.model.element.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -34,10 +43,17 @@ public class TypeMapper {
     private static Logger logger = LoggerFactory.getLogger(TypeMapper.class);
 
     private CustomScalarMapper customScalarMapper;
+    private boolean immutable;
 
 
     public TypeMapper(Map<String, ScalarTypeDefinition> scalars) {
+        this(scalars, false);
+    }
+
+
+    public TypeMapper(Map<String, ScalarTypeDefinition> scalars, boolean immutable) {
         customScalarMapper = new CustomScalarMapper(scalars);
+        this.immutable = immutable;
     }
 
 
@@ -55,10 +71,12 @@ public class TypeMapper {
                 .map(fieldDefinition -> convert(fieldDefinition, packageName))
                 .collect(Collectors.toList());
 
-        TypeSpec.Builder typeSpecBuilder = TypeSpec.classBuilder(objectTypeDefinition.getName())
-                .addAnnotation(Data.class)
-                .addModifiers(Modifier.PUBLIC)
-                .addFields(fieldSpecs);
+        TypeSpec.Builder typeSpecBuilder = immutable
+                ? immutableClassBuilder(objectTypeDefinition.getName(), fieldSpecs)
+                : TypeSpec.classBuilder(objectTypeDefinition.getName())
+                        .addAnnotation(Data.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .addFields(fieldSpecs);
 
         if (objectTypeDefinition.getDescription() != null) {
             typeSpecBuilder.addJavadoc(objectTypeDefinition.getDescription().getContent());
@@ -76,6 +94,43 @@ public class TypeMapper {
     }
 
 
+    /**
+     * Create the builder of a final immutable class with the given fields. Lombok's '@Value' adds getters, equals,
+     * hashCode and toString, '@Builder' a builder using the all-args constructor, which Jackson calls as creator.
+     * The constructor keeps unmodifiable copies of lists, so neither the caller nor a getter's user can change them.
+     *
+     * @param name Class name
+     * @param fieldSpecs Private fields, which are made final
+     * @return Type specification builder
+     */
+    public static TypeSpec.Builder immutableClassBuilder(String name, List<FieldSpec> fieldSpecs) {
+        MethodSpec.Builder constructorBuilder = MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(JsonCreator.class);
+        TypeSpec.Builder typeSpecBuilder = TypeSpec.classBuilder(name)
+                .addAnnotation(Value.class)
+                .addAnnotation(AnnotationSpec.builder(Builder.class).addMember("toBuilder", "true").build())
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL);
+
+        fieldSpecs.forEach(fieldSpec -> {
+            typeSpecBuilder.addField(fieldSpec.toBuilder().addModifiers(Modifier.FINAL).build());
+            constructorBuilder.addParameter(ParameterSpec.builder(fieldSpec.type, fieldSpec.name)
+                    .addAnnotation(AnnotationSpec.builder(JsonProperty.class)
+                            .addMember("value", "$S", fieldSpec.name).build())
+                    .build());
+            if (fieldSpec.type instanceof ParameterizedTypeName
+                    && ((ParameterizedTypeName) fieldSpec.type).rawType.equals(ClassName.get(List.class))) {
+                constructorBuilder.addStatement("this.$N = $N == null ? null : $T.unmodifiableList(new $T<>($N))",
+                        fieldSpec.name, fieldSpec.name, Collections.class, ArrayList.class, fieldSpec.name);
+            } else {
+                constructorBuilder.addStatement("this.$N = $N", fieldSpec.name, fieldSpec.name);
+            }
+        });
+
+        return typeSpecBuilder.addMethod(constructorBuilder.build());
+    }
+
+
     /**
      * Convert field definition to a field specification.
      *
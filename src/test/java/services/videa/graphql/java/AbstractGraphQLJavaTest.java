@@ -14,6 +14,16 @@ import org.junit.Before;
 import services.videa.graphql.java.schema.GqlSchemaLoader;
 import services.videa.graphql.java.schema.GqlSchemaParser;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+
 public class AbstractGraphQLJavaTest {
 
     protected static final String SRC_FOLDER = "src/test/generated";
@@ -28,4 +38,34 @@ public class AbstractGraphQLJavaTest {
         gqlSchemaParser = new GqlSchemaParser(file);
     }
 
+
+    /**
+     * Compile generated classes with the test classpath, so tests can load and run them. The JDK's javac is run as
+     * process, as Lombok does not process annotations of the in-process compiler of JDK 8 without 'tools.jar' on
+     * the classpath.
+     */
+    protected static void compile(Path sourceFolder, Path classesFolder) throws Exception {
+        Path javaHome = Paths.get(System.getProperty("java.home"));
+        Path javac = javaHome.resolve("bin/javac");
+        if (!Files.exists(javac) && !Files.exists(javaHome.resolve("bin/javac.exe"))) {
+            javac = javaHome.resolveSibling("bin/javac");
+        }
+
+        List<String> arguments = new ArrayList<>();
+        arguments.add(javac.toString());
+        arguments.add("-nowarn");
+        arguments.add("-classpath");
+        arguments.add(System.getProperty("surefire.test.class.path", System.getProperty("java.class.path")));
+        arguments.add("-d");
+        arguments.add(classesFolder.toString());
+        try (Stream<Path> paths = Files.walk(sourceFolder)) {
+            arguments.addAll(paths.filter(path -> path.toString().endsWith(".java"))
+                    .map(Path::toString)
+                    .collect(Collectors.toList()));
+        }
+
+        assertEquals("Compilation of generated classes failed", 0,
+                new ProcessBuilder(arguments).inheritIO().start().waitFor());
+    }
+
 }
@@ -10,14 +10,35 @@
 
 package services.videa.graphql.java;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import services.videa.graphql.java.serializers.SerializerMapper;
 
 import java.io.*;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class GqlJavaGeneratorTest extends AbstractGraphQLJavaTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 
     @Test
     public void readSchemaContent() throws FileNotFoundException {
@@ -49,4 +70,258 @@ public class GqlJavaGeneratorTest extends AbstractGraphQLJavaTest {
 
     }
 
+
+    @Test
+    public void generateParallel() throws IOException {
+        Path sequentialFolder = temporaryFolder.newFolder("sequential").toPath();
+        Path parallelFolder = temporaryFolder.newFolder("parallel").toPath();
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setThreads(4);
+
+        try (InputStream inputStream = new FileInputStream("src/test/resources/graphql-java-test.gql")) {
+            GqlJavaGenerator.generateJavaClasses(inputStream, sequentialFolder.toString(), PACKAGE_NAME);
+        }
+        try (InputStream inputStream = new FileInputStream("src/test/resources/graphql-java-test.gql")) {
+            GqlJavaGenerator.generateJavaClasses(inputStream, parallelFolder.toString(), PACKAGE_NAME, configuration);
+        }
+
+        Path packagePath = Paths.get(PACKAGE_NAME.replace(".", "/"));
+        File[] files = sequentialFolder.resolve(packagePath).toFile().listFiles();
+        Assert.assertTrue(files.length > 0);
+        Assert.assertEquals(files.length, parallelFolder.resolve(packagePath).toFile().listFiles().length);
+        for (File file : files) {
+            Assert.assertArrayEquals(file.getName(), Files.readAllBytes(file.toPath()),
+                    Files.readAllBytes(parallelFolder.resolve(packagePath).resolve(file.getName())));
+        }
+    }
+
+
+    @Test
+    public void generateIncremental() throws IOException {
+        Path generationFolder = temporaryFolder.newFolder("incremental").toPath();
+        Path packageFolder = generationFolder.resolve(PACKAGE_NAME.replace(".", "/"));
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setIncremental(true);
+
+        String schema = "type Query { user(id: ID): User }\n"
+                + "type User { name: String }\n"
+                + "type Group { name: String }\n"
+                + "enum Role { ADMIN }\n";
+        GqlJavaGenerator.generateJavaClasses(new ByteArrayInputStream(schema.getBytes(StandardCharsets.UTF_8)),
+                generationFolder.toString(), PACKAGE_NAME, configuration);
+        Assert.assertTrue(Files.exists(generationFolder.resolve(GenerationManifest.FILE_NAME)));
+        Assert.assertTrue(Files.exists(packageFolder.resolve("Role.java")));
+        for (File file : packageFolder.toFile().listFiles()) {
+            Assert.assertTrue(file.setLastModified(0));
+        }
+
+        String changedSchema = "type Query { user(id: ID): User }\n"
+                + "type User { name: String }\n"
+                + "type Group { name: String members: [User] }\n";
+        configuration.setThreads(4);
+        GqlJavaGenerator.generateJavaClasses(new ByteArrayInputStream(changedSchema.getBytes(StandardCharsets.UTF_8)),
+                generationFolder.toString(), PACKAGE_NAME, configuration);
+
+        Assert.assertEquals(0, packageFolder.resolve("Query.java").toFile().lastModified());
+        Assert.assertEquals(0, packageFolder.resolve("User.java").toFile().lastModified());
+        Assert.assertNotEquals(0, packageFolder.resolve("Group.java").toFile().lastModified());
+        Assert.assertTrue(new String(Files.readAllBytes(packageFolder.resolve("Group.java")), StandardCharsets.UTF_8)
+                .contains("members"));
+        Assert.assertFalse(Files.exists(packageFolder.resolve("Role.java")));
+    }
+
+
+    @Test
+    public void generateIncrementalEntityIdFields() throws IOException {
+        Path generationFolder = temporaryFolder.newFolder("incremental-cache").toPath();
+        Path packageFolder = generationFolder.resolve(PACKAGE_NAME.replace(".", "/"));
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setIncremental(true);
+        configuration.setNormalizedCache(true);
+
+        String schema = "type Query { node(id: ID!): Node }\n"
+                + "interface Node { id: ID! }\n"
+                + "type User implements Node { id: ID! }\n";
+        GqlJavaGenerator.generateJavaClasses(new ByteArrayInputStream(schema.getBytes(StandardCharsets.UTF_8)),
+                generationFolder.toString(), PACKAGE_NAME, configuration);
+        Assert.assertTrue(packageFolder.resolve("Query.java").toFile().setLastModified(0));
+
+        String changedSchema = schema + "type Foo implements Node { id: ID! }\n";
+        GqlJavaGenerator.generateJavaClasses(new ByteArrayInputStream(changedSchema.getBytes(StandardCharsets.UTF_8)),
+                generationFolder.toString(), PACKAGE_NAME, configuration);
+
+        Assert.assertNotEquals(0, packageFolder.resolve("Query.java").toFile().lastModified());
+        Assert.assertTrue(new String(Files.readAllBytes(packageFolder.resolve("Query.java")), StandardCharsets.UTF_8)
+                .contains("\"Foo\", \"id\""));
+    }
+
+
+    @Test
+    public void generatePersistedQueryManifest() throws IOException {
+        Path generationFolder = temporaryFolder.newFolder("manifest").toPath();
+        Path packageFolder = generationFolder.resolve(PACKAGE_NAME.replace(".", "/"));
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setPersistedQueries(true);
+        configuration.setPersistedQueryManifest(true);
+
+        String schema = "type Query { user(id: ID!): User me: User }\n"
+                + "type Mutation { rename(id: ID!, name: String): User }\n"
+                + "type User { id: ID name: String }\n";
+        GqlJavaGenerator.generateJavaClasses(new ByteArrayInputStream(schema.getBytes(StandardCharsets.UTF_8)),
+                generationFolder.toString(), PACKAGE_NAME, configuration);
+
+        Path file = generationFolder.resolve(PersistedQueryManifest.FILE_NAME);
+        JsonNode manifest = new ObjectMapper().readTree(file.toFile());
+        Assert.assertEquals(PersistedQueryManifest.FORMAT, manifest.get("format").asText());
+        JsonNode operations = manifest.get("operations");
+        Assert.assertEquals(3, operations.size());
+        Assert.assertEquals("rename", operations.get(0).get("name").asText());
+        Assert.assertEquals("mutation", operations.get(0).get("type").asText());
+        Assert.assertEquals("me", operations.get(1).get("name").asText());
+        Assert.assertEquals("user", operations.get(2).get("name").asText());
+        Assert.assertEquals("query user($id: ID!) { user(id: $id) { id name } }",
+                operations.get(2).get("body").asText());
+        Assert.assertEquals(GenerationManifest.fingerprint(operations.get(2).get("body").asText()),
+                operations.get(2).get("id").asText());
+        Assert.assertTrue(new String(Files.readAllBytes(packageFolder.resolve("Query.java")), StandardCharsets.UTF_8)
+                .contains("USER_HASH = \"" + operations.get(2).get("id").asText() + "\""));
+
+        Assert.assertTrue(file.toFile().setLastModified(0));
+        GqlJavaGenerator.generateJavaClasses(new ByteArrayInputStream(schema.getBytes(StandardCharsets.UTF_8)),
+                generationFolder.toString(), PACKAGE_NAME, configuration);
+        Assert.assertEquals(0, file.toFile().lastModified());
+    }
+
+
+    @Test
+    public void generatePersistedQueryManifestDocuments() throws IOException {
+        Path generationFolder = temporaryFolder.newFolder("documents").toPath();
+        Path packageFolder = generationFolder.resolve(PACKAGE_NAME.replace(".", "/"));
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setPersistedQueryManifest(true);
+        configuration.setNormalizedCache(true);
+        Assert.assertTrue(configuration.isUseVariables());
+
+        String schema = "type Query { user(id: ID!): User me: User }\n"
+                + "type Mutation { rename(id: ID!, name: String): User }\n"
+                + "type User { id: ID name: String }\n";
+        GqlJavaGenerator.generateJavaClasses(new ByteArrayInputStream(schema.getBytes(StandardCharsets.UTF_8)),
+                generationFolder.toString(), PACKAGE_NAME, configuration);
+
+        Set<String> documents = new TreeSet<>();
+        for (String endpoint : Arrays.asList("Query.java", "Mutation.java")) {
+            Matcher matcher = Pattern.compile("_DOCUMENT = \"(.*)\";").matcher(
+                    new String(Files.readAllBytes(packageFolder.resolve(endpoint)), StandardCharsets.UTF_8));
+            while (matcher.find()) {
+                documents.add(matcher.group(1).replace("\\$", "$"));
+            }
+        }
+        Assert.assertEquals(3, documents.size());
+        String query = new String(Files.readAllBytes(packageFolder.resolve("Query.java")), StandardCharsets.UTF_8);
+        Assert.assertTrue(query.contains(
+                "USER_CACHED_OPERATION = new GqlOperation(\"query\", \"user\", \"{ __typename id name } \")"));
+        documents.add("query me { me { __typename id name } }");
+        documents.add("query user($id: ID!) { user(id: $id) { __typename id name } }");
+
+        JsonNode operations = new ObjectMapper().readTree(
+                generationFolder.resolve(PersistedQueryManifest.FILE_NAME).toFile()).get("operations");
+        Set<String> bodies = new TreeSet<>();
+        operations.forEach(operation -> bodies.add(operation.get("body").asText()));
+        Assert.assertEquals(documents, bodies);
+    }
+
+
+    @Test
+    public void generateImmutableTypes() throws Exception {
+        Path generationFolder = temporaryFolder.newFolder("immutable").toPath();
+        Path classesFolder = temporaryFolder.newFolder("immutable-classes").toPath();
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setImmutableTypes(true);
+        configuration.setGeneratedSerializers(true);
+
+        String schema = "type Query { tag(id: ID!): Tag }\n"
+                + "type Tag { name: String aliases: [String] }\n";
+        GqlJavaGenerator.generateJavaClasses(new ByteArrayInputStream(schema.getBytes(StandardCharsets.UTF_8)),
+                generationFolder.toString(), PACKAGE_NAME, configuration);
+        compile(generationFolder, classesFolder);
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classesFolder.toUri().toURL()},
+                getClass().getClassLoader())) {
+            Class<?> tagClass = classLoader.loadClass(PACKAGE_NAME + ".Tag");
+            List<String> aliases = new ArrayList<>(Arrays.asList("a", "b"));
+            Object builder = tagClass.getMethod("builder").invoke(null);
+            builder.getClass().getMethod("name", String.class).invoke(builder, "tag");
+            builder.getClass().getMethod("aliases", List.class).invoke(builder, aliases);
+            Object tag = builder.getClass().getMethod("build").invoke(builder);
+            aliases.add("c");
+
+            List<?> tagAliases = (List<?>) tagClass.getMethod("getAliases").invoke(tag);
+            Assert.assertEquals(Arrays.asList("a", "b"), tagAliases);
+            try {
+                tagAliases.clear();
+                Assert.fail();
+            } catch (UnsupportedOperationException e) {
+                Assert.assertEquals(2, tagAliases.size());
+            }
+
+            Object copyBuilder = tagClass.getMethod("toBuilder").invoke(tag);
+            copyBuilder.getClass().getMethod("name", String.class).invoke(copyBuilder, "copy");
+            Object copy = copyBuilder.getClass().getMethod("build").invoke(copyBuilder);
+            Assert.assertEquals("copy", tagClass.getMethod("getName").invoke(copy));
+            Assert.assertEquals("tag", tagClass.getMethod("getName").invoke(tag));
+            Assert.assertEquals(tagAliases, tagClass.getMethod("getAliases").invoke(copy));
+
+            String json = "{\"name\":\"tag\",\"aliases\":[\"a\",\"b\"]}";
+            Module module = (Module) classLoader.loadClass(PACKAGE_NAME + "." + SerializerMapper.MODULE_NAME)
+                    .getConstructor().newInstance();
+            List<ObjectMapper> objectMappers = Arrays.asList(new ObjectMapper(),
+                    new ObjectMapper().registerModule(module));
+            for (ObjectMapper objectMapper : objectMappers) {
+                Object read = objectMapper.readValue(json, tagClass);
+                Assert.assertEquals(tag, read);
+                try {
+                    ((List<?>) tagClass.getMethod("getAliases").invoke(read)).clear();
+                    Assert.fail();
+                } catch (UnsupportedOperationException e) {
+                    Assert.assertEquals(json, objectMapper.writeValueAsString(read));
+                }
+            }
+            Assert.assertNull(tagClass.getMethod("getAliases").invoke(
+                    new ObjectMapper().readValue("{\"name\":\"tag\"}", tagClass)));
+        }
+    }
+
+
+    @Test
+    public void generateNativeImage() throws IOException {
+        Path generationFolder = temporaryFolder.newFolder("native").toPath();
+        Path packageFolder = generationFolder.resolve(PACKAGE_NAME.replace(".", "/"));
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setNativeImage(true);
+        Assert.assertTrue(configuration.isUseVariables());
+        Assert.assertTrue(configuration.isGeneratedSerializers());
+
+        String schema = "type Query { user(id: ID!): User }\n"
+                + "type Mutation { rename(input: RenameInput): User }\n"
+                + "type User { id: ID name: String role: Role }\n"
+                + "input RenameInput { id: ID! name: String }\n"
+                + "enum Role { ADMIN MEMBER }\n";
+        GqlJavaGenerator.generateJavaClasses(new ByteArrayInputStream(schema.getBytes(StandardCharsets.UTF_8)),
+                generationFolder.toString(), PACKAGE_NAME, configuration);
+
+        Path folder = generationFolder.resolve(NativeImageConfiguration.FOLDER).resolve(PACKAGE_NAME);
+        JsonNode reflectConfig = new ObjectMapper().readTree(
+                folder.resolve(NativeImageConfiguration.REFLECT_CONFIG).toFile());
+        Assert.assertEquals(1, reflectConfig.size());
+        Assert.assertEquals(PACKAGE_NAME + ".Role", reflectConfig.get(0).get("name").asText());
+        Assert.assertTrue(reflectConfig.get(0).get("allDeclaredFields").asBoolean());
+
+        String mutation = new String(Files.readAllBytes(packageFolder.resolve("Mutation.java")),
+                StandardCharsets.UTF_8);
+        Assert.assertFalse(mutation.contains("GqlRenderer"));
+        Assert.assertTrue(mutation.contains("addSerializer(Request.class, new StdSerializer<Request>(Request.class)"));
+        Assert.assertTrue(Files.exists(packageFolder.resolve("RenameInputSerializer.java")));
+        Assert.assertTrue(Files.exists(packageFolder.resolve("UserDeserializer.java")));
+    }
+
 }
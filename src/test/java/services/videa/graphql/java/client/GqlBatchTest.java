@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import services.videa.graphql.java.endpoints.fakes.UserNodeFake;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class GqlBatchTest {
+
+    private static final GqlOperation USER = new GqlOperation("query", "user", "{ id } ").argument("id", "ID!");
+    private static final GqlOperation ME = new GqlOperation("query", "me", "{ id } ");
+
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+
+    @Test
+    public void document() {
+        assertEquals("query user($id: ID!) { user(id: $id) { id } }", USER.document());
+        assertEquals("query me { me { id } }", ME.document());
+    }
+
+
+    @Test
+    public void aliasesRequest() {
+        GqlBatch batch = new GqlBatch(GqlBatchMode.ALIASES);
+        batch.add(USER, Collections.singletonMap("id", "1"), UserNodeFake.class);
+        batch.add(ME, Collections.emptyMap(), UserNodeFake.class);
+        batch.add(USER, Collections.singletonMap("id", "2"), UserNodeFake.class);
+
+        Map<?, ?> request = (Map<?, ?>) batch.request();
+
+        assertEquals("query batch($user_0_id: ID!, $user_2_id: ID!) { user_0: user(id: $user_0_id) { id } "
+                + "me_1: me { id } user_2: user(id: $user_2_id) { id } }", request.get("query"));
+        assertEquals("1", ((Map<?, ?>) request.get("variables")).get("user_0_id"));
+        assertEquals("2", ((Map<?, ?>) request.get("variables")).get("user_2_id"));
+    }
+
+
+    @Test
+    public void aliasesResponse() throws IOException {
+        GqlBatch batch = new GqlBatch(GqlBatchMode.ALIASES);
+        GqlBatchResult<UserNodeFake> first = batch.add(USER, Collections.singletonMap("id", "1"), UserNodeFake.class);
+        GqlBatchResult<UserNodeFake> second = batch.add(USER, Collections.singletonMap("id", "2"), UserNodeFake.class);
+
+        batch.read(objectMapper, body("{\"data\": {\"user_1\": null, \"user_0\": {\"id\": \"1\"}}, "
+                + "\"errors\": [{\"message\": \"denied\", \"path\": [\"user_1\"]}]}"));
+
+        assertEquals("1", first.get().getId());
+        assertNull(first.getErrors());
+        try {
+            second.get();
+            fail();
+        } catch (GqlResponseException e) {
+            assertEquals("denied", e.getErrors().get(0).get("message").asText());
+        }
+    }
+
+
+    @Test
+    public void arrayRequestAndResponse() throws IOException {
+        GqlBatch batch = new GqlBatch(GqlBatchMode.ARRAY);
+        GqlBatchResult<UserNodeFake> user = batch.add(USER, Collections.singletonMap("id", "1"), UserNodeFake.class);
+        GqlBatchResult<UserNodeFake> me = batch.add(ME, Collections.emptyMap(), UserNodeFake.class);
+
+        List<?> request = (List<?>) batch.request();
+        assertEquals(2, request.size());
+        assertEquals("query me { me { id } }", ((Map<?, ?>) request.get(1)).get("query"));
+
+        batch.read(objectMapper, body("[{\"data\": {\"user\": {\"id\": \"1\"}}}, "
+                + "{\"errors\": [{\"message\": \"denied\"}]}]"));
+
+        assertEquals("1", user.get().getId());
+        assertNotNull(me.getErrors());
+    }
+
+
+    @Test(expected = IllegalStateException.class)
+    public void notExecuted() throws IOException {
+        new GqlBatch(GqlBatchMode.ALIASES).add(ME, Collections.emptyMap(), UserNodeFake.class).get();
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mixedOperationTypes() {
+        GqlBatch batch = new GqlBatch(GqlBatchMode.ALIASES);
+        batch.add(ME, Collections.emptyMap(), UserNodeFake.class);
+        batch.add(new GqlOperation("mutation", "logout", ""), Collections.emptyMap(), Boolean.class);
+    }
+
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import services.videa.graphql.java.endpoints.fakes.UserNodeFake;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class GqlCoalescerTest {
+
+    private static final GqlOperation USER = new GqlOperation("query", "user", "{ id } ").argument("id", "ID!");
+
+    private ObjectMapper objectMapper = new ObjectMapper();
+    private List<String> documents = new CopyOnWriteArrayList<>();
+
+
+    @Test
+    public void deduplicate() throws Exception {
+        GqlCoalescer coalescer = new GqlCoalescer(this::answer, 0, 100);
+
+        CompletableFuture<UserNodeFake> first = coalescer.load(USER, variables("1"), UserNodeFake.class);
+        CompletableFuture<UserNodeFake> second = coalescer.load(USER, variables("2"), UserNodeFake.class);
+        CompletableFuture<UserNodeFake> again = coalescer.load(USER, variables("1"), UserNodeFake.class);
+
+        assertSame(first, again);
+        assertEquals(2, coalescer.pending());
+        assertFalse(first.isDone());
+
+        coalescer.dispatch();
+
+        assertEquals("1", first.get().getId());
+        assertEquals("2", second.get().getId());
+        assertEquals(1, documents.size());
+        assertEquals(0, coalescer.pending());
+    }
+
+
+    @Test
+    public void window() throws Exception {
+        GqlCoalescer coalescer = new GqlCoalescer(this::answer, 20, 100);
+
+        CompletableFuture<UserNodeFake> first = coalescer.load(USER, variables("1"), UserNodeFake.class);
+        CompletableFuture<UserNodeFake> second = coalescer.load(USER, variables("2"), UserNodeFake.class);
+
+        assertEquals("1", first.get(5, TimeUnit.SECONDS).getId());
+        assertEquals("2", second.get(5, TimeUnit.SECONDS).getId());
+        assertEquals(1, documents.size());
+    }
+
+
+    @Test
+    public void fullBatch() throws Exception {
+        GqlCoalescer coalescer = new GqlCoalescer(this::answer, 0, 2);
+
+        coalescer.load(USER, variables("1"), UserNodeFake.class);
+        CompletableFuture<UserNodeFake> second = coalescer.load(USER, variables("2"), UserNodeFake.class);
+
+        assertEquals("2", second.get(5, TimeUnit.SECONDS).getId());
+        assertEquals(0, coalescer.pending());
+    }
+
+
+    @Test
+    public void failure() throws InterruptedException {
+        GqlCoalescer coalescer = new GqlCoalescer(batch -> {
+            throw new IOException("unreachable");
+        }, 0, 100);
+
+        CompletableFuture<UserNodeFake> user = coalescer.load(USER, variables("1"), UserNodeFake.class);
+        coalescer.dispatch();
+
+        try {
+            user.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertEquals("unreachable", e.getCause().getMessage());
+        }
+    }
+
+
+    @Test
+    public void error() throws InterruptedException {
+        GqlCoalescer coalescer = new GqlCoalescer(batch -> {
+            throw new NoClassDefFoundError("reactor/netty/http/client/HttpClient");
+        }, 0, 100);
+
+        CompletableFuture<UserNodeFake> user = coalescer.load(USER, variables("1"), UserNodeFake.class);
+        try {
+            coalescer.dispatch();
+            fail();
+        } catch (NoClassDefFoundError e) {
+            assertTrue(user.isCompletedExceptionally());
+        }
+
+        try {
+            user.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof NoClassDefFoundError);
+        }
+    }
+
+
+    /**
+     * Answer every aliased field with a user whose id is the call's variable.
+     */
+    @SuppressWarnings("unchecked")
+    private void answer(GqlBatch batch) throws IOException {
+        Map<String, Object> request = (Map<String, Object>) batch.request();
+        documents.add((String) request.get("query"));
+
+        StringBuilder data = new StringBuilder();
+        ((Map<String, Object>) request.get("variables")).forEach((name, value) -> data
+                .append(data.length() == 0 ? "" : ", ")
+                .append("\"").append(name.substring(0, name.length() - "_id".length())).append("\": ")
+                .append("{\"id\": \"").append(value).append("\"}"));
+        batch.read(objectMapper, new ByteArrayInputStream(("{\"data\": {" + data + "}}")
+                .getBytes(StandardCharsets.UTF_8)));
+    }
+
+
+    private static Map<String, Object> variables(String id) {
+        return Collections.singletonMap("id", id);
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.junit.Test;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.client.RestTemplate;
+import services.videa.graphql.java.endpoints.fakes.CreateUserInputFake;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+public class GqlMessageConverterTest {
+
+    @Test
+    public void writeWithModulesRegisteredLater() throws IOException {
+        try (StubGraphQLServer server = new StubGraphQLServer(request -> "{\"data\": {}}")) {
+            GqlObjectMapper objectMapper = new GqlObjectMapper(new ObjectMapper());
+            RestTemplate restTemplate = new RestTemplate();
+            restTemplate.getMessageConverters().replaceAll(converter ->
+                    converter instanceof MappingJackson2HttpMessageConverter
+                            ? new GqlMessageConverter(objectMapper) : converter);
+            CreateUserInputFake input = new CreateUserInputFake();
+            input.setClientMutationId("c1");
+
+            restTemplate.postForObject(server.url(), input, String.class);
+            objectMapper.registerModule(new SimpleModule("InputModuleFake")
+                    .addSerializer(CreateUserInputFake.class, new StdSerializer<CreateUserInputFake>(
+                            CreateUserInputFake.class) {
+                        @Override
+                        public void serialize(CreateUserInputFake value, JsonGenerator gen,
+                                              SerializerProvider provider) throws IOException {
+                            gen.writeString(value.getClientMutationId());
+                        }
+                    }));
+            restTemplate.postForObject(server.url(), input, String.class);
+
+            assertEquals("{\"user\":null,\"clientMutationId\":\"c1\"}", server.requests().poll());
+            assertEquals("\"c1\"", server.requests().poll());
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+import services.videa.graphql.java.endpoints.fakes.UserNodeConnectionFake;
+import services.videa.graphql.java.endpoints.fakes.UserNodeFake;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class GqlNormalizedCacheTest {
+
+    private static final GqlOperation USER = new GqlOperation("query", "user", "{ __typename id email } ")
+            .argument("id", "ID!");
+    private static final GqlOperation USER_WITH_PK = new GqlOperation("query", "user", "{ __typename id email pk } ")
+            .argument("id", "ID!");
+    private static final GqlOperation ALL_USERS = new GqlOperation("query", "allUsers",
+            "{ __typename edges { __typename node { __typename id email } } } ");
+
+    private ObjectMapper objectMapper = new ObjectMapper();
+    private GqlTransportSettings settings = new GqlTransportSettings();
+    private GqlNormalizedCache cache;
+
+
+    @Before
+    public void setUp() {
+        cache = new GqlNormalizedCache(objectMapper, GqlNormalizedCache.idFields("UserNode", "id"), settings);
+    }
+
+
+    @Test
+    public void readWritten() throws IOException {
+        assertNull(cache.read(USER, variables("1"), UserNodeFake.class));
+
+        UserNodeFake written = cache.write(USER, variables("1"), user("1", "a@b"), UserNodeFake.class);
+        UserNodeFake read = cache.read(USER, variables("1"), UserNodeFake.class);
+
+        assertEquals("a@b", written.getEmail());
+        assertEquals("a@b", read.getEmail());
+        assertNull(cache.read(USER, variables("2"), UserNodeFake.class));
+    }
+
+
+    @Test
+    public void missingField() throws IOException {
+        cache.write(USER, variables("1"), user("1", "a@b"), UserNodeFake.class);
+
+        assertNull(cache.read(USER_WITH_PK, variables("1"), UserNodeFake.class));
+    }
+
+
+    @Test
+    public void sharedEntity() throws IOException {
+        cache.write(USER, variables("1"), user("1", "old@b"), UserNodeFake.class);
+        cache.write(ALL_USERS, Collections.emptyMap(), tree("{\"__typename\": \"UserNodeConnection\", \"edges\": "
+                + "[{\"__typename\": \"UserNodeEdge\", \"node\": " + user("1", "new@b") + "}]}"),
+                UserNodeConnectionFake.class);
+
+        assertEquals("new@b", cache.read(USER, variables("1"), UserNodeFake.class).getEmail());
+        assertEquals("new@b", cache.read(ALL_USERS, Collections.emptyMap(), UserNodeConnectionFake.class)
+                .getEdges().get(0).getNode().getEmail());
+        assertEquals(3, cache.size());
+    }
+
+
+    @Test
+    public void evict() throws IOException {
+        cache.write(USER, variables("1"), user("1", "a@b"), UserNodeFake.class);
+
+        cache.evict("UserNode", "1");
+
+        assertNull(cache.read(USER, variables("1"), UserNodeFake.class));
+    }
+
+
+    @Test
+    public void expire() throws Exception {
+        settings.setCacheTtlMillis(10);
+        cache = new GqlNormalizedCache(objectMapper, GqlNormalizedCache.idFields("UserNode", "id"), settings);
+        cache.write(USER, variables("1"), user("1", "a@b"), UserNodeFake.class);
+
+        Thread.sleep(50);
+
+        assertNull(cache.read(USER, variables("1"), UserNodeFake.class));
+    }
+
+
+    @Test
+    public void leastRecentlyUsed() throws IOException {
+        settings.setCacheMaxEntries(2);
+        cache = new GqlNormalizedCache(objectMapper, GqlNormalizedCache.idFields("UserNode", "id"), settings);
+
+        cache.write(USER, variables("1"), user("1", "a@b"), UserNodeFake.class);
+        cache.write(USER, variables("2"), user("2", "c@d"), UserNodeFake.class);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.read(USER, variables("1"), UserNodeFake.class));
+    }
+
+
+    @Test
+    public void parse() {
+        Map<String, Object> selection = GqlNormalizedCache.parse("{ id user { id email } pk } ");
+
+        assertEquals("[id, user, pk]", selection.keySet().toString());
+        assertEquals("{id=null, email=null}", selection.get("user").toString());
+        assertNull(GqlNormalizedCache.parse(""));
+    }
+
+
+    private JsonNode user(String id, String email) throws IOException {
+        return tree("{\"__typename\": \"UserNode\", \"id\": \"" + id + "\", \"email\": \"" + email + "\"}");
+    }
+
+
+    private JsonNode tree(String json) throws IOException {
+        return objectMapper.readTree(json);
+    }
+
+
+    private static Map<String, Object> variables(String id) {
+        return Collections.singletonMap("id", id);
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.Test;
+import services.videa.graphql.java.endpoints.fakes.UserNodeFake;
+import services.videa.graphql.java.endpoints.fakes.UserNodeFakeDeserializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class GqlObjectMapperTest {
+
+    @Test
+    public void readersAndWritersPerType() {
+        GqlObjectMapper objectMapper = new GqlObjectMapper(new ObjectMapper());
+        objectMapper.warmUp(UserNodeFake.class);
+
+        assertSame(objectMapper.reader(UserNodeFake.class), objectMapper.reader(UserNodeFake.class));
+        assertSame(objectMapper.writer(UserNodeFake.class), objectMapper.writer(UserNodeFake.class));
+        assertNotSame(objectMapper.reader(UserNodeFake.class), objectMapper.reader(String.class));
+        assertSame(GqlObjectMapper.shared(), GqlObjectMapper.shared());
+    }
+
+
+    @Test
+    public void registerModuleOnce() throws IOException {
+        GqlObjectMapper objectMapper = new GqlObjectMapper(new ObjectMapper());
+        ObjectReader reflective = objectMapper.reader(UserNodeFake.class);
+
+        objectMapper.registerModule(new SerializationModuleFake());
+        ObjectReader generated = objectMapper.reader(UserNodeFake.class);
+        assertNotSame(reflective, generated);
+
+        objectMapper.registerModule(new SerializationModuleFake());
+        assertSame(generated, objectMapper.reader(UserNodeFake.class));
+
+        UserNodeFake user = GqlResponseReader.read(objectMapper, new ByteArrayInputStream(
+                "{\"data\":{\"user\":{\"id\":\"1\",\"pk\":1}}}".getBytes(StandardCharsets.UTF_8)), "user",
+                UserNodeFake.class);
+        assertEquals("1", user.getId());
+        assertEquals(Integer.valueOf(1), user.getPk());
+        assertEquals("generated", user.getUsername());
+    }
+
+
+    /**
+     * Readers created concurrently with the registration of a module must not outlive it in the cache.
+     */
+    @Test
+    public void registerModuleConcurrently() throws Exception {
+        byte[] json = "{\"id\":\"1\"}".getBytes(StandardCharsets.UTF_8);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 200; i++) {
+                GqlObjectMapper objectMapper = new GqlObjectMapper(new ObjectMapper());
+                CountDownLatch start = new CountDownLatch(3);
+                AtomicBoolean registered = new AtomicBoolean();
+                List<Future<?>> readers = new ArrayList<>();
+                for (int j = 0; j < 3; j++) {
+                    readers.add(executor.submit(() -> {
+                        start.countDown();
+                        do {
+                            objectMapper.reader(UserNodeFake.class);
+                        } while (!registered.get());
+                        return null;
+                    }));
+                }
+                start.await();
+                objectMapper.registerModule(new SerializationModuleFake());
+                registered.set(true);
+                for (Future<?> reader : readers) {
+                    reader.get();
+                }
+
+                UserNodeFake user = objectMapper.reader(UserNodeFake.class).readValue(json);
+                assertEquals("generated", user.getUsername());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+
+    public static class SerializationModuleFake extends SimpleModule {
+
+        public SerializationModuleFake() {
+            super("SerializationModuleFake");
+            addDeserializer(UserNodeFake.class, new UserNodeFakeDeserializer() {
+                @Override
+                public UserNodeFake deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+                    UserNodeFake user = super.deserialize(p, ctxt);
+                    user.setUsername("generated");
+                    return user;
+                }
+            });
+        }
+
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import org.junit.Test;
+import services.videa.graphql.java.endpoints.fakes.PageInfoFake;
+import services.videa.graphql.java.endpoints.fakes.UserNodeConnectionFake;
+import services.videa.graphql.java.endpoints.fakes.UserNodeEdgeFake;
+import services.videa.graphql.java.endpoints.fakes.UserNodeFake;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class GqlPaginatorTest {
+
+    private final Queue<String> cursors = new ConcurrentLinkedQueue<>();
+
+
+    @Test
+    public void allPages() {
+        GqlPaginator<UserNodeEdgeFake> paginator = paginator(this::page, 0);
+
+        assertEquals(Arrays.asList("0", "1", "2", "3", "4", "5"), ids(paginator));
+        assertEquals(Arrays.asList("null", "c1", "c2"), new ArrayList<>(cursors));
+        assertFalse(paginator.hasNext());
+    }
+
+
+    @Test
+    public void prefetch() throws InterruptedException {
+        CountDownLatch secondPage = new CountDownLatch(1);
+        GqlPaginator<UserNodeEdgeFake> paginator = paginator(after -> {
+            if ("c1".equals(after)) {
+                secondPage.countDown();
+            }
+            return page(after);
+        }, 1);
+
+        assertEquals("0", paginator.next().getNode().getId());
+        assertTrue(secondPage.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("1", "2", "3", "4", "5"), ids(paginator));
+    }
+
+
+    @Test
+    public void emptyConnection() {
+        assertFalse(paginator(after -> null, 2).hasNext());
+    }
+
+
+    @Test
+    public void failingPage() {
+        GqlPaginator<UserNodeEdgeFake> paginator = paginator(after -> {
+            if (after != null) {
+                throw new IOException("unavailable");
+            }
+            return page(null);
+        }, 1);
+
+        assertEquals("0", paginator.next().getNode().getId());
+        assertEquals("1", paginator.next().getNode().getId());
+        try {
+            paginator.next();
+            fail("UncheckedIOException expected");
+        } catch (UncheckedIOException e) {
+            assertEquals("unavailable", e.getCause().getMessage());
+        }
+    }
+
+
+    @Test
+    public void repeatedCursor() {
+        GqlPaginator<UserNodeEdgeFake> paginator = paginator(after -> {
+            UserNodeConnectionFake connection = page(after == null ? null : "c1");
+            connection.getPageInfo().setHasNextPage(true);
+            connection.getPageInfo().setEndCursor("c1");
+            return connection;
+        }, 2);
+
+        assertEquals(Arrays.asList("0", "1", "2", "3"), ids(paginator));
+        assertEquals(Arrays.asList("null", "c1"), new ArrayList<>(cursors));
+    }
+
+
+    @Test
+    public void close() throws InterruptedException {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        GqlPaginator<UserNodeEdgeFake> paginator = paginator(after -> {
+            if ("c1".equals(after)) {
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+            }
+            return page(after);
+        }, 2);
+
+        assertEquals("0", paginator.next().getNode().getId());
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        paginator.close();
+        release.countDown();
+
+        assertFalse(paginator.hasNext());
+        Thread.sleep(100);
+        assertEquals(Arrays.asList("null", "c1"), new ArrayList<>(cursors));
+    }
+
+
+    private GqlPaginator<UserNodeEdgeFake> paginator(GqlPaginator.PageLoader<UserNodeConnectionFake> loader,
+                                                     int prefetch) {
+        return new GqlPaginator<>(loader, UserNodeConnectionFake::getEdges,
+                connection -> connection.getPageInfo().getEndCursor(),
+                connection -> Boolean.TRUE.equals(connection.getPageInfo().getHasNextPage()), prefetch);
+    }
+
+
+    /**
+     * Three pages of two edges each, cursors are 'c1' and 'c2'.
+     */
+    private UserNodeConnectionFake page(String after) {
+        cursors.add(String.valueOf(after));
+        int page = after == null ? 0 : Integer.parseInt(after.substring(1));
+
+        PageInfoFake pageInfo = new PageInfoFake();
+        pageInfo.setHasNextPage(page < 2);
+        pageInfo.setEndCursor("c" + (page + 1));
+        UserNodeConnectionFake connection = new UserNodeConnectionFake();
+        connection.setPageInfo(pageInfo);
+        connection.setEdges(new ArrayList<>(Arrays.asList(edge(page * 2), edge(page * 2 + 1))));
+        return connection;
+    }
+
+
+    private static UserNodeEdgeFake edge(int id) {
+        UserNodeFake user = new UserNodeFake();
+        user.setId(String.valueOf(id));
+        UserNodeEdgeFake edge = new UserNodeEdgeFake();
+        edge.setNode(user);
+        return edge;
+    }
+
+
+    private static List<String> ids(GqlPaginator<UserNodeEdgeFake> paginator) {
+        return paginator.stream().map(edge -> edge.getNode().getId()).collect(Collectors.toList());
+    }
+
+}
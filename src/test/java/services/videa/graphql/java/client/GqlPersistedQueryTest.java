@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import services.videa.graphql.java.AbstractGraphQLJavaTest;
+import services.videa.graphql.java.GenerationManifest;
+import services.videa.graphql.java.GeneratorConfiguration;
+import services.videa.graphql.java.GqlJavaGenerator;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+public class GqlPersistedQueryTest extends AbstractGraphQLJavaTest {
+
+    private static final String GENERATED_PACKAGE_NAME = PACKAGE_NAME + ".persisted";
+
+    private static final String DOCUMENT = new GqlOperation("query", "user", "{ id } ").argument("id", "ID!").document();
+    private static final String HASH = GenerationManifest.fingerprint(DOCUMENT);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+
+    @Test
+    public void extensions() {
+        Map<String, Object> extensions = GqlPersistedQuery.extensions(HASH);
+
+        Map<?, ?> persistedQuery = (Map<?, ?>) extensions.get("persistedQuery");
+        assertEquals(1, persistedQuery.get("version"));
+        assertEquals(HASH, persistedQuery.get("sha256Hash"));
+    }
+
+
+    @Test
+    public void generatedEndpoint() throws Exception {
+        Path generationFolder = temporaryFolder.newFolder("persisted").toPath();
+        Path classesFolder = temporaryFolder.newFolder("persisted-classes").toPath();
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setPersistedQueries(true);
+        String schema = "type Query { user(id: ID!): User }\n"
+                + "type User { id: ID }\n";
+
+        Set<String> stored = ConcurrentHashMap.newKeySet();
+        GqlJavaGenerator.generateJavaClasses(new ByteArrayInputStream(schema.getBytes(StandardCharsets.UTF_8)),
+                generationFolder.toString(), GENERATED_PACKAGE_NAME, configuration);
+        compile(generationFolder, classesFolder);
+
+        try (StubGraphQLServer server = new StubGraphQLServer(request -> apq(stored, request));
+             URLClassLoader classLoader = new URLClassLoader(new URL[]{classesFolder.toUri().toURL()},
+                     getClass().getClassLoader())) {
+            Class<?> queryClass = classLoader.loadClass(GENERATED_PACKAGE_NAME + ".Query");
+            Method user = queryClass.getMethod("user", String.class);
+            try (AutoCloseable query = (AutoCloseable) queryClass.getConstructor(String.class, String.class)
+                    .newInstance(server.url(), "token")) {
+                Object result = user.invoke(query, "1");
+                assertEquals("1", result.getClass().getMethod("getId").invoke(result));
+                assertEquals(2, server.requests().size());
+
+                user.invoke(query, "1");
+            }
+
+            List<JsonNode> requests = new ArrayList<>();
+            for (String request : server.requests()) {
+                requests.add(objectMapper.readTree(request));
+            }
+            assertEquals(3, requests.size());
+            assertFalse(requests.get(0).has("query"));
+            assertEquals(stored.iterator().next(),
+                    requests.get(0).path("extensions").path("persistedQuery").path("sha256Hash").asText());
+            assertTrue(requests.get(1).get("query").asText().startsWith("query user($id: ID!)"));
+            assertFalse(requests.get(2).has("query"));
+            assertEquals("1", requests.get(2).path("variables").path("id").asText());
+        }
+    }
+
+
+    @Test
+    public void otherErrorsAreNotNotFound() throws IOException {
+        JsonNode body = objectMapper.readTree("[{\"message\": \"denied\", \"extensions\": {\"code\": \"FORBIDDEN\"}}]");
+
+        assertFalse(new GqlResponseException("user", body).isPersistedQueryNotFound());
+    }
+
+
+    /**
+     * Answer like a server supporting automatic persisted queries: unknown hashes without document are rejected,
+     * documents matching their hash are stored.
+     */
+    private String apq(Set<String> stored, String body) {
+        try {
+            JsonNode request = objectMapper.readTree(body);
+            String hash = request.path("extensions").path("persistedQuery").path("sha256Hash").asText();
+            if (request.hasNonNull("query")) {
+                if (!hash.equals(GenerationManifest.fingerprint(request.get("query").asText()))) {
+                    return "{\"errors\": [{\"message\": \"provided sha does not match query\"}]}";
+                }
+                stored.add(hash);
+            } else if (!stored.contains(hash)) {
+                return "{\"errors\": [{\"message\": \"PersistedQueryNotFound\", "
+                        + "\"extensions\": {\"code\": \"PERSISTED_QUERY_NOT_FOUND\"}}]}";
+            }
+            return "{\"data\": {\"user\": {\"id\": \"1\"}}}";
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
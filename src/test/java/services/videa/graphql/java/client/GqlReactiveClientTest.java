@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import services.videa.graphql.java.endpoints.fakes.UserNodeFake;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class GqlReactiveClientTest {
+
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+
+    @Test
+    public void executeAsync() throws Exception {
+        try (StubGraphQLServer server = new StubGraphQLServer(
+                request -> "{\"data\": {\"user\": {\"id\": \"VXNlcjox\", \"pk\": 1}}}")) {
+            GqlReactiveClient client = new GqlReactiveClient(server.url(), "secret", objectMapper);
+
+            UserNodeFake user = client.executeAsync(request("query { user { id pk } }"), "user", UserNodeFake.class)
+                    .get();
+
+            assertEquals("VXNlcjox", user.getId());
+            assertEquals("{\"query\":\"query { user { id pk } }\",\"variables\":{}}", server.requests().peek());
+            assertEquals("Token secret", server.authorizations().peek());
+        }
+    }
+
+
+    @Test
+    public void monoIsLazy() throws Exception {
+        try (StubGraphQLServer server = new StubGraphQLServer(request -> "{\"data\": {\"user\": {\"id\": \"1\"}}}")) {
+            GqlReactiveClient client = new GqlReactiveClient(server.url(), "secret", objectMapper);
+
+            Mono<UserNodeFake> mono = client.execute(request("query { user { id } }"), "user",
+                    UserNodeFake.class);
+            assertTrue(server.requests().isEmpty());
+
+            assertEquals("1", mono.block().getId());
+            assertEquals(1, server.requests().size());
+        }
+    }
+
+
+    @Test
+    public void errors() throws IOException, InterruptedException {
+        try (StubGraphQLServer server = new StubGraphQLServer(
+                request -> "{\"errors\": [{\"message\": \"denied\"}], \"data\": {\"user\": null}}")) {
+            GqlReactiveClient client = new GqlReactiveClient(server.url(), "secret", objectMapper);
+
+            client.executeAsync(request("query { user { id } }"), "user", UserNodeFake.class).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof GqlResponseException);
+            assertEquals("denied", ((GqlResponseException) e.getCause()).getErrors().get(0).get("message").asText());
+        }
+    }
+
+
+    @Test
+    public void fanOutWithoutThreadPerRequest() throws Exception {
+        try (StubGraphQLServer server = new StubGraphQLServer(
+                request -> "{\"data\": {\"user\": {\"id\": \"1\"}}}", 200)) {
+            GqlReactiveClient client = new GqlReactiveClient(server.url(), "secret", objectMapper);
+            client.executeAsync(request("query { user { id } }"), "user", UserNodeFake.class).get();
+
+            long start = System.nanoTime();
+            List<CompletableFuture<UserNodeFake>> futures = IntStream.range(0, 50)
+                    .mapToObj(i -> client.executeAsync(request("query { user { id } }"), "user", UserNodeFake.class))
+                    .collect(Collectors.toList());
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+            long millis = (System.nanoTime() - start) / 1_000_000;
+
+            // 50 sequential calls would take at least 10 seconds
+            assertTrue("Fan-out took " + millis + " ms", millis < 5000);
+            futures.forEach(future -> assertEquals("1", future.join().getId()));
+        }
+    }
+
+
+    @Test
+    public void gzipResponse() throws Exception {
+        try (StubGraphQLServer server = new StubGraphQLServer(request -> "{\"data\": {\"user\": {\"id\": \"1\"}}}")) {
+            GqlTransportSettings settings = new GqlTransportSettings();
+            settings.setMaxConnectionsPerRoute(2);
+            GqlReactiveClient client = new GqlReactiveClient(server.url(), "secret", objectMapper, settings);
+
+            assertEquals("1", client.executeAsync(request("query { user { id } }"), "user", UserNodeFake.class)
+                    .get().getId());
+            assertTrue(server.acceptEncodings().peek().contains("gzip"));
+        }
+    }
+
+
+    private static Map<String, Object> request(String query) {
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("query", query);
+        request.put("variables", Collections.emptyMap());
+        return request;
+    }
+
+}
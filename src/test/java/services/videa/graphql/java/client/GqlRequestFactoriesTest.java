@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import org.junit.Test;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GqlRequestFactoriesTest {
+
+    @Test
+    public void pooledGzip() throws IOException {
+        try (StubGraphQLServer server = new StubGraphQLServer(request -> "{\"data\": {\"user\": {\"id\": \"1\"}}}")) {
+            ClientHttpRequestFactory requestFactory = GqlRequestFactories.pooled(new GqlTransportSettings());
+            assertTrue(requestFactory instanceof HttpComponentsClientHttpRequestFactory);
+
+            RestTemplate restTemplate = new RestTemplate(requestFactory);
+            for (int i = 0; i < 3; i++) {
+                assertEquals("{\"data\": {\"user\": {\"id\": \"1\"}}}",
+                        restTemplate.postForObject(server.url(), "{}", String.class));
+            }
+            assertTrue(server.acceptEncodings().stream().allMatch(encoding -> encoding.contains("gzip")));
+        }
+    }
+
+
+    @Test
+    public void pooledWithoutGzip() throws IOException {
+        try (StubGraphQLServer server = new StubGraphQLServer(request -> "{\"data\": {}}")) {
+            GqlTransportSettings settings = new GqlTransportSettings();
+            settings.setGzip(false);
+
+            RestTemplate restTemplate = new RestTemplate(GqlRequestFactories.pooled(settings));
+
+            assertEquals("{\"data\": {}}", restTemplate.postForObject(server.url(), "{}", String.class));
+            assertFalse(server.acceptEncodings().peek().contains("gzip"));
+        }
+    }
+
+
+    @Test
+    public void close() throws IOException {
+        try (StubGraphQLServer server = new StubGraphQLServer(request -> "{\"data\": {}}")) {
+            ClientHttpRequestFactory requestFactory = GqlRequestFactories.pooled(new GqlTransportSettings());
+            RestTemplate restTemplate = new RestTemplate(requestFactory);
+            assertEquals("{\"data\": {}}", restTemplate.postForObject(server.url(), "{}", String.class));
+
+            GqlRequestFactories.close(requestFactory);
+            GqlRequestFactories.close(null);
+
+            try {
+                restTemplate.postForObject(server.url(), "{}", String.class);
+                fail("Request factory still open");
+            } catch (IllegalStateException e) {
+                assertEquals("Connection pool shut down", e.getMessage());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import services.videa.graphql.java.endpoints.fakes.PageInfoFake;
+import services.videa.graphql.java.endpoints.fakes.UserNodeConnectionFake;
+import services.videa.graphql.java.endpoints.fakes.UserNodeEdgeFake;
+import services.videa.graphql.java.endpoints.fakes.UserNodeFake;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Compares the former response handling of generated endpoints, which bound the response to an object, converted
+ * it to a map and serialized and parsed the operation's value again, with the single pass of
+ * {@link GqlResponseReader}. The response is a user connection of several megabytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GqlResponseReaderBenchmark {
+
+    @Param({"10000"})
+    public int edges;
+
+    private ObjectMapper objectMapper;
+    private byte[] response;
+
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper();
+
+        List<UserNodeEdgeFake> edgeList = new ArrayList<>();
+        for (int i = 0; i < edges; i++) {
+            UserNodeFake user = new UserNodeFake();
+            user.setId("VXNlck5vZGU6" + i);
+            user.setPk(i);
+            user.setUsername("user.name." + i);
+            user.setEmail("user.name." + i + "@mailinator.com");
+            user.setFirstName("User");
+            user.setLastName("Name");
+            user.setFullName("User Name");
+            user.setZip("77777");
+            user.setCity("City");
+            user.setAddress("Street " + i);
+
+            UserNodeEdgeFake edge = new UserNodeEdgeFake();
+            edge.setNode(user);
+            edge.setCursor("YXJyYXljb25uZWN0aW9uOj" + i);
+            edgeList.add(edge);
+        }
+
+        UserNodeConnectionFake connection = new UserNodeConnectionFake();
+        connection.setPageInfo(new PageInfoFake());
+        connection.setEdges(edgeList);
+
+        response = objectMapper.writeValueAsBytes(
+                Collections.singletonMap("data", Collections.singletonMap("allUsers", connection)));
+    }
+
+
+    @Benchmark
+    public UserNodeConnectionFake multiplePasses() throws IOException {
+        Object body = objectMapper.readValue(response, Object.class);
+        Map map = objectMapper.convertValue(body, Map.class);
+        Map nodeMap = (Map) ((Map) map.get("data")).get("allUsers");
+        String responseJson = objectMapper.writeValueAsString(nodeMap);
+        return objectMapper.readValue(responseJson, UserNodeConnectionFake.class);
+    }
+
+
+    @Benchmark
+    public UserNodeConnectionFake singlePass() throws IOException {
+        return GqlResponseReader.read(objectMapper, new ByteArrayInputStream(response), "allUsers",
+                UserNodeConnectionFake.class);
+    }
+
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GqlResponseReaderBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import services.videa.graphql.java.endpoints.fakes.CreateUserPayloadFake;
+import services.videa.graphql.java.endpoints.fakes.UserNodeEdgeFake;
+import services.videa.graphql.java.endpoints.fakes.UserNodeFake;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class GqlResponseReaderTest {
+
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+
+    @Test
+    public void readOperation() throws IOException {
+        String json = "{\"data\": {\"createUser\": {\"user\": {\"id\": \"VXNlcjox\", \"pk\": 1}, "
+                + "\"clientMutationId\": \"42\"}}}";
+
+        CreateUserPayloadFake payload = GqlResponseReader.read(objectMapper, body(json), "createUser",
+                CreateUserPayloadFake.class);
+
+        assertEquals("42", payload.getClientMutationId());
+        assertEquals("VXNlcjox", payload.getUser().getId());
+        assertEquals(Integer.valueOf(1), payload.getUser().getPk());
+    }
+
+
+    @Test
+    public void skipOtherFields() throws IOException {
+        String json = "{\"extensions\": {\"cost\": [1, 2]}, \"data\": {\"other\": {\"id\": \"1\"}, "
+                + "\"user\": {\"id\": \"2\"}, \"last\": null}}";
+
+        UserNodeFake user = GqlResponseReader.read(objectMapper, body(json), "user", UserNodeFake.class);
+
+        assertEquals("2", user.getId());
+    }
+
+
+    @Test
+    public void nullResult() throws IOException {
+        String json = "{\"data\": {\"user\": null}}";
+
+        assertNull(GqlResponseReader.read(objectMapper, body(json), "user", UserNodeFake.class));
+    }
+
+
+    @Test
+    public void errors() throws IOException {
+        String json = "{\"errors\": [{\"message\": \"Permission denied\"}], \"data\": {\"user\": null}}";
+
+        try {
+            GqlResponseReader.read(objectMapper, body(json), "user", UserNodeFake.class);
+            fail("GqlResponseException expected");
+        } catch (GqlResponseException e) {
+            assertEquals("Permission denied", e.getErrors().get(0).get("message").asText());
+        }
+    }
+
+
+    @Test
+    public void streamEdges() throws IOException {
+        String json = "{\"data\": {\"allUsers\": {\"pageInfo\": {\"hasNextPage\": false}, \"edges\": ["
+                + "{\"cursor\": \"a\", \"node\": {\"id\": \"1\"}}, {\"cursor\": \"b\", \"node\": {\"id\": \"2\"}}]}}}";
+
+        try (Stream<UserNodeEdgeFake> edges = GqlResponseReader.stream(objectMapper, body(json), "allUsers", "edges",
+                UserNodeEdgeFake.class)) {
+            assertEquals(Arrays.asList("1", "2"), edges.map(edge -> edge.getNode().getId()).collect(Collectors.toList()));
+        }
+    }
+
+
+    @Test
+    public void streamClosesBody() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        InputStream body = new FilterInputStream(body("{\"data\": {\"allUsers\": {\"edges\": [{\"cursor\": \"a\"}, "
+                + "{\"cursor\": \"b\"}]}}}")) {
+            @Override
+            public void close() throws IOException {
+                closed.set(true);
+                super.close();
+            }
+        };
+
+        try (Stream<UserNodeEdgeFake> edges = GqlResponseReader.stream(objectMapper, body, "allUsers", "edges",
+                UserNodeEdgeFake.class)) {
+            assertEquals("a", edges.findFirst().get().getCursor());
+            assertFalse(closed.get());
+        }
+        assertTrue(closed.get());
+    }
+
+
+    @Test
+    public void streamNullResult() throws IOException {
+        String json = "{\"data\": {\"allUsers\": null}}";
+
+        assertEquals(0, GqlResponseReader.stream(objectMapper, body(json), "allUsers", "edges",
+                UserNodeEdgeFake.class).count());
+    }
+
+
+    @Test(expected = GqlResponseException.class)
+    public void streamErrors() throws IOException {
+        String json = "{\"errors\": [{\"message\": \"Permission denied\"}], \"data\": {\"allUsers\": null}}";
+
+        GqlResponseReader.stream(objectMapper, body(json), "allUsers", "edges", UserNodeEdgeFake.class);
+    }
+
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
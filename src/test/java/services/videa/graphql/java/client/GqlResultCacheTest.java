@@ -0,0 +1,149 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import services.videa.graphql.java.endpoints.fakes.UserNodeFake;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class GqlResultCacheTest {
+
+    private ObjectMapper objectMapper = new ObjectMapper();
+    private GqlTransportSettings settings = new GqlTransportSettings();
+    private AtomicInteger requests = new AtomicInteger();
+
+
+    @Test
+    public void hitAndMiss() throws IOException {
+        GqlResultCache cache = new GqlResultCache(objectMapper, settings);
+
+        UserNodeFake first = cache.get("user", arguments("1"), 60_000, UserNodeFake.class, () -> user("1"));
+        UserNodeFake second = cache.get("user", arguments("1"), 60_000, UserNodeFake.class, () -> user("1"));
+        cache.get("user", arguments("2"), 60_000, UserNodeFake.class, () -> user("2"));
+
+        assertEquals("1", second.getId());
+        assertNotSame(first, second);
+        assertEquals(2, requests.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.size());
+    }
+
+
+    @Test
+    public void expire() throws Exception {
+        GqlResultCache cache = new GqlResultCache(objectMapper, settings);
+
+        cache.get("user", arguments("1"), 10, UserNodeFake.class, () -> user("1"));
+        Thread.sleep(50);
+        cache.get("user", arguments("1"), 10, UserNodeFake.class, () -> user("1"));
+
+        assertEquals(2, requests.get());
+    }
+
+
+    @Test
+    public void evictByWeight() throws IOException {
+        settings.setResultCacheMaxBytes(60);
+        GqlResultCache cache = new GqlResultCache(objectMapper, settings);
+
+        cache.get("user", arguments("1"), 60_000, UserNodeFake.class, () -> user("1"));
+        cache.get("user", arguments("2"), 60_000, UserNodeFake.class, () -> user("2"));
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertTrue(cache.getWeight() <= 60);
+    }
+
+
+    @Test
+    public void nullNotCached() throws IOException {
+        GqlResultCache cache = new GqlResultCache(objectMapper, settings);
+
+        assertNull(cache.get("user", arguments("1"), 60_000, UserNodeFake.class, () -> null));
+        assertEquals(0, cache.size());
+    }
+
+
+    @Test
+    public void invalidate() throws IOException {
+        GqlResultCache cache = new GqlResultCache(objectMapper, settings);
+        cache.get("user", arguments("1"), 60_000, UserNodeFake.class, () -> user("1"));
+        cache.get("users", Collections.emptyMap(), 60_000, UserNodeFake.class, () -> user("2"));
+
+        cache.invalidate("user");
+
+        assertEquals(1, cache.size());
+    }
+
+
+    @Test
+    public void singleRequestForConcurrentMisses() throws Exception {
+        GqlResultCache cache = new GqlResultCache(objectMapper, settings);
+        CountDownLatch loading = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<UserNodeFake>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executorService.submit(() -> cache.get("user", arguments("1"), 60_000,
+                        UserNodeFake.class, () -> {
+                            await(loading);
+                            return user("1");
+                        })));
+            }
+            Thread.sleep(100);
+            loading.countDown();
+
+            for (Future<UserNodeFake> future : futures) {
+                assertEquals("1", future.get().getId());
+            }
+            assertEquals(1, requests.get());
+            assertEquals(1, cache.getMisses());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+
+    private JsonNode user(String id) throws IOException {
+        requests.incrementAndGet();
+        return objectMapper.readTree("{\"id\": \"" + id + "\", \"pk\": 1}");
+    }
+
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
+
+
+    private static Map<String, Object> arguments(String id) {
+        return Collections.singletonMap("id", id);
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.client;
+
+import org.junit.Test;
+
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GqlSelectionTest {
+
+    /**
+     * Selection as generated for 'type User { id: ID email: String friends: [User] }'.
+     */
+    static class UserSelection extends GqlSelection {
+
+        static UserSelection select() {
+            return new UserSelection();
+        }
+
+        UserSelection id() {
+            field("id");
+            return this;
+        }
+
+        UserSelection email() {
+            field("email");
+            return this;
+        }
+
+        UserSelection friends(Consumer<? super UserSelection> selection) {
+            field("friends", new UserSelection(), selection);
+            return this;
+        }
+    }
+
+
+    @Test
+    public void render() {
+        UserSelection selection = UserSelection.select().id().email().friends(friend -> friend.id());
+
+        assertEquals("{ id email friends { id } } ", selection.render());
+        assertEquals("query user($id: ID!) { user(id: $id) { id email friends { id } } }",
+                new GqlOperation("query", "user", selection.render()).argument("id", "ID!").document());
+    }
+
+
+    @Test
+    public void emptySubSelection() {
+        assertEquals("{ id } ", UserSelection.select().id().friends(friend -> { }).render());
+    }
+
+
+    @Test(expected = IllegalStateException.class)
+    public void emptySelection() {
+        UserSelection selection = UserSelection.select();
+
+        assertTrue(selection.isEmpty());
+        selection.render();
+    }
+
+}
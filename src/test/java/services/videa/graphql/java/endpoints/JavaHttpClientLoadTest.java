@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.endpoints;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import services.videa.graphql.java.AbstractGraphQLJavaTest;
+import services.videa.graphql.java.ClientTransport;
+import services.videa.graphql.java.GeneratorConfiguration;
+import services.videa.graphql.java.GqlJavaGenerator;
+import services.videa.graphql.java.client.StubGraphQLServer;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertNotNull;
+
+
+/**
+ * Load test of endpoints generated with the java.net.http client. The generated classes are compiled at test time,
+ * so the test requires JDK 11 and is skipped otherwise. Virtual threads are measured if the JDK provides them.
+ * The test takes several seconds and is excluded from the default build, run it with
+ * {@code mvn test -Dtest=JavaHttpClientLoadTest}.
+ */
+public class JavaHttpClientLoadTest extends AbstractGraphQLJavaTest {
+    private static Logger logger = LoggerFactory.getLogger(JavaHttpClientLoadTest.class);
+
+    private static final int CALLS = 1000;
+    private static final long LATENCY_MILLIS = 20;
+    private static final String VIRTUAL = "virtual";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+    @Test
+    public void throughputPerThreadModel() throws Exception {
+        Assume.assumeFalse("java.net.http requires JDK 11",
+                System.getProperty("java.specification.version").startsWith("1."));
+
+        Path generationFolder = temporaryFolder.newFolder("http-client").toPath();
+        Path classesFolder = temporaryFolder.newFolder("http-client-classes").toPath();
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setTransport(ClientTransport.JAVA_HTTP_CLIENT);
+        try (InputStream inputStream = new FileInputStream("src/test/resources/graphql-java-test.gql")) {
+            GqlJavaGenerator.generateJavaClasses(inputStream, generationFolder.toString(), PACKAGE_NAME,
+                    configuration);
+        }
+        compile(generationFolder, classesFolder);
+
+        // Bounded pools run the blocking calls only, the HTTP client keeps its default executor
+        Map<String, Supplier<ExecutorService>> threadModels = new LinkedHashMap<>();
+        threadModels.put("platform-16", () -> Executors.newFixedThreadPool(16));
+        threadModels.put("platform-128", () -> Executors.newFixedThreadPool(128));
+        Method virtualThreads = virtualThreadExecutor();
+        if (virtualThreads != null) {
+            threadModels.put(VIRTUAL, () -> invoke(virtualThreads));
+        } else {
+            logger.info("virtual: not available on this JDK");
+        }
+
+        String response = "{\"data\": {\"membership\": {\"id\": \"1\", \"note\": \"load\"}}}";
+        try (StubGraphQLServer server = new StubGraphQLServer(request -> response, LATENCY_MILLIS);
+             URLClassLoader classLoader = new URLClassLoader(new URL[]{classesFolder.toUri().toURL()},
+                     getClass().getClassLoader())) {
+            Class<?> queryClass = classLoader.loadClass(PACKAGE_NAME + ".Query");
+            Method membership = queryClass.getMethod("membership", String.class);
+
+            for (Map.Entry<String, Supplier<ExecutorService>> threadModel : threadModels.entrySet()) {
+                ExecutorService executorService = threadModel.getValue().get();
+                Executor clientExecutor = VIRTUAL.equals(threadModel.getKey()) ? executorService : null;
+                try (AutoCloseable query = (AutoCloseable) queryClass
+                        .getConstructor(String.class, String.class, Executor.class)
+                        .newInstance(server.url(), "token", clientExecutor)) {
+                    long start = System.nanoTime();
+                    List<Future<Object>> futures = new ArrayList<>();
+                    for (int i = 0; i < CALLS; i++) {
+                        futures.add(executorService.submit(() -> membership.invoke(query, "1")));
+                    }
+                    for (Future<Object> future : futures) {
+                        assertNotNull(future.get());
+                    }
+                    long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+                    logger.info("{}: {} calls in {} ms, {} calls/s", threadModel.getKey(), CALLS, millis,
+                            CALLS * 1000L / millis);
+                } finally {
+                    executorService.shutdownNow();
+                }
+            }
+        }
+    }
+
+
+    private static Method virtualThreadExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+
+    private static ExecutorService invoke(Method factory) {
+        try {
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
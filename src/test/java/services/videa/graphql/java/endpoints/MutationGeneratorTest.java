@@ -57,7 +57,8 @@ public class MutationGeneratorTest extends AbstractGraphQLJavaTest {
         try {
             ObjectTypeDefinition queryTypeDefinition = gqlSchemaParser.objectTypes().get("Mutation");
             MutationGenerator mutationGenerator
-                    = new MutationGenerator(queryTypeDefinition, gqlSchemaParser.scalars(), SRC_FOLDER, PACKAGE_NAME);
+                    = new MutationGenerator(queryTypeDefinition, gqlSchemaParser.types(),
+                    gqlSchemaParser.scalars(), SRC_FOLDER, PACKAGE_NAME);
 
             mutationGenerator.generate();
 
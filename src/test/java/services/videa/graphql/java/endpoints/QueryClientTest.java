@@ -0,0 +1,272 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.endpoints;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import services.videa.graphql.java.AbstractGraphQLJavaTest;
+import services.videa.graphql.java.GeneratorConfiguration;
+import services.videa.graphql.java.GqlJavaGenerator;
+import services.videa.graphql.java.client.GqlBatchResult;
+import services.videa.graphql.java.client.GqlPaginator;
+import services.videa.graphql.java.client.GqlTransportSettings;
+import services.videa.graphql.java.client.StubGraphQLServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Calls a generated query client against {@link StubGraphQLServer}. The client is generated once with batch,
+ * coalescing, normalized cache, streaming and paginating methods and compiled at test time.
+ */
+public class QueryClientTest extends AbstractGraphQLJavaTest {
+
+    private static final String GENERATED_PACKAGE_NAME = PACKAGE_NAME + ".clients";
+    private static final String SCHEMA = "type Query { user(id: ID!): User users(first: Int, after: String): "
+            + "UserConnection }\n"
+            + "type User { id: ID! name: String }\n"
+            + "type UserConnection { edges: [UserEdge] pageInfo: PageInfo }\n"
+            + "type UserEdge { cursor: String node: User }\n"
+            + "type PageInfo { hasNextPage: Boolean endCursor: String }\n";
+
+    @ClassRule
+    public static TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static URLClassLoader classLoader;
+    private static Class<?> queryClass;
+
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+
+    @BeforeClass
+    public static void generateClient() throws Exception {
+        Path generationFolder = temporaryFolder.newFolder("client").toPath();
+        Path classesFolder = temporaryFolder.newFolder("client-classes").toPath();
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setBatchMethods(true);
+        configuration.setCoalescingMethods(true);
+        configuration.setNormalizedCache(true);
+        configuration.setStreamingMethods(true);
+        configuration.setPaginationMethods(true);
+
+        GqlJavaGenerator.generateJavaClasses(new ByteArrayInputStream(SCHEMA.getBytes(StandardCharsets.UTF_8)),
+                generationFolder.toString(), GENERATED_PACKAGE_NAME, configuration);
+        compile(generationFolder, classesFolder);
+
+        classLoader = new URLClassLoader(new URL[]{classesFolder.toUri().toURL()},
+                QueryClientTest.class.getClassLoader());
+        queryClass = classLoader.loadClass(GENERATED_PACKAGE_NAME + ".Query");
+    }
+
+
+    @AfterClass
+    public static void closeClassLoader() throws IOException {
+        classLoader.close();
+    }
+
+
+    @Test
+    public void batch() throws Exception {
+        try (StubGraphQLServer server = new StubGraphQLServer(this::answer);
+             AutoCloseable query = query(server, new GqlTransportSettings())) {
+            Object batch = invoke(query, "batch");
+            GqlBatchResult<?> first = (GqlBatchResult<?>) invoke(batch, "user", "1");
+            GqlBatchResult<?> second = (GqlBatchResult<?>) invoke(batch, "user", "2");
+            invoke(batch, "execute");
+
+            assertEquals("1", invoke(first.get(), "getId"));
+            assertEquals("user 2", invoke(second.get(), "getName"));
+            assertEquals(1, server.requests().size());
+            assertTrue(query(server.requests().peek()).contains("user_1: user(id: $user_1_id)"));
+        }
+    }
+
+
+    @Test
+    public void coalescing() throws Exception {
+        GqlTransportSettings settings = new GqlTransportSettings();
+        settings.setCoalescingWindowMillis(0);
+        try (StubGraphQLServer server = new StubGraphQLServer(this::answer);
+             AutoCloseable query = query(server, settings)) {
+            CompletableFuture<?> first = (CompletableFuture<?>) invoke(query, "userCoalesced", "1");
+            CompletableFuture<?> second = (CompletableFuture<?>) invoke(query, "userCoalesced", "2");
+            CompletableFuture<?> again = (CompletableFuture<?>) invoke(query, "userCoalesced", "1");
+            assertSame(first, again);
+            assertTrue(server.requests().isEmpty());
+
+            invoke(query, "dispatch");
+
+            assertEquals("1", invoke(first.get(), "getId"));
+            assertEquals("2", invoke(second.get(), "getId"));
+            assertEquals(1, server.requests().size());
+        }
+    }
+
+
+    @Test
+    public void normalizedCache() throws Exception {
+        try (StubGraphQLServer server = new StubGraphQLServer(this::answer);
+             AutoCloseable query = query(server, new GqlTransportSettings())) {
+            Object user = invoke(query, "user", "1");
+            Object cached = invoke(query, "user", "1");
+            invoke(query, "user", "2");
+
+            assertEquals("user 1", invoke(user, "getName"));
+            assertEquals(user, cached);
+            assertEquals(2, server.requests().size());
+            assertTrue(query(server.requests().peek()).contains("{ __typename id name }"));
+        }
+    }
+
+
+    @Test
+    public void streaming() throws Exception {
+        try (StubGraphQLServer server = new StubGraphQLServer(this::answer);
+             AutoCloseable query = query(server, new GqlTransportSettings());
+             Stream<?> edges = (Stream<?>) invoke(query, "usersStream", 2, null)) {
+            assertEquals(Arrays.asList("0", "1"), edges.map(QueryClientTest::nodeId).collect(Collectors.toList()));
+            assertEquals(1, server.requests().size());
+        }
+    }
+
+
+    @Test
+    public void pagination() throws Exception {
+        try (StubGraphQLServer server = new StubGraphQLServer(this::answer);
+             AutoCloseable query = query(server, new GqlTransportSettings());
+             GqlPaginator<?> paginator = (GqlPaginator<?>) invoke(query, "usersIterator", 2)) {
+            List<String> ids = new ArrayList<>();
+            paginator.forEachRemaining(edge -> ids.add(nodeId(edge)));
+
+            assertEquals(Arrays.asList("0", "1", "2", "3", "4", "5"), ids);
+            List<String> cursors = new ArrayList<>();
+            for (String request : server.requests()) {
+                cursors.add(objectMapper.readTree(request).path("variables").path("after").asText(null));
+            }
+            assertEquals(Arrays.asList(null, "c1", "c2"), cursors);
+        }
+    }
+
+
+    private AutoCloseable query(StubGraphQLServer server, GqlTransportSettings settings) throws Exception {
+        return (AutoCloseable) queryClass.getConstructor(String.class, String.class, GqlTransportSettings.class)
+                .newInstance(server.url(), "token", settings);
+    }
+
+
+    private String query(String request) {
+        try {
+            return objectMapper.readTree(request).path("query").asText();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /**
+     * Answer a user for every 'id' variable of single and aliased operations. The users' connection has three pages
+     * of two edges each, the second and third after the cursors 'c1' and 'c2'.
+     */
+    private String answer(String body) {
+        try {
+            JsonNode request = objectMapper.readTree(body);
+            JsonNode variables = request.path("variables");
+            String query = request.path("query").asText();
+            boolean typename = query.contains("__typename");
+            if (query.contains("users")) {
+                String after = variables.path("after").asText(null);
+                return "{\"data\": {\"users\": "
+                        + page(after == null ? 0 : Integer.parseInt(after.substring(1)), typename) + "}}";
+            }
+
+            StringBuilder data = new StringBuilder();
+            Iterator<String> names = variables.fieldNames();
+            while (names.hasNext()) {
+                String name = names.next();
+                String alias = "id".equals(name) ? "user" : name.substring(0, name.length() - "_id".length());
+                data.append(data.length() == 0 ? "" : ", ").append("\"").append(alias).append("\": ")
+                        .append(user(variables.get(name).asText(), typename));
+            }
+            return "{\"data\": {" + data + "}}";
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    private static String page(int page, boolean typename) {
+        StringBuilder edges = new StringBuilder();
+        for (int i = page * 2; i < page * 2 + 2; i++) {
+            edges.append(edges.length() == 0 ? "" : ", ")
+                    .append("{").append(typename(typename, "UserEdge")).append("\"cursor\": \"e").append(i)
+                    .append("\", \"node\": ").append(user(String.valueOf(i), typename)).append("}");
+        }
+        return "{" + typename(typename, "UserConnection") + "\"edges\": [" + edges + "], \"pageInfo\": {"
+                + typename(typename, "PageInfo") + "\"hasNextPage\": " + (page < 2) + ", \"endCursor\": \"c"
+                + (page + 1) + "\"}}";
+    }
+
+
+    private static String user(String id, boolean typename) {
+        return "{" + typename(typename, "User") + "\"id\": \"" + id + "\", \"name\": \"user " + id + "\"}";
+    }
+
+
+    private static String typename(boolean typename, String type) {
+        return typename ? "\"__typename\": \"" + type + "\", " : "";
+    }
+
+
+    private static String nodeId(Object edge) {
+        try {
+            return (String) invoke(invoke(edge, "getNode"), "getId");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    private static Object invoke(Object target, String name, Object... arguments) throws Exception {
+        for (Method method : target.getClass().getMethods()) {
+            if (method.getName().equals(name) && method.getParameterCount() == arguments.length) {
+                try {
+                    return method.invoke(target, arguments);
+                } catch (InvocationTargetException e) {
+                    throw (Exception) e.getCause();
+                }
+            }
+        }
+        throw new NoSuchMethodException(name);
+    }
+
+}
@@ -12,20 +12,32 @@ package services.videa.graphql.java.endpoints;
 
 import graphql.language.ObjectTypeDefinition;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import services.videa.graphql.java.AbstractGraphQLJavaTest;
+import services.videa.graphql.java.ClientTransport;
+import services.videa.graphql.java.GeneratorConfiguration;
 import services.videa.graphql.java.schema.GqlSchemaLoader;
 import services.videa.graphql.java.schema.GqlSchemaParser;
 import services.videa.graphql.java.enums.EnumGenerator;
 import services.videa.graphql.java.inputs.InputGenerator;
+import services.videa.graphql.java.rendering.SelectionSetRenderer;
 import services.videa.graphql.java.interfaces.InterfaceGenerator;
 import services.videa.graphql.java.types.TypeGenerator;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class QueryGeneratorTest extends AbstractGraphQLJavaTest {
 
@@ -35,6 +47,9 @@ public class QueryGeneratorTest extends AbstractGraphQLJavaTest {
 
     private TypeGenerator typeGenerator;
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Before
     public void setUp() {
         super.setUp();
@@ -60,7 +75,8 @@ public class QueryGeneratorTest extends AbstractGraphQLJavaTest {
         try {
             ObjectTypeDefinition queryTypeDefinition = gqlSchemaParser.objectTypes().get("Query");
             QueryGenerator queryGenerator
-                    = new QueryGenerator(queryTypeDefinition, gqlSchemaParser.scalars(), SRC_FOLDER, PACKAGE_NAME);
+                    = new QueryGenerator(queryTypeDefinition, gqlSchemaParser.types(),
+                    gqlSchemaParser.scalars(), SRC_FOLDER, PACKAGE_NAME);
 
             queryGenerator.generate();
 
@@ -74,4 +90,276 @@ public class QueryGeneratorTest extends AbstractGraphQLJavaTest {
 
     }
 
+
+    @Test
+    public void generateWithVariables() throws IOException {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setUseVariables(true);
+
+        String query = generateQuery(configuration);
+        assertTrue(query.contains("\"query sharingGroup($id: ID!) { sharingGroup(id: $id) "
+                + "{ name description id url pk } }\""));
+        assertTrue(query.contains("variables.put(\"id\", id);"));
+        assertTrue(query.contains("this(url, token, settings, GqlRequestFactories.pooled(settings), true);"));
+        assertTrue(query.contains("public class Query implements AutoCloseable {"));
+        assertTrue(query.contains("GqlRequestFactories.close(ownedRequestFactory);"));
+        assertTrue(query.contains("public Query(String url, String token, ClientHttpRequestFactory requestFactory)"));
+    }
+
+
+    @Test
+    public void generateAsyncMethods() throws IOException {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setAsyncMethods(true);
+        configuration.setReactiveMethods(true);
+
+        String query = generateQuery(configuration);
+        assertTrue(query.contains("public CompletableFuture<SharingGroupNode> sharingGroupAsync(String id)"));
+        assertTrue(query.contains("public Mono<SharingGroupNode> sharingGroupMono(String id)"));
+        assertTrue(query.contains("return reactiveClient.executeAsync(request, \"sharingGroup\", "
+                + "SharingGroupNode.class);"));
+        assertTrue(query.contains("this.reactiveClient = new GqlReactiveClient(url, token, this.gqlObjectMapper, "
+                + "settings);"));
+        assertTrue(query.contains("reactiveClient.close();"));
+    }
+
+
+    @Test
+    public void generateBatchMethods() throws IOException {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setBatchMethods(true);
+
+        String query = generateQuery(configuration);
+        assertTrue(query.contains("SHARING_GROUP_OPERATION = new GqlOperation(\"query\", \"sharingGroup\", "
+                + "\"{ name description id url pk } \")"));
+        assertTrue(query.contains(".argument(\"id\", \"ID!\")"));
+        assertTrue(query.contains("public class Batch {"));
+        assertTrue(query.contains("public GqlBatchResult<SharingGroupNode> sharingGroup(String id)"));
+        assertTrue(query.contains("return batch.add(SHARING_GROUP_OPERATION, variables, SharingGroupNode.class);"));
+        assertTrue(query.contains("public Batch batch(GqlBatchMode mode)"));
+    }
+
+
+    @Test
+    public void generateCoalescingMethods() throws IOException {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setCoalescingMethods(true);
+
+        String query = generateQuery(configuration);
+        assertTrue(query.contains("public CompletableFuture<SharingGroupNode> sharingGroupCoalesced(String id)"));
+        assertTrue(query.contains("return coalescer.load(SHARING_GROUP_OPERATION, variables, "
+                + "SharingGroupNode.class);"));
+        assertTrue(query.contains("this.coalescer = new GqlCoalescer(this::executeBatch, settings);"));
+        assertFalse(query.contains("public class Batch"));
+    }
+
+
+    @Test
+    public void generateNormalizedCache() throws IOException {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setNormalizedCache(true);
+
+        String query = generateQuery(configuration);
+        assertTrue(query.contains("SHARING_GROUP_CACHED_OPERATION = new GqlOperation(\"query\", "
+                + "\"sharingGroup\", \"{ __typename name description id url pk } \")"));
+        assertTrue(query.contains("\"SharingGroupNode\", \"id\""));
+        assertTrue(query.contains("SharingGroupNode cached = normalizedCache.read(SHARING_GROUP_CACHED_OPERATION, "
+                + "variables, SharingGroupNode.class);"));
+        assertTrue(query.contains("this.normalizedCache = new GqlNormalizedCache(this.gqlObjectMapper, "
+                + "ENTITY_ID_FIELDS, settings);"));
+    }
+
+
+    @Test
+    public void generateResultCache() throws IOException {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.getResultCacheTtlMillis().put("sharingGroup", 30_000L);
+
+        String query = generateQuery(configuration);
+        assertTrue(query.contains("return resultCache.get(\"sharingGroup\", arguments, 30000L, "
+                + "SharingGroupNode.class, () -> {"));
+        assertTrue(query.contains("return executeTree(request, \"sharingGroup\");"));
+        assertTrue(query.contains("this.resultCache = new GqlResultCache(this.gqlObjectMapper, settings);"));
+        assertFalse(query.contains("resultCache.get(\"user\""));
+    }
+
+
+    @Test
+    public void generatePersistedQueries() throws IOException {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setPersistedQueries(true);
+
+        String query = generateQuery(configuration);
+        assertTrue(query.contains("private static final String USER_DOCUMENT = \"query user("));
+        assertTrue(query.contains("private static final String USER_HASH = \""));
+        assertTrue(query.contains(".extensions(USER_HASH));"));
+        assertTrue(query.contains("return executePersisted(request, USER_DOCUMENT, \"user\", UserNode.class);"));
+        assertTrue(query.contains("if (!e.isPersistedQueryNotFound())"));
+    }
+
+
+    @Test
+    public void generateSelections() throws IOException {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setSelections(true);
+
+        String query = generateQuery(configuration);
+        assertTrue(query.contains("public UserNode user(String id) throws IOException"));
+        assertTrue(query.contains("public UserNode user(String id, UserNodeSelection selection) throws IOException"));
+        assertTrue(query.contains("GqlOperation(\"query\", \"user\", selection.render())"));
+    }
+
+
+    @Test
+    public void generateSelectionsWithSelectionArgument() throws IOException {
+        GqlSchemaParser parser = new GqlSchemaParser("type Query { user(selection: String): User }\n"
+                + "type User { id: ID }");
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setSelections(true);
+
+        String query = generateQuery(parser, configuration);
+        assertTrue(query.contains("public User user(String selection, UserSelection selection_)"));
+        assertTrue(query.contains("GqlOperation(\"query\", \"user\", selection_.render())"));
+    }
+
+
+    @Test(expected = IllegalStateException.class)
+    public void maxSelectionComplexity() throws IOException {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setMaxSelectionComplexity(100);
+
+        generateQuery(configuration);
+    }
+
+
+    @Test
+    public void maxSelectionComplexityCached() throws IOException {
+        ObjectTypeDefinition queryTypeDefinition = gqlSchemaParser.objectTypes().get("Query");
+        SelectionSetRenderer selectionSetRenderer = new SelectionSetRenderer(gqlSchemaParser.types());
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setMaxSelectionComplexity(queryTypeDefinition.getFieldDefinitions().stream()
+                .mapToInt(field -> SelectionSetRenderer.complexity(selectionSetRenderer.render(
+                        SelectionSetRenderer.unwrap(field.getType()).getName())))
+                .max().getAsInt());
+        generateQuery(configuration);
+
+        configuration.setNormalizedCache(true);
+        try {
+            generateQuery(configuration);
+            fail("Selection sets of the normalized cache exceed the maximum complexity");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("more than the maximum complexity"));
+        }
+    }
+
+
+    @Test
+    public void generateStreamingMethods() throws IOException {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setStreamingMethods(true);
+
+        String query = generateQuery(configuration);
+        assertTrue(query.contains("public Stream<UserNodeEdge> allUsersStream("));
+        assertTrue(query.contains(".stream(gqlObjectMapper, send(request, \"allUsers\"), \"allUsers\", \"edges\", "
+                + "UserNodeEdge.class);"));
+        assertTrue(query.contains("private InputStream send(Object request, String operationName)"));
+        assertFalse(query.contains("userStream("));
+    }
+
+
+    @Test
+    public void generatePaginationMethods() throws IOException {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setPaginationMethods(true);
+
+        String query = generateQuery(configuration);
+        assertTrue(query.contains("public GqlPaginator<UserNodeEdge> allUsersIterator(Integer first, "
+                + "Integer last,"));
+        assertTrue(query.contains("(String after) -> allUsers(first, last, before, after, "));
+        assertTrue(query.contains("this.paginationPrefetch = settings.getPaginationPrefetch();"));
+        assertFalse(query.contains("userIterator("));
+    }
+
+
+    @Test
+    public void generateSharedObjectMapper() throws IOException {
+        String query = generateQuery(new GeneratorConfiguration());
+        assertTrue(query.contains("this.gqlObjectMapper = settings.getObjectMapper() != null "
+                + "? settings.getObjectMapper() : GqlObjectMapper.shared();"));
+        assertTrue(query.contains("new GqlMessageConverter(this.gqlObjectMapper)"));
+        assertFalse(query.contains("private ObjectMapper objectMapper;"));
+        assertTrue(query.contains("public static void warmUp(GqlObjectMapper objectMapper) { "
+                + "objectMapper.warmUp(Request.class, MembershipNode.class, "));
+        assertTrue(query.contains("GqlResponseReader.read(gqlObjectMapper, response.getBody(), "));
+    }
+
+
+    @Test
+    public void generateSerializationModule() throws IOException {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setGeneratedSerializers(true);
+
+        String query = generateQuery(configuration);
+        assertTrue(query.contains("registerModules(this.gqlObjectMapper);"));
+        assertTrue(query.contains("registerModules(objectMapper); objectMapper.warmUp("));
+        assertTrue(query.contains("objectMapper.registerModule(new SerializationModule()); "
+                + "objectMapper.registerModule(new RequestModule());"));
+        assertTrue(query.contains("gen.writeStringField(\"query\", value.getQuery());"));
+    }
+
+
+    @Test
+    public void resultCacheTtlFromDirective() {
+        GqlSchemaParser parser = new GqlSchemaParser("directive @cacheControl(maxAge: Int) on FIELD_DEFINITION\n"
+                + "type Query { countries: [String] @cacheControl(maxAge: 300) now: String }");
+        ObjectTypeDefinition queryTypeDefinition = parser.objectTypes().get("Query");
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        QueryGenerator queryGenerator = new QueryGenerator(queryTypeDefinition, parser.types(), parser.scalars(),
+                SRC_FOLDER, PACKAGE_NAME, configuration);
+
+        assertEquals(300_000L, queryGenerator.resultCacheTtl(queryTypeDefinition.getFieldDefinitions().get(0)));
+        assertEquals(0L, queryGenerator.resultCacheTtl(queryTypeDefinition.getFieldDefinitions().get(1)));
+
+        configuration.getResultCacheTtlMillis().put("countries", 5L);
+        assertEquals(5L, queryGenerator.resultCacheTtl(queryTypeDefinition.getFieldDefinitions().get(0)));
+    }
+
+
+    @Test
+    public void generateJavaHttpClient() throws IOException {
+        GeneratorConfiguration configuration = new GeneratorConfiguration();
+        configuration.setTransport(ClientTransport.JAVA_HTTP_CLIENT);
+
+        String query = generateQuery(configuration);
+        assertTrue(query.contains("import java.net.http.HttpClient;"));
+        assertTrue(query.contains("public Query(String url, String token, Executor executor)"));
+        assertTrue(query.contains("public Query(String url, String token, GqlTransportSettings settings, "
+                + "Executor executor)"));
+        assertTrue(query.contains("builder.header(\"Accept-Encoding\", \"gzip\");"));
+        assertTrue(query.contains("if (ownHttpClient && httpClient instanceof AutoCloseable) {"));
+        assertTrue(query.contains("return execute(request, \"sharingGroup\", SharingGroupNode.class);"));
+        assertTrue(query.contains("@ToString.Exclude private final String authorization;"));
+        assertFalse(query.contains("private String token;"));
+        assertFalse(query.contains("RestTemplate"));
+    }
+
+
+    private String generateQuery(GeneratorConfiguration configuration) throws IOException {
+        return generateQuery(gqlSchemaParser, configuration);
+    }
+
+
+    /**
+     * Generate the endpoint class of the schema's query type into a temporary folder.
+     *
+     * @return Source of the endpoint class, with every run of whitespace replaced by a single space
+     */
+    private String generateQuery(GqlSchemaParser parser, GeneratorConfiguration configuration) throws IOException {
+        Path generationFolder = temporaryFolder.newFolder().toPath();
+        new QueryGenerator(parser.objectTypes().get("Query"), parser.types(), parser.scalars(),
+                generationFolder.toString(), PACKAGE_NAME, configuration).generate();
+        Path query = generationFolder.resolve(PACKAGE_NAME.replace(".", "/")).resolve("Query.java");
+        return new String(Files.readAllBytes(query), StandardCharsets.UTF_8).replaceAll("\\s+", " ");
+    }
+
 }
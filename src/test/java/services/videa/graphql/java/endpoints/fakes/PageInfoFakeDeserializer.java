@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.endpoints.fakes;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import java.io.IOException;
+import java.lang.Boolean;
+import java.lang.Class;
+import java.lang.Override;
+import java.lang.String;
+import java.lang.SuppressWarnings;
+
+/**
+ * Streaming deserializer of 'PageInfoFake'.
+ */
+public class PageInfoFakeDeserializer extends StdDeserializer<PageInfoFake> implements ResolvableDeserializer {
+  public PageInfoFakeDeserializer() {
+    super(PageInfoFake.class);
+  }
+
+  @Override
+  public void resolve(DeserializationContext ctxt) throws JsonMappingException {
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public PageInfoFake deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.START_OBJECT) {
+      token = p.nextToken();
+    } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+      return (PageInfoFake) ctxt.handleUnexpectedToken(PageInfoFake.class, p);
+    }
+    PageInfoFake value = new PageInfoFake();
+    for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+      String name = p.getCurrentName();
+      p.nextToken();
+      switch (name) {
+        case "hasNextPage":
+          value.setHasNextPage(p.currentToken().isBoolean() ? (Boolean) p.getBooleanValue() : readScalar(p, ctxt, Boolean.class));
+          break;
+        case "hasPreviousPage":
+          value.setHasPreviousPage(p.currentToken().isBoolean() ? (Boolean) p.getBooleanValue() : readScalar(p, ctxt, Boolean.class));
+          break;
+        case "startCursor":
+          value.setStartCursor(p.hasToken(JsonToken.VALUE_STRING) ? p.getText() : readScalar(p, ctxt, String.class));
+          break;
+        case "endCursor":
+          value.setEndCursor(p.hasToken(JsonToken.VALUE_STRING) ? p.getText() : readScalar(p, ctxt, String.class));
+          break;
+        default:
+          handleUnknownProperty(p, ctxt, value, name);
+      }
+    }
+    return value;
+  }
+
+  private static <T> T readScalar(JsonParser p, DeserializationContext ctxt, Class<T> type) throws
+      IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (token.isStructStart()) {
+      p.skipChildren();
+      return type.cast(ctxt.handleUnexpectedToken(type, token, p, null));
+    }
+    return ctxt.readValue(p, type);
+  }
+}
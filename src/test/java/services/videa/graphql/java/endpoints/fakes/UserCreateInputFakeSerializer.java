@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.endpoints.fakes;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+import java.lang.Override;
+
+/**
+ * Streaming serializer of 'UserCreateInputFake'.
+ */
+public class UserCreateInputFakeSerializer extends StdSerializer<UserCreateInputFake> {
+  public UserCreateInputFakeSerializer() {
+    super(UserCreateInputFake.class);
+  }
+
+  @Override
+  public void serialize(UserCreateInputFake value, JsonGenerator gen, SerializerProvider provider)
+      throws IOException {
+    gen.writeStartObject();
+    gen.writeStringField("username", value.getUsername());
+    gen.writeStringField("email", value.getEmail());
+    gen.writeStringField("password", value.getPassword());
+    gen.writeStringField("firstName", value.getFirstName());
+    gen.writeStringField("lastName", value.getLastName());
+    gen.writeStringField("company", value.getCompany());
+    gen.writeStringField("address", value.getAddress());
+    gen.writeStringField("zip", value.getZip());
+    gen.writeStringField("city", value.getCity());
+    gen.writeStringField("tel", value.getTel());
+    gen.writeStringField("telMobile", value.getTelMobile());
+    gen.writeStringField("externalUserId", value.getExternalUserId());
+    gen.writeEndObject();
+  }
+}
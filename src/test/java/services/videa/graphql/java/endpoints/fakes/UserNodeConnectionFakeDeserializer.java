@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.endpoints.fakes;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import java.io.IOException;
+import java.lang.Object;
+import java.lang.Override;
+import java.lang.SuppressWarnings;
+import java.util.List;
+
+/**
+ * Streaming deserializer of 'UserNodeConnectionFake'.
+ */
+public class UserNodeConnectionFakeDeserializer extends StdDeserializer<UserNodeConnectionFake> implements ResolvableDeserializer {
+  private JsonDeserializer<Object> pageInfoDeserializer;
+
+  private JsonDeserializer<Object> edgesDeserializer;
+
+  public UserNodeConnectionFakeDeserializer() {
+    super(UserNodeConnectionFake.class);
+  }
+
+  @Override
+  public void resolve(DeserializationContext ctxt) throws JsonMappingException {
+    pageInfoDeserializer = ctxt.findRootValueDeserializer(ctxt.constructType(PageInfoFake.class));
+    edgesDeserializer = ctxt.findRootValueDeserializer(ctxt.getTypeFactory().constructType(new TypeReference<List<UserNodeEdgeFake>>() { }));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public UserNodeConnectionFake deserialize(JsonParser p, DeserializationContext ctxt) throws
+      IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.START_OBJECT) {
+      token = p.nextToken();
+    } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+      return (UserNodeConnectionFake) ctxt.handleUnexpectedToken(UserNodeConnectionFake.class, p);
+    }
+    UserNodeConnectionFake value = new UserNodeConnectionFake();
+    for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+      String name = p.getCurrentName();
+      p.nextToken();
+      switch (name) {
+        case "pageInfo":
+          value.setPageInfo(p.currentToken() == JsonToken.VALUE_NULL ? null : (PageInfoFake) pageInfoDeserializer.deserialize(p, ctxt));
+          break;
+        case "edges":
+          value.setEdges(p.currentToken() == JsonToken.VALUE_NULL ? null : (List<UserNodeEdgeFake>) edgesDeserializer.deserialize(p, ctxt));
+          break;
+        default:
+          handleUnknownProperty(p, ctxt, value, name);
+      }
+    }
+    return value;
+  }
+}
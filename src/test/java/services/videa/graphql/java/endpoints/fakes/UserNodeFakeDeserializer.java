@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.endpoints.fakes;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import java.io.IOException;
+import java.lang.Class;
+import java.lang.Integer;
+import java.lang.Override;
+import java.lang.String;
+import java.lang.SuppressWarnings;
+
+/**
+ * Streaming deserializer of 'UserNodeFake'.
+ */
+public class UserNodeFakeDeserializer extends StdDeserializer<UserNodeFake> implements ResolvableDeserializer {
+  public UserNodeFakeDeserializer() {
+    super(UserNodeFake.class);
+  }
+
+  @Override
+  public void resolve(DeserializationContext ctxt) throws JsonMappingException {
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public UserNodeFake deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.START_OBJECT) {
+      token = p.nextToken();
+    } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+      return (UserNodeFake) ctxt.handleUnexpectedToken(UserNodeFake.class, p);
+    }
+    UserNodeFake value = new UserNodeFake();
+    for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+      String name = p.getCurrentName();
+      p.nextToken();
+      switch (name) {
+        case "id":
+          value.setId(p.hasToken(JsonToken.VALUE_STRING) ? p.getText() : readScalar(p, ctxt, String.class));
+          break;
+        case "email":
+          value.setEmail(p.hasToken(JsonToken.VALUE_STRING) ? p.getText() : readScalar(p, ctxt, String.class));
+          break;
+        case "zip":
+          value.setZip(p.hasToken(JsonToken.VALUE_STRING) ? p.getText() : readScalar(p, ctxt, String.class));
+          break;
+        case "city":
+          value.setCity(p.hasToken(JsonToken.VALUE_STRING) ? p.getText() : readScalar(p, ctxt, String.class));
+          break;
+        case "username":
+          value.setUsername(p.hasToken(JsonToken.VALUE_STRING) ? p.getText() : readScalar(p, ctxt, String.class));
+          break;
+        case "firstName":
+          value.setFirstName(p.hasToken(JsonToken.VALUE_STRING) ? p.getText() : readScalar(p, ctxt, String.class));
+          break;
+        case "lastName":
+          value.setLastName(p.hasToken(JsonToken.VALUE_STRING) ? p.getText() : readScalar(p, ctxt, String.class));
+          break;
+        case "externalUserId":
+          value.setExternalUserId(p.hasToken(JsonToken.VALUE_STRING) ? p.getText() : readScalar(p, ctxt, String.class));
+          break;
+        case "title":
+          value.setTitle(p.hasToken(JsonToken.VALUE_STRING) ? p.getText() : readScalar(p, ctxt, String.class));
+          break;
+        case "url":
+          value.setUrl(p.hasToken(JsonToken.VALUE_STRING) ? p.getText() : readScalar(p, ctxt, String.class));
+          break;
+        case "company":
+          value.setCompany(p.hasToken(JsonToken.VALUE_STRING) ? p.getText() : readScalar(p, ctxt, String.class));
+          break;
+        case "tel":
+          value.setTel(p.hasToken(JsonToken.VALUE_STRING) ? p.getText() : readScalar(p, ctxt, String.class));
+          break;
+        case "telMobile":
+          value.setTelMobile(p.hasToken(JsonToken.VALUE_STRING) ? p.getText() : readScalar(p, ctxt, String.class));
+          break;
+        case "avatar":
+          value.setAvatar(p.hasToken(JsonToken.VALUE_STRING) ? p.getText() : readScalar(p, ctxt, String.class));
+          break;
+        case "pk":
+          value.setPk(p.hasToken(JsonToken.VALUE_NUMBER_INT) ? (Integer) p.getIntValue() : readScalar(p, ctxt, Integer.class));
+          break;
+        case "address":
+          value.setAddress(p.hasToken(JsonToken.VALUE_STRING) ? p.getText() : readScalar(p, ctxt, String.class));
+          break;
+        case "fullName":
+          value.setFullName(p.hasToken(JsonToken.VALUE_STRING) ? p.getText() : readScalar(p, ctxt, String.class));
+          break;
+        default:
+          handleUnknownProperty(p, ctxt, value, name);
+      }
+    }
+    return value;
+  }
+
+  private static <T> T readScalar(JsonParser p, DeserializationContext ctxt, Class<T> type) throws
+      IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (token.isStructStart()) {
+      p.skipChildren();
+      return type.cast(ctxt.handleUnexpectedToken(type, token, p, null));
+    }
+    return ctxt.readValue(p, type);
+  }
+}
@@ -17,6 +17,7 @@ import services.videa.graphql.java.schema.GqlSchemaLoader;
 import services.videa.graphql.java.schema.GqlSchemaParser;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class InputMapperTest {
 
@@ -42,4 +43,17 @@ public class InputMapperTest {
     }
 
 
+    @Test
+    public void immutableInput() {
+        TypeSpec typeSpec = new InputMapper(schemaParser.scalars(), PACKAGE_NAME, true)
+                .convert(schemaParser.inputTypes().get("ApproveMembershipInput"));
+        String code = typeSpec.toString();
+
+        assertTrue(code.contains("public final class ApproveMembershipInput {"));
+        assertTrue(code.contains("private final java.lang.String membershipId;"));
+        assertTrue(code.contains("@com.fasterxml.jackson.annotation.JsonProperty(\"membershipId\") "
+                + "java.lang.String membershipId"));
+    }
+
+
 }
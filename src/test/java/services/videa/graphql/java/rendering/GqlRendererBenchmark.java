@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.rendering;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import services.videa.graphql.java.endpoints.fakes.CreateUserInputFake;
+import services.videa.graphql.java.endpoints.fakes.UserCreateInputFake;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Compares the former reflective rendering of input fields, which looked up its own method name from a stack
+ * trace and read every field via {@link Field#get(Object)}, with the cached renderers of
+ * {@link GqlRenderer#renderInputFields(Object)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GqlRendererBenchmark {
+
+    private CreateUserInputFake input;
+
+
+    @Setup
+    public void setUp() {
+        UserCreateInputFake user = new UserCreateInputFake();
+        user.setUsername("user.name");
+        user.setEmail("user.name@mailinator.com");
+        user.setPassword("secreate");
+        user.setFirstName("User");
+        user.setLastName("Name");
+        user.setZip("77777");
+        user.setCity("City");
+
+        input = new CreateUserInputFake();
+        input.setUser(user);
+        input.setClientMutationId("7c32421f-ec08-48fb-9c05-68d836b2cee3");
+    }
+
+
+    @Benchmark
+    public String reflective() throws NoSuchMethodException, IllegalAccessException {
+        String methodName = new Exception().getStackTrace()[0].getMethodName();
+        String objectName = GqlRendererBenchmark.class.getMethod(methodName).getName();
+        return objectName + ": { " + inputJson(input) + " } ";
+    }
+
+
+    @Benchmark
+    public String cached() {
+        return GqlRenderer.renderInputFields(input);
+    }
+
+
+    private static String inputJson(Object input) throws IllegalAccessException {
+        StringBuilder inputJson = new StringBuilder();
+
+        for (Field field : input.getClass().getDeclaredFields()) {
+            field.setAccessible(true);
+            String fieldClassName = field.getType().getName();
+            Object value = field.get(input);
+
+            if (value != null) {
+                if (fieldClassName.startsWith("java.lang")
+                        || fieldClassName.startsWith("java.math")
+                        || fieldClassName.startsWith("java.util")) {
+
+                    String quotes = value.getClass().getName().equals("java.lang.String") ? "\"" : "";
+                    inputJson.append(field.getName()).append(": ").append(quotes).append(value).append(quotes)
+                            .append(" ");
+
+                } else {
+                    inputJson.append(field.getName()).append(": ").append(" { ");
+                    String fieldJson = inputJson(value);
+                    inputJson.append(fieldJson).append(" } ");
+                }
+            }
+        }
+        return inputJson.toString();
+    }
+
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GqlRendererBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
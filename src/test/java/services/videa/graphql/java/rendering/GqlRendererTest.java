@@ -0,0 +1,124 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.rendering;
+
+import lombok.Data;
+import org.junit.Test;
+import services.videa.graphql.java.endpoints.fakes.CreateUserInputFake;
+import services.videa.graphql.java.endpoints.fakes.UserCreateInputFake;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class GqlRendererTest {
+
+    @Test
+    public void renderInputFields() {
+        CreateUserInputFake input = new CreateUserInputFake();
+        input.setUser(createUserCreateInput());
+        input.setClientMutationId("7c32421f-ec08-48fb-9c05-68d836b2cee3");
+
+        String output = "input: { user:  { username: \"user.name\" email: \"user.name@mailinator.com\" " +
+                "password: \"secreate\" firstName: \"User\" lastName: \"Name\" zip: \"77777\" city: \"City\"  } " +
+                "clientMutationId: \"7c32421f-ec08-48fb-9c05-68d836b2cee3\"  } ";
+        assertEquals(output, GqlRenderer.renderInputFields(input));
+    }
+
+
+    @Test
+    public void renderNullInput() {
+        assertEquals("", GqlRenderer.renderInputFields(null));
+    }
+
+
+    @Test
+    public void renderEnumsAndLists() {
+        ReservationFilterFake filter = new ReservationFilterFake();
+        filter.setState(ReservationStateFake.CLOSED);
+        filter.setStates(Arrays.asList(ReservationStateFake.CLOSED, ReservationStateFake.OPEN));
+        filter.setIds(Arrays.asList("1", "2"));
+        filter.setFirst(10);
+
+        assertEquals("filter: { state: CLOSED states: [CLOSED, OPEN] ids: [\"1\", \"2\"] first: 10  } ",
+                GqlRenderer.renderInputFields("filter", filter));
+    }
+
+
+    @Test
+    public void escapeStrings() {
+        UserCreateInputFake input = new UserCreateInputFake();
+        input.setUsername("say \"hello\" \\o/");
+
+        assertEquals("input: { username: \"say \\\"hello\\\" \\\\o/\"  } ", GqlRenderer.renderInputFields(input));
+    }
+
+
+    @Test
+    public void escapeControlCharacters() {
+        UserCreateInputFake input = new UserCreateInputFake();
+        input.setUsername("a\nb\r\tc\b\fd\u0001e");
+
+        assertEquals("input: { username: \"a\\nb\\r\\tc\\b\\fd\\u0001e\"  } ", GqlRenderer.renderInputFields(input));
+    }
+
+
+    private UserCreateInputFake createUserCreateInput() {
+        UserCreateInputFake input = new UserCreateInputFake();
+        input.setUsername("user.name");
+        input.setEmail("user.name@mailinator.com");
+        input.setPassword("secreate");
+        input.setFirstName("User");
+        input.setLastName("Name");
+        input.setZip("77777");
+        input.setCity("City");
+        return input;
+    }
+
+
+    @Test
+    public void renderCyclicReturnFields() {
+        assertEquals("id best  { id  } friends { id   } ", GqlRenderer.renderReturnFields(PersonFake.class));
+        assertEquals("id ", GqlRenderer.renderReturnFields(PersonFake.class, 1));
+    }
+
+
+    public enum ReservationStateFake {
+        OPEN, CLOSED
+    }
+
+
+    @Data
+    public static class ReservationFilterFake {
+        private ReservationStateFake state;
+        private List<ReservationStateFake> states;
+        private List<String> ids;
+        private Integer first;
+    }
+
+
+    @Data
+    public static class PersonFake {
+        private String id;
+        private FriendFake best;
+        private List<FriendFake> friends;
+    }
+
+
+    @Data
+    public static class FriendFake {
+        private String id;
+        private PersonFake person;
+        private List<FriendFake> friends;
+    }
+
+}
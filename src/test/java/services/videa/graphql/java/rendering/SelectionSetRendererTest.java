@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.rendering;
+
+import org.junit.Before;
+import org.junit.Test;
+import services.videa.graphql.java.schema.GqlSchemaLoader;
+import services.videa.graphql.java.schema.GqlSchemaParser;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SelectionSetRendererTest {
+
+    private SelectionSetRenderer selectionSetRenderer;
+
+    @Before
+    public void setUp() {
+        File file = GqlSchemaLoader.load("graphql-java-test.gql", "");
+        GqlSchemaParser gqlSchemaParser = new GqlSchemaParser(file);
+        selectionSetRenderer = new SelectionSetRenderer(gqlSchemaParser.types());
+    }
+
+
+    @Test
+    public void scalarFields() {
+        assertEquals("field messages ", selectionSetRenderer.render("ErrorType"));
+    }
+
+
+    @Test
+    public void nestedFields() {
+        String selectionSet = selectionSetRenderer.render("CreateUserPayload");
+
+        assertTrue(selectionSet.startsWith("userErrors { field messages } user { id email "));
+        assertTrue(selectionSet.endsWith("} clientMutationId "));
+    }
+
+
+    @Test
+    public void basicScalar() {
+        assertEquals("", selectionSetRenderer.render("String"));
+    }
+
+
+    @Test
+    public void cyclicType() {
+        String selectionSet = selectionSetRenderer.render("ReservationNode");
+
+        assertTrue(selectionSet.startsWith("id state "));
+        assertFalse(selectionSet.contains("neighboringReservations"));
+    }
+
+
+    @Test
+    public void typename() {
+        String selectionSet = selectionSetRenderer.render("CreateUserPayload", true);
+
+        assertTrue(selectionSet.startsWith("__typename userErrors { __typename field messages } user { __typename id "));
+        assertEquals("", selectionSetRenderer.render("String", true));
+    }
+
+
+    @Test
+    public void maxDepth() {
+        File file = GqlSchemaLoader.load("graphql-java-test.gql", "");
+        SelectionSetRenderer renderer = new SelectionSetRenderer(new GqlSchemaParser(file).types(), 2);
+        String selectionSet = renderer.render("ReservationNode");
+
+        assertEquals(2, SelectionSetRenderer.depth(selectionSet));
+        assertTrue(SelectionSetRenderer.depth(selectionSetRenderer.render("ReservationNode")) > 2);
+        assertTrue(SelectionSetRenderer.complexity(selectionSet)
+                < SelectionSetRenderer.complexity(selectionSetRenderer.render("ReservationNode")));
+    }
+
+
+    @Test
+    public void complexity() {
+        assertEquals(4, SelectionSetRenderer.complexity("id user { id email } "));
+        assertEquals(2, SelectionSetRenderer.depth("id user { id email } "));
+        assertEquals(0, SelectionSetRenderer.complexity(""));
+        assertEquals(0, SelectionSetRenderer.depth(""));
+    }
+
+}
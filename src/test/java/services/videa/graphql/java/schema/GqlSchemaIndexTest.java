@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.schema;
+
+import graphql.language.ObjectTypeDefinition;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class GqlSchemaIndexTest {
+
+    private GqlSchemaIndex index;
+
+    @Before
+    public void setUp() {
+        java.io.File file = GqlSchemaLoader.load("graphql-java-test.gql", "");
+        index = new GqlSchemaParser(file).index();
+    }
+
+
+    @Test
+    public void kinds() {
+        assertTrue(index.objectTypes().containsKey("UserNode"));
+        assertTrue(index.interfaces().containsKey("Node"));
+        assertTrue(index.scalars().containsKey("Decimal"));
+        assertFalse(index.types().containsKey("Decimal"));
+        assertSame(index.objectTypes().get("UserNode"), index.findByName("UserNode"));
+        assertSame(index.scalars().get("Decimal"), index.findByName("Decimal"));
+        assertNull(index.findByName("Unknown"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void immutable() {
+        index.objectTypes().remove("UserNode");
+    }
+
+    @Test
+    public void usages() {
+        Set<String> usages = index.usages("UserNode");
+        assertTrue(usages.contains("Query"));
+        assertTrue(usages.contains("UserNodeEdge"));
+        assertTrue(index.usages("Unknown").isEmpty());
+    }
+
+    @Test
+    public void implementations() {
+        List<String> names = index.implementations("Node").stream()
+                .map(ObjectTypeDefinition::getName)
+                .collect(Collectors.toList());
+        assertTrue(names.contains("UserNode"));
+        assertTrue(names.contains("CityNode"));
+        assertFalse(names.contains("ElectricVehicleData"));
+    }
+
+}
@@ -10,19 +10,32 @@
 
 package services.videa.graphql.java.schema;
 
+import graphql.language.EnumTypeDefinition;
 import graphql.language.InputObjectTypeDefinition;
 import graphql.language.ObjectTypeDefinition;
 import graphql.language.ScalarTypeDefinition;
 import graphql.language.TypeDefinition;
+import graphql.schema.idl.errors.SchemaProblem;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
-
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Map;
 
 import static org.junit.Assert.*;
 
 public class GqlSchemaParserTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private GqlSchemaParser gqlSchemaParser;
 
     @Before
@@ -76,4 +89,34 @@ public class GqlSchemaParserTest {
         assertTrue(byName instanceof InputObjectTypeDefinition);
     }
 
+
+    @Test
+    public void parseReader() throws IOException {
+        java.io.File file = GqlSchemaLoader.load("graphql-java-test.gql", "");
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            GqlSchemaParser readerParser = new GqlSchemaParser(reader);
+            assertEquals(gqlSchemaParser.types().keySet(), readerParser.types().keySet());
+        }
+    }
+
+    @Test
+    public void parseMultipleFiles() throws IOException {
+        Path query = temporaryFolder.newFile("query.gql").toPath();
+        Path user = temporaryFolder.newFile("user.gql").toPath();
+        Files.write(query, "type Query { user: User }".getBytes(StandardCharsets.UTF_8));
+        Files.write(user, "type User { name: String }\nenum Role { ADMIN }".getBytes(StandardCharsets.UTF_8));
+
+        GqlSchemaParser multiParser = new GqlSchemaParser(Arrays.asList(query.toFile(), user.toFile()));
+        assertTrue(multiParser.findByName("Query") instanceof ObjectTypeDefinition);
+        assertTrue(multiParser.findByName("User") instanceof ObjectTypeDefinition);
+        assertTrue(multiParser.findByName("Role") instanceof EnumTypeDefinition);
+    }
+
+    @Test(expected = SchemaProblem.class)
+    public void parseMultipleFiles_DuplicateType() throws IOException {
+        Path user = temporaryFolder.newFile("user.gql").toPath();
+        Files.write(user, "type User { name: String }".getBytes(StandardCharsets.UTF_8));
+        new GqlSchemaParser(Arrays.asList(user.toFile(), user.toFile()));
+    }
+
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.selections;
+
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeSpec;
+import org.junit.Test;
+import services.videa.graphql.java.schema.GqlSchemaParser;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SelectionMapperTest {
+
+    private static final String PACKAGE_NAME = "services.videa.graphql.java.selections";
+
+    private GqlSchemaParser schemaParser = new GqlSchemaParser("type Query { user(id: ID!): User }\n"
+            + "type User { id: ID class: String friends(first: Int): [User] posts(after: String!): [String] "
+            + "owner: Owner }\n"
+            + "type Group { name: String }\n"
+            + "union Owner = User | Group\n");
+    private SelectionMapper selectionMapper = new SelectionMapper(schemaParser.types());
+
+
+    @Test
+    public void convert() {
+        TypeSpec typeSpec = selectionMapper.convert(schemaParser.objectTypes().get("User"), PACKAGE_NAME);
+        List<String> methods = typeSpec.methodSpecs.stream().map(methodSpec -> methodSpec.name)
+                .collect(Collectors.toList());
+
+        assertEquals("UserSelection", typeSpec.name);
+        assertEquals("[select, id, class_, friends, owner]", methods.toString());
+
+        MethodSpec friends = typeSpec.methodSpecs.get(3);
+        assertEquals("java.util.function.Consumer<? super " + PACKAGE_NAME + ".UserSelection>",
+                friends.parameters.get(0).type.toString());
+        assertTrue(friends.code.toString().contains("field(\"friends\", new " + PACKAGE_NAME
+                + ".UserSelection(), selection)"));
+        assertTrue(typeSpec.methodSpecs.get(4).code.toString().contains("field(\"owner { __typename }\")"));
+    }
+
+}
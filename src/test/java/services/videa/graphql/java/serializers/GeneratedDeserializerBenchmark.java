@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.serializers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import services.videa.graphql.java.endpoints.fakes.PageInfoFake;
+import services.videa.graphql.java.endpoints.fakes.PageInfoFakeDeserializer;
+import services.videa.graphql.java.endpoints.fakes.UserNodeConnectionFake;
+import services.videa.graphql.java.endpoints.fakes.UserNodeConnectionFakeDeserializer;
+import services.videa.graphql.java.endpoints.fakes.UserNodeEdgeFake;
+import services.videa.graphql.java.endpoints.fakes.UserNodeEdgeFakeDeserializer;
+import services.videa.graphql.java.endpoints.fakes.UserNodeFake;
+import services.videa.graphql.java.endpoints.fakes.UserNodeFakeDeserializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Compares reflection-based databinding with the deserializers generated by {@link SerializerMapper}, both with a
+ * warmed-up object mapper and with a new object mapper per operation, which includes the introspection of the
+ * classes on first use. The fake deserializers are the mapper's output for the fake types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GeneratedDeserializerBenchmark {
+
+    @Param({"10", "10000"})
+    public int edges;
+
+    private ObjectMapper reflectiveMapper;
+    private ObjectMapper generatedMapper;
+    private byte[] connection;
+
+
+    @Setup
+    public void setUp() throws IOException {
+        reflectiveMapper = new ObjectMapper();
+        generatedMapper = new ObjectMapper().registerModule(module());
+
+        List<UserNodeEdgeFake> edgeList = new ArrayList<>();
+        for (int i = 0; i < edges; i++) {
+            UserNodeFake user = new UserNodeFake();
+            user.setId("VXNlck5vZGU6" + i);
+            user.setPk(i);
+            user.setUsername("user.name." + i);
+            user.setEmail("user.name." + i + "@mailinator.com");
+            user.setFirstName("User");
+            user.setLastName("Name");
+            user.setFullName("User Name");
+            user.setZip("77777");
+            user.setCity("City");
+            user.setAddress("Street " + i);
+
+            UserNodeEdgeFake edge = new UserNodeEdgeFake();
+            edge.setNode(user);
+            edge.setCursor("YXJyYXljb25uZWN0aW9uOj" + i);
+            edgeList.add(edge);
+        }
+
+        UserNodeConnectionFake userNodeConnection = new UserNodeConnectionFake();
+        userNodeConnection.setPageInfo(new PageInfoFake());
+        userNodeConnection.setEdges(edgeList);
+
+        connection = reflectiveMapper.writeValueAsBytes(userNodeConnection);
+    }
+
+
+    @Benchmark
+    public UserNodeConnectionFake reflective() throws IOException {
+        return reflectiveMapper.readValue(connection, UserNodeConnectionFake.class);
+    }
+
+
+    @Benchmark
+    public UserNodeConnectionFake generated() throws IOException {
+        return generatedMapper.readValue(connection, UserNodeConnectionFake.class);
+    }
+
+
+    @Benchmark
+    public UserNodeConnectionFake reflectiveColdMapper() throws IOException {
+        return new ObjectMapper().readValue(connection, UserNodeConnectionFake.class);
+    }
+
+
+    @Benchmark
+    public UserNodeConnectionFake generatedColdMapper() throws IOException {
+        return new ObjectMapper().registerModule(module()).readValue(connection, UserNodeConnectionFake.class);
+    }
+
+
+    private static SimpleModule module() {
+        return new SimpleModule("SerializationModule")
+                .addDeserializer(UserNodeConnectionFake.class, new UserNodeConnectionFakeDeserializer())
+                .addDeserializer(PageInfoFake.class, new PageInfoFakeDeserializer())
+                .addDeserializer(UserNodeEdgeFake.class, new UserNodeEdgeFakeDeserializer())
+                .addDeserializer(UserNodeFake.class, new UserNodeFakeDeserializer());
+    }
+
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GeneratedDeserializerBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.serializers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import services.videa.graphql.java.client.GqlObjectMapper;
+import services.videa.graphql.java.client.GqlResponseReader;
+import services.videa.graphql.java.endpoints.fakes.CreateUserInputFake;
+import services.videa.graphql.java.endpoints.fakes.CreateUserInputFakeSerializer;
+import services.videa.graphql.java.endpoints.fakes.PageInfoFake;
+import services.videa.graphql.java.endpoints.fakes.PageInfoFakeDeserializer;
+import services.videa.graphql.java.endpoints.fakes.UserCreateInputFake;
+import services.videa.graphql.java.endpoints.fakes.UserCreateInputFakeSerializer;
+import services.videa.graphql.java.endpoints.fakes.UserNodeConnectionFake;
+import services.videa.graphql.java.endpoints.fakes.UserNodeConnectionFakeDeserializer;
+import services.videa.graphql.java.endpoints.fakes.UserNodeEdgeFake;
+import services.videa.graphql.java.endpoints.fakes.UserNodeEdgeFakeDeserializer;
+import services.videa.graphql.java.endpoints.fakes.UserNodeFake;
+import services.videa.graphql.java.endpoints.fakes.UserNodeFakeDeserializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the first call of a generated client in a new JVM: the request is serialized and the response is bound,
+ * either by Jackson's introspection of the generated classes or by the generated (de)serializers of the native
+ * image mode. The fake (de)serializers are the output of {@link SerializerMapper} for the fake types. The response
+ * is built without Jackson, so nothing is warmed up before the measured call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class NativeImageStartupBenchmark {
+
+    private static final int EDGES = 10;
+
+    private Map<String, Object> request;
+    private byte[] response;
+
+
+    @Setup
+    public void setUp() {
+        UserCreateInputFake user = new UserCreateInputFake();
+        user.setUsername("user.name");
+        user.setEmail("user.name@mailinator.com");
+        CreateUserInputFake input = new CreateUserInputFake();
+        input.setUser(user);
+
+        request = new HashMap<>();
+        request.put("query", "mutation createUser($input: CreateUserInput!) { createUser(input: $input) { id } }");
+        request.put("variables", Collections.singletonMap("input", input));
+
+        StringBuilder edges = new StringBuilder();
+        for (int i = 0; i < EDGES; i++) {
+            edges.append(i == 0 ? "" : ",").append("{\"node\":{\"id\":\"VXNlck5vZGU6").append(i)
+                    .append("\",\"pk\":").append(i).append(",\"username\":\"user.name.").append(i)
+                    .append("\",\"email\":\"user.name.").append(i).append("@mailinator.com\"},")
+                    .append("\"cursor\":\"YXJyYXljb25uZWN0aW9uOj").append(i).append("\"}");
+        }
+        response = ("{\"data\":{\"allUsers\":{\"pageInfo\":{\"hasNextPage\":false,\"endCursor\":null},"
+                + "\"edges\":[" + edges + "]}}}").getBytes(StandardCharsets.UTF_8);
+    }
+
+
+    @Benchmark
+    public UserNodeConnectionFake reflective() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.writeValueAsBytes(request);
+        return GqlResponseReader.read(objectMapper, new ByteArrayInputStream(response), "allUsers",
+                UserNodeConnectionFake.class);
+    }
+
+
+    @Benchmark
+    public UserNodeConnectionFake generated() throws IOException {
+        GqlObjectMapper objectMapper = new GqlObjectMapper(new ObjectMapper()).registerModule(module());
+        objectMapper.writer(Map.class).writeValueAsBytes(request);
+        return GqlResponseReader.read(objectMapper, new ByteArrayInputStream(response), "allUsers",
+                UserNodeConnectionFake.class);
+    }
+
+
+    private static SimpleModule module() {
+        return new SimpleModule("SerializationModule") {
+            {
+                addDeserializer(UserNodeConnectionFake.class, new UserNodeConnectionFakeDeserializer());
+                addDeserializer(PageInfoFake.class, new PageInfoFakeDeserializer());
+                addDeserializer(UserNodeEdgeFake.class, new UserNodeEdgeFakeDeserializer());
+                addDeserializer(UserNodeFake.class, new UserNodeFakeDeserializer());
+                addSerializer(CreateUserInputFake.class, new CreateUserInputFakeSerializer());
+                addSerializer(UserCreateInputFake.class, new UserCreateInputFakeSerializer());
+            }
+        };
+    }
+
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NativeImageStartupBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2019 Videa Project Services GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package services.videa.graphql.java.serializers;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.DeserializationProblemHandler;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.TypeSpec;
+import org.junit.Test;
+import services.videa.graphql.java.endpoints.fakes.UserNodeEdgeFake;
+import services.videa.graphql.java.endpoints.fakes.UserNodeEdgeFakeDeserializer;
+import services.videa.graphql.java.endpoints.fakes.UserNodeFake;
+import services.videa.graphql.java.endpoints.fakes.UserNodeFakeDeserializer;
+import services.videa.graphql.java.schema.GqlSchemaParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SerializerMapperTest {
+
+    private static final String PACKAGE_NAME = "services.videa.graphql.java.endpoints.fakes";
+    private static final String FAKES_FOLDER = "src/test/java/" + PACKAGE_NAME.replace(".", "/");
+
+    private GqlSchemaParser schemaParser = new GqlSchemaParser("type Query { user(id: ID!): UserNodeFake }\n"
+            + "type UserNodeEdgeFake { node: UserNodeFake cursor: String }\n"
+            + "type UserNodeFake { id: ID email: String zip: String city: String username: String "
+            + "firstName: String lastName: String externalUserId: String title: String url: String company: String "
+            + "tel: String telMobile: String avatar: String pk: Int address: String fullName: String "
+            + "friends: [UserNodeFake] }\n"
+            + "input CreateUserInputFake { username: String! pk: Int tags: [String] }\n");
+    private SerializerMapper serializerMapper = new SerializerMapper(schemaParser.scalars(), PACKAGE_NAME);
+
+
+    @Test
+    public void convertType() {
+        TypeSpec typeSpec = serializerMapper.convert(schemaParser.objectTypes().get("UserNodeFake"));
+        String code = typeSpec.toString();
+
+        assertEquals("UserNodeFakeDeserializer", typeSpec.name);
+        assertTrue(code.contains("value.setEmail(p.hasToken(com.fasterxml.jackson.core.JsonToken.VALUE_STRING) "
+                + "? p.getText() : readScalar(p, ctxt, java.lang.String.class));"));
+        assertTrue(code.contains("value.setPk(p.hasToken(com.fasterxml.jackson.core.JsonToken.VALUE_NUMBER_INT) "
+                + "? (java.lang.Integer) p.getIntValue() : readScalar(p, ctxt, java.lang.Integer.class));"));
+        assertTrue(code.contains("friendsDeserializer = ctxt.findRootValueDeserializer(ctxt.getTypeFactory()"
+                + ".constructType(new com.fasterxml.jackson.core.type.TypeReference<java.util.List<" + PACKAGE_NAME
+                + ".UserNodeFake>>() { }));"));
+        assertTrue(code.contains("handleUnknownProperty(p, ctxt, value, name);"));
+    }
+
+
+    @Test
+    public void convertImmutableType() {
+        GqlSchemaParser parser = new GqlSchemaParser("type Query { tag: TagFake }\n"
+                + "type TagFake { name: String count: Int }\n");
+        TypeSpec typeSpec = new SerializerMapper(parser.scalars(), PACKAGE_NAME, true)
+                .convert(parser.objectTypes().get("TagFake"));
+        String code = typeSpec.toString();
+
+        assertTrue(code.contains("java.lang.String name_ = null;"));
+        assertTrue(code.contains("name_ = p.hasToken(com.fasterxml.jackson.core.JsonToken.VALUE_STRING) "
+                + "? p.getText() : readScalar(p, ctxt, java.lang.String.class);"));
+        assertTrue(code.contains("count = p.hasToken(com.fasterxml.jackson.core.JsonToken.VALUE_NUMBER_INT) "
+                + "? (java.lang.Integer) p.getIntValue() : readScalar(p, ctxt, java.lang.Integer.class);"));
+        assertTrue(code.contains("handleUnknownProperty(p, ctxt, handledType(), name);"));
+        assertTrue(code.contains("return new " + PACKAGE_NAME + ".TagFake(name_, count);"));
+    }
+
+
+    @Test
+    public void convertInput() {
+        TypeSpec typeSpec = serializerMapper.convert(schemaParser.inputTypes().get("CreateUserInputFake"));
+        String code = typeSpec.toString();
+
+        assertEquals("CreateUserInputFakeSerializer", typeSpec.name);
+        assertTrue(code.contains("gen.writeStringField(\"username\", value.getUsername());"));
+        assertTrue(code.contains("provider.defaultSerializeField(\"pk\", value.getPk(), gen);"));
+    }
+
+
+    @Test
+    public void convertModule() {
+        TypeSpec typeSpec = serializerMapper.convert(
+                Arrays.asList(schemaParser.objectTypes().get("UserNodeFake")),
+                Arrays.asList(schemaParser.inputTypes().get("CreateUserInputFake")));
+        String code = typeSpec.toString();
+
+        assertEquals(SerializerMapper.MODULE_NAME, typeSpec.name);
+        assertTrue(code.contains("addDeserializer(" + PACKAGE_NAME + ".UserNodeFake.class, new " + PACKAGE_NAME
+                + ".UserNodeFakeDeserializer());"));
+        assertTrue(code.contains("addSerializer(" + PACKAGE_NAME + ".CreateUserInputFake.class, new " + PACKAGE_NAME
+                + ".CreateUserInputFakeSerializer());"));
+    }
+
+
+    /**
+     * The fake deserializers are the mapper's output and read the same values as reflection-based databinding.
+     */
+    @Test
+    public void fakeDeserializers() throws IOException {
+        TypeSpec typeSpec = serializerMapper.convert(schemaParser.objectTypes().get("UserNodeEdgeFake"));
+        String fake = new String(Files.readAllBytes(Paths.get(FAKES_FOLDER, typeSpec.name + ".java")),
+                StandardCharsets.UTF_8);
+        assertTrue(fake.endsWith(JavaFile.builder(PACKAGE_NAME, typeSpec).build().toString()));
+
+        String json = "{\"node\":{\"id\":\"VXNlck5vZGU6MQ==\",\"pk\":1,\"email\":null,\"unknown\":[1,{}]},"
+                + "\"cursor\":\"YXJyYXljb25uZWN0aW9uOjA=\"}";
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new SimpleModule()
+                .addDeserializer(UserNodeEdgeFake.class, new UserNodeEdgeFakeDeserializer())
+                .addDeserializer(UserNodeFake.class, new UserNodeFakeDeserializer()));
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        ObjectMapper reflectiveMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        assertEquals(reflectiveMapper.readValue(json, UserNodeEdgeFake.class),
+                objectMapper.readValue(json, UserNodeEdgeFake.class));
+    }
+
+
+    @Test
+    public void coerceScalars() throws IOException {
+        String json = "{\"id\":1,\"pk\":\"42\",\"email\":null}";
+
+        UserNodeFake userNode = fakeMapper().readValue(json, UserNodeFake.class);
+
+        assertEquals("1", userNode.getId());
+        assertEquals(Integer.valueOf(42), userNode.getPk());
+        assertNull(userNode.getEmail());
+        assertEquals(new ObjectMapper().readValue(json, UserNodeFake.class), userNode);
+    }
+
+
+    @Test
+    public void rejectStructuredScalars() throws IOException {
+        try {
+            fakeMapper().readValue("{\"email\":{\"address\":\"a@b.c\"}}", UserNodeFake.class);
+            fail();
+        } catch (MismatchedInputException e) {
+            assertEquals(String.class, e.getTargetType());
+        }
+
+        ObjectMapper lenientMapper = fakeMapper().addHandler(new DeserializationProblemHandler() {
+            @Override
+            public Object handleUnexpectedToken(DeserializationContext ctxt, Class<?> targetType, JsonToken token,
+                                                JsonParser p, String failureMsg) {
+                return null;
+            }
+        });
+        UserNodeFake userNode = lenientMapper.readValue("{\"email\":{\"address\":[1]},\"pk\":[2],\"zip\":\"1010\"}",
+                UserNodeFake.class);
+
+        assertNull(userNode.getEmail());
+        assertNull(userNode.getPk());
+        assertEquals("1010", userNode.getZip());
+    }
+
+
+    private static ObjectMapper fakeMapper() {
+        return new ObjectMapper().registerModule(new SimpleModule()
+                .addDeserializer(UserNodeFake.class, new UserNodeFakeDeserializer()));
+    }
+
+}
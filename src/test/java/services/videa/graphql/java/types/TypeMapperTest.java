@@ -17,6 +17,7 @@ import services.videa.graphql.java.schema.GqlSchemaLoader;
 import services.videa.graphql.java.schema.GqlSchemaParser;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class TypeMapperTest {
 
@@ -41,4 +42,22 @@ public class TypeMapperTest {
     }
 
 
+    @Test
+    public void immutableType() {
+        TypeSpec typeSpec = new TypeMapper(schemaParser.scalars(), true)
+                .convert(schemaParser.objectTypes().get("ErrorType"), PACKAGE_NAME);
+        String code = typeSpec.toString();
+
+        assertTrue(code.contains("@lombok.Value\n@lombok.Builder(\n    toBuilder = true\n)\n"
+                + "public final class ErrorType {"));
+        assertTrue(code.contains("private final java.lang.String field;"));
+        assertTrue(code.contains("@com.fasterxml.jackson.annotation.JsonCreator\n"
+                + "  public ErrorType(@com.fasterxml.jackson.annotation.JsonProperty(\"field\") "
+                + "java.lang.String field,"));
+        assertTrue(code.contains("this.field = field;"));
+        assertTrue(code.contains("this.messages = messages == null ? null : "
+                + "java.util.Collections.unmodifiableList(new java.util.ArrayList<>(messages));"));
+    }
+
+
 }